@@ -0,0 +1,131 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.benchmark;
+
+import com.github.jonathanxd.koresexperiments.DynamicDispatch;
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.LateBinding;
+import com.github.jonathanxd.koresexperiments.benchmark.DispatchBenchmark.Counter;
+import com.github.jonathanxd.koresexperiments.benchmark.DispatchBenchmark.Named;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteProfiler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of shared call sites invoked concurrently. Use {@link ConcurrentDispatchRunner} to
+ * sweep thread counts from one to all available processors.
+ *
+ * The {@code relink} group measures invocations while another thread keeps changing the target of
+ * all call sites (by starting and stopping the {@link CallSiteProfiler}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentDispatchBenchmark {
+
+    private Named dispatch;
+    private Named lateBinding;
+    private Counter counter;
+
+    @Setup
+    public void setup() {
+        Receiver receiver = new Receivers.A();
+
+        this.dispatch = KoresExperimentsIndyHelper.create(Named.class, DynamicDispatch.EXPERIMENT);
+        this.lateBinding = KoresExperimentsIndyHelper.create(Named.class, LateBinding.EXPERIMENT);
+        this.counter = KoresExperimentsIndyHelper.create(Counter.class, DynamicDispatch.EXPERIMENT);
+
+        this.dispatch.getName(receiver);
+        this.lateBinding.getName(receiver);
+        this.counter.hello(receiver, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        CallSiteProfiler.stop();
+    }
+
+    @Benchmark
+    public String dynamicDispatch(ThreadState state) {
+        return this.dispatch.getName(state.receiver);
+    }
+
+    @Benchmark
+    public String dynamicDispatchPrimitive(ThreadState state) {
+        return this.counter.hello(state.receiver, ++state.n);
+    }
+
+    @Benchmark
+    public String lateBinding(ThreadState state) {
+        return this.lateBinding.getName(state.receiver);
+    }
+
+    @Benchmark
+    public String createAndFirstCall(ThreadState state) {
+        return KoresExperimentsIndyHelper.create(Named.class, DynamicDispatch.EXPERIMENT)
+                .getName(state.receiver);
+    }
+
+    @Benchmark
+    @Group("relink")
+    @GroupThreads(3)
+    public String invokeWhileRelinking(ThreadState state) {
+        return this.dispatch.getName(state.receiver);
+    }
+
+    @Benchmark
+    @Group("relink")
+    @GroupThreads(1)
+    public void relink() {
+        CallSiteProfiler.start();
+        CallSiteProfiler.stop();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        Receiver receiver = new Receivers.A();
+        int n;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs {@link ConcurrentDispatchBenchmark} with thread counts from one to all available processors
+ * (doubling each step) and prints the scaling efficiency of each benchmark, that is the throughput
+ * with {@code n} threads divided by {@code n} times the single thread throughput (linear scaling
+ * is {@code 1.0}).
+ *
+ * The only (optional) argument is the directory to write JSON results to.
+ */
+public final class ConcurrentDispatchRunner {
+
+    private static final String INCLUDE = ConcurrentDispatchBenchmark.class.getName()
+            + "\\.(dynamicDispatch|dynamicDispatchPrimitive|lateBinding|createAndFirstCall)$";
+
+    private ConcurrentDispatchRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        File output = new File(args.length > 0 ? args[0] : "build/reports/jmh");
+        output.mkdirs();
+
+        Map<String, Map<Integer, Double>> scores = new LinkedHashMap<>();
+
+        for (int threads : ConcurrentDispatchRunner.threadCounts()) {
+            Collection<RunResult> results = new Runner(new OptionsBuilder()
+                    .include(INCLUDE)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(output, "concurrent-" + threads + ".json").getPath())
+                    .build()).run();
+
+            for (RunResult result : results) {
+                scores.computeIfAbsent(result.getParams().getBenchmark(), k -> new TreeMap<>())
+                        .put(threads, result.getPrimaryResult().getScore());
+            }
+        }
+
+        for (Map.Entry<String, Map<Integer, Double>> benchmark : scores.entrySet()) {
+            Double single = benchmark.getValue().get(1);
+
+            for (Map.Entry<Integer, Double> score : benchmark.getValue().entrySet()) {
+                double efficiency = single == null || single == 0
+                        ? 0
+                        : score.getValue() / (single * score.getKey());
+
+                System.out.printf("%s threads=%d score=%.3f efficiency=%.2f%n",
+                        benchmark.getKey(), score.getKey(), score.getValue(), efficiency);
+            }
+        }
+    }
+
+    private static List<Integer> threadCounts() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> counts = new ArrayList<>();
+
+        for (int threads = 1; threads < cores; threads *= 2) {
+            counts.add(threads);
+        }
+
+        counts.add(cores);
+        return counts;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.benchmark;
+
+import com.github.jonathanxd.koresexperiments.DynamicDispatch;
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.LateBinding;
+import com.github.jonathanxd.koresexperiments.annotation.Dynamic;
+import com.github.jonathanxd.koresexperiments.annotation.Experiment;
+import com.github.jonathanxd.koresexperiments.annotation.Static;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of a single invocation through each dispatch strategy, over a set of receivers
+ * of one (monomorphic), two (bimorphic) or four (megamorphic) distinct classes.
+ *
+ * Since {@link LateBinding} binds the call site to the first receiver type, late binding
+ * benchmarks use one generated implementation per receiver class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DispatchBenchmark {
+
+    private static final int SIZE = 1024;
+
+    @Param({"monomorphic", "bimorphic", "megamorphic"})
+    public String mix;
+
+    private Receiver[] receivers;
+    private Method[] methods;
+    private MethodHandle[] handles;
+    private Named[] lateBindings;
+    private Counter[] lateBindingCounters;
+    private Named dispatch;
+    private StaticNamed staticDispatch;
+    private Greeter dynamicDispatch;
+    private Counter counter;
+
+    @Setup
+    public void setup() throws Exception {
+        Receiver[] kinds = Receivers.kinds(this.mix);
+
+        this.receivers = new Receiver[SIZE];
+        this.methods = new Method[SIZE];
+        this.handles = new MethodHandle[SIZE];
+        this.lateBindings = new Named[SIZE];
+        this.lateBindingCounters = new Counter[SIZE];
+
+        Map<Class<?>, Named> lateBindingByClass = new HashMap<>();
+        Map<Class<?>, Counter> lateBindingCounterByClass = new HashMap<>();
+
+        for (int i = 0; i < SIZE; i++) {
+            Receiver receiver = kinds[i % kinds.length];
+            Class<?> receiverClass = receiver.getClass();
+
+            this.receivers[i] = receiver;
+            this.methods[i] = receiverClass.getMethod("getName");
+            this.handles[i] = MethodHandles.publicLookup()
+                    .findVirtual(receiverClass, "getName", MethodType.methodType(String.class))
+                    .asType(MethodType.methodType(String.class, Object.class));
+
+            this.lateBindings[i] = lateBindingByClass.computeIfAbsent(receiverClass, c -> {
+                Named named = KoresExperimentsIndyHelper.create(Named.class, LateBinding.EXPERIMENT);
+                named.getName(receiver);
+                return named;
+            });
+
+            this.lateBindingCounters[i] = lateBindingCounterByClass.computeIfAbsent(receiverClass, c -> {
+                Counter counter = KoresExperimentsIndyHelper.create(Counter.class, LateBinding.EXPERIMENT);
+                counter.hello(receiver, 0);
+                return counter;
+            });
+        }
+
+        this.dispatch = KoresExperimentsIndyHelper.create(Named.class, DynamicDispatch.EXPERIMENT);
+        this.staticDispatch = KoresExperimentsIndyHelper.createFromInterface(StaticNamed.class);
+        this.dynamicDispatch = KoresExperimentsIndyHelper.createFromInterface(Greeter.class);
+        this.counter = KoresExperimentsIndyHelper.create(Counter.class, DynamicDispatch.EXPERIMENT);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void direct(Blackhole bh) {
+        for (Receiver receiver : this.receivers) {
+            bh.consume(receiver.getName());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void reflection(Blackhole bh) throws Exception {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(this.methods[i].invoke(this.receivers[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void methodHandle(Blackhole bh) throws Throwable {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume((String) this.handles[i].invokeExact((Object) this.receivers[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void lateBinding(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(this.lateBindings[i].getName(this.receivers[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void lateBindingPrimitive(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(this.lateBindingCounters[i].hello(this.receivers[i], i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void dynamicDispatch(Blackhole bh) {
+        for (Receiver receiver : this.receivers) {
+            bh.consume(this.dispatch.getName(receiver));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void dynamicDispatchStatic(Blackhole bh) {
+        for (Receiver receiver : this.receivers) {
+            bh.consume(this.staticDispatch.name(receiver));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void dynamicDispatchDynamic(Blackhole bh) {
+        for (Receiver receiver : this.receivers) {
+            bh.consume(this.dynamicDispatch.greet(receiver, "world"));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void dynamicDispatchPrimitive(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(this.counter.hello(this.receivers[i], i));
+        }
+    }
+
+    public interface Named {
+        String getName(Object receiver);
+    }
+
+    @Experiment(DynamicDispatch.class)
+    public interface StaticNamed {
+        @Static
+        String name(Object receiver);
+    }
+
+    @Experiment(DynamicDispatch.class)
+    public interface Greeter {
+        @Dynamic
+        String greet(Object receiver, Object who);
+    }
+
+    public interface Counter {
+        String hello(Object receiver, int n);
+    }
+}
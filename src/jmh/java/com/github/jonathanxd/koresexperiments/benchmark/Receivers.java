@@ -0,0 +1,134 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.benchmark;
+
+/**
+ * Receiver classes used by benchmarks. All of them provide the same set of methods, so any of them
+ * can be used as receiver of any benchmark interface.
+ */
+public final class Receivers {
+
+    private Receivers() {
+    }
+
+    /**
+     * Gets one receiver instance of each class used by {@code mix}.
+     *
+     * @param mix Either {@code monomorphic} (one class), {@code bimorphic} (two classes) or {@code
+     *            megamorphic} (four classes).
+     * @return One receiver of each class used by {@code mix}.
+     */
+    public static Receiver[] kinds(String mix) {
+        switch (mix) {
+            case "monomorphic":
+                return new Receiver[]{new A()};
+            case "bimorphic":
+                return new Receiver[]{new A(), new B()};
+            case "megamorphic":
+                return new Receiver[]{new A(), new B(), new C(), new D()};
+            default:
+                throw new IllegalArgumentException("Invalid receiver mix '" + mix + "'!");
+        }
+    }
+
+    public static class A extends Receiver {
+        public static String name() {
+            return "A";
+        }
+
+        @Override
+        public String getName() {
+            return "A";
+        }
+
+        public String greet(String who) {
+            return "Hello " + who + " from A";
+        }
+
+        public String hello(int n) {
+            return n % 2 == 0 ? "A" : "a";
+        }
+    }
+
+    public static class B extends Receiver {
+        public static String name() {
+            return "B";
+        }
+
+        @Override
+        public String getName() {
+            return "B";
+        }
+
+        public String greet(String who) {
+            return "Hello " + who + " from B";
+        }
+
+        public String hello(int n) {
+            return n % 2 == 0 ? "B" : "b";
+        }
+    }
+
+    public static class C extends Receiver {
+        public static String name() {
+            return "C";
+        }
+
+        @Override
+        public String getName() {
+            return "C";
+        }
+
+        public String greet(String who) {
+            return "Hello " + who + " from C";
+        }
+
+        public String hello(int n) {
+            return n % 2 == 0 ? "C" : "c";
+        }
+    }
+
+    public static class D extends Receiver {
+        public static String name() {
+            return "D";
+        }
+
+        @Override
+        public String getName() {
+            return "D";
+        }
+
+        public String greet(String who) {
+            return "Hello " + who + " from D";
+        }
+
+        public String hello(int n) {
+            return n % 2 == 0 ? "D" : "d";
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.benchmark;
+
+import com.github.jonathanxd.koresexperiments.DynamicDispatch;
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.LateBinding;
+import com.github.jonathanxd.koresexperiments.experiment.KoresIndyExperiment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-shot cost of producing {@link #count} implementations of distinct interfaces and of
+ * bootstrapping {@link #count} call sites with distinct names, see {@link StartupTypes}. Each
+ * fork measures a cold JVM once, see {@link StartupDriver} for class and Metaspace usage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int count;
+
+    @Param({"DynamicDispatch", "LateBinding"})
+    public String experiment;
+
+    private KoresIndyExperiment indyExperiment;
+    private StartupTypes types;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        this.indyExperiment = StartupBenchmark.experiment(this.experiment);
+        this.types = StartupTypes.generate(this.count);
+    }
+
+    @Benchmark
+    public void create(Blackhole bh) {
+        for (int i = 0; i < this.count; i++) {
+            bh.consume(KoresExperimentsIndyHelper.create(this.types.getInterface(i), this.indyExperiment));
+        }
+    }
+
+    @Benchmark
+    public void createAndFirstCall(Blackhole bh) {
+        for (int i = 0; i < this.count; i++) {
+            Object named = KoresExperimentsIndyHelper.create(this.types.getInterface(i), this.indyExperiment);
+            bh.consume(this.types.call(i, named));
+        }
+    }
+
+    @Benchmark
+    public void bind(Blackhole bh) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodType type = MethodType.methodType(String.class, Object.class);
+
+        for (int i = 0; i < this.count; i++) {
+            String name = StartupTypes.getName(i);
+            CallSite callSite = this.experiment.equals("LateBinding")
+                    ? LateBinding.resolve(lookup, name, type)
+                    : DynamicDispatch.bind(lookup, name, type, 0, 0);
+            bh.consume(callSite);
+        }
+    }
+
+    static KoresIndyExperiment experiment(String name) {
+        switch (name) {
+            case "DynamicDispatch":
+                return DynamicDispatch.EXPERIMENT;
+            case "LateBinding":
+                return LateBinding.EXPERIMENT;
+            default:
+                throw new IllegalArgumentException("Invalid experiment '" + name + "'!");
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.benchmark;
+
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.experiment.KoresIndyExperiment;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+import com.github.jonathanxd.koresexperiments.metrics.MetricsSnapshot;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures startup cost of experiments in fresh JVMs.
+ *
+ * Without arguments (or with an output file as the only argument), spawns a new JVM for each
+ * experiment and amount of implementations, and writes one JSON object per line with the
+ * results. Each implementation is of a distinct interface with a distinct method, see {@link
+ * StartupTypes}, so every one of them pays for its own invoker and bootstrap. With {@code run <experiment> <count>} arguments, measures in the current JVM and
+ * prints a single JSON line. Reported values are: time to first call, total time to create and
+ * call all implementations, classes defined, Metaspace growth and codegen metrics.
+ */
+public final class StartupDriver {
+
+    private static final String[] EXPERIMENTS = {"DynamicDispatch", "LateBinding"};
+    private static final int[] COUNTS = {10, 100, 1000};
+
+    private StartupDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("run")) {
+            System.out.println(StartupDriver.run(args[1], Integer.parseInt(args[2])));
+            return;
+        }
+
+        List<String> results = new ArrayList<>();
+
+        for (String experiment : EXPERIMENTS) {
+            for (int count : COUNTS) {
+                results.add(StartupDriver.fork(experiment, count));
+            }
+        }
+
+        if (args.length == 1) {
+            Path output = Paths.get(args[0]);
+
+            if (output.getParent() != null)
+                Files.createDirectories(output.getParent());
+
+            Files.write(output, results, StandardCharsets.UTF_8);
+        } else {
+            results.forEach(System.out::println);
+        }
+    }
+
+    private static String fork(String experiment, int count) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder builder = new ProcessBuilder(java,
+                "-cp", System.getProperty("java.class.path"),
+                StartupDriver.class.getName(),
+                "run", experiment, Integer.toString(count));
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        builder.directory(new File("."));
+
+        Process process = builder.start();
+        String result = null;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("{"))
+                    result = line;
+            }
+        }
+
+        if (process.waitFor() != 0 || result == null)
+            throw new IllegalStateException("Startup run failed. Experiment: " + experiment
+                    + ". Count: " + count + ".");
+
+        return result;
+    }
+
+    private static String run(String experimentName, int count) throws ReflectiveOperationException {
+        KoresIndyExperiment experiment = StartupBenchmark.experiment(experimentName);
+        StartupTypes types = StartupTypes.generate(count);
+
+        long classesBefore = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+        long metaspaceBefore = StartupDriver.metaspaceUsed();
+        long start = System.nanoTime();
+        long firstCall = 0;
+
+        for (int i = 0; i < count; i++) {
+            Object named = KoresExperimentsIndyHelper.create(types.getInterface(i), experiment);
+            types.call(i, named);
+
+            if (i == 0)
+                firstCall = System.nanoTime() - start;
+        }
+
+        long total = System.nanoTime() - start;
+        long classes = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount() - classesBefore;
+        long metaspace = StartupDriver.metaspaceUsed() - metaspaceBefore;
+        MetricsSnapshot metrics = KoresMetrics.snapshot();
+        long generated = metrics.getClassesGenerated().values().stream().mapToLong(Long::longValue).sum();
+
+        return "{\"experiment\":\"" + experimentName + "\""
+                + ",\"implementations\":" + count
+                + ",\"timeToFirstCallNanos\":" + firstCall
+                + ",\"totalNanos\":" + total
+                + ",\"classesDefined\":" + classes
+                + ",\"metaspaceBytes\":" + metaspace
+                + ",\"generatedClasses\":" + generated
+                + ",\"generatedBytes\":" + metrics.getBytesGenerated()
+                + ",\"codegenNanos\":" + metrics.getCodegenNanos()
+                + "}";
+    }
+
+    private static long metaspaceUsed() {
+        long used = 0;
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getName().equals("Metaspace"))
+                used += pool.getUsage().getUsed();
+        }
+
+        return used;
+    }
+}
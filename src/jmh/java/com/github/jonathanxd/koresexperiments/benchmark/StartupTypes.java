@@ -0,0 +1,202 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.benchmark;
+
+import com.github.jonathanxd.kores.Instructions;
+import com.github.jonathanxd.kores.base.ClassDeclaration;
+import com.github.jonathanxd.kores.base.InterfaceDeclaration;
+import com.github.jonathanxd.kores.base.KoresModifier;
+import com.github.jonathanxd.kores.base.MethodDeclaration;
+import com.github.jonathanxd.kores.base.TypeDeclaration;
+import com.github.jonathanxd.kores.bytecode.classloader.CodeClassLoader;
+import com.github.jonathanxd.kores.bytecode.processor.BytecodeGenerator;
+import com.github.jonathanxd.kores.factory.Factories;
+import com.github.jonathanxd.kores.factory.InvocationFactory;
+import com.github.jonathanxd.kores.factory.PartFactory;
+import com.github.jonathanxd.kores.literal.Literals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Distinct interfaces used by startup benchmarks, so each implementation generates its own
+ * invoker and bootstraps its own call site instead of hitting caches filled by the previous one.
+ *
+ * Interface {@code i} declares {@code String name<i>(Object receiver)}, the shared receiver
+ * declares all {@code name<i>()} methods and {@link Caller caller} {@code i} invokes {@code
+ * name<i>} through interface {@code i}. All of them are spun with Kores before measuring, so they
+ * are not counted as classes defined by experiments.
+ */
+public final class StartupTypes {
+
+    private static final String PACKAGE = StartupTypes.class.getPackage().getName() + ".startup";
+
+    private final Class<?>[] interfaces;
+    private final Caller[] callers;
+    private final Object receiver;
+
+    private StartupTypes(Class<?>[] interfaces, Caller[] callers, Object receiver) {
+        this.interfaces = interfaces;
+        this.callers = callers;
+        this.receiver = receiver;
+    }
+
+    /**
+     * Spins {@code count} distinct interfaces, their callers and the receiver of all of them.
+     *
+     * @param count Amount of interfaces.
+     * @return Spun types.
+     * @throws ReflectiveOperationException If the receiver or a caller cannot be instantiated.
+     */
+    public static StartupTypes generate(int count) throws ReflectiveOperationException {
+        BytecodeGenerator generator = new BytecodeGenerator();
+        CodeClassLoader loader = new CodeClassLoader(StartupTypes.class.getClassLoader());
+        Class<?>[] interfaces = new Class<?>[count];
+        Caller[] callers = new Caller[count];
+        List<MethodDeclaration> receiverMethods = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            interfaces[i] = StartupTypes.define(generator, loader, StartupTypes.createInterface(i));
+            callers[i] = (Caller) StartupTypes.define(generator, loader, StartupTypes.createCaller(interfaces[i], i))
+                    .getConstructor()
+                    .newInstance();
+            receiverMethods.add(MethodDeclaration.Builder.builder()
+                    .modifiers(KoresModifier.PUBLIC)
+                    .returnType(String.class)
+                    .name(StartupTypes.getName(i))
+                    .body(Instructions.fromPart(Factories.returnValue(String.class, Literals.STRING("Name " + i))))
+                    .build());
+        }
+
+        Object receiver = StartupTypes.define(generator, loader, ClassDeclaration.Builder.builder()
+                .modifiers(KoresModifier.PUBLIC)
+                .specifiedName(PACKAGE + ".Receiver")
+                .methods(receiverMethods)
+                .build())
+                .getConstructor()
+                .newInstance();
+
+        return new StartupTypes(interfaces, callers, receiver);
+    }
+
+    /**
+     * Gets the name of the method declared by interface {@code index}.
+     *
+     * @param index Index of the interface.
+     * @return Name of the method declared by interface {@code index}.
+     */
+    public static String getName(int index) {
+        return "name" + index;
+    }
+
+    /**
+     * Gets the amount of interfaces.
+     *
+     * @return Amount of interfaces.
+     */
+    public int size() {
+        return this.interfaces.length;
+    }
+
+    /**
+     * Gets interface {@code index}.
+     *
+     * @param index Index of the interface.
+     * @return Interface {@code index}.
+     */
+    public Class<?> getInterface(int index) {
+        return this.interfaces[index];
+    }
+
+    /**
+     * Gets the receiver of methods of all interfaces.
+     *
+     * @return Receiver of methods of all interfaces.
+     */
+    public Object getReceiver() {
+        return this.receiver;
+    }
+
+    /**
+     * Invokes the method of interface {@code index} of {@code named} with the receiver.
+     *
+     * @param index Index of the interface.
+     * @param named Implementation of interface {@code index}.
+     * @return Value returned by the method.
+     */
+    public String call(int index, Object named) {
+        return this.callers[index].call(named, this.receiver);
+    }
+
+    private static Class<?> define(BytecodeGenerator generator, CodeClassLoader loader,
+                                   TypeDeclaration declaration) {
+        return loader.define(generator.process(declaration).get(0));
+    }
+
+    private static InterfaceDeclaration createInterface(int index) {
+        return InterfaceDeclaration.Builder.builder()
+                .publicModifier()
+                .specifiedName(PACKAGE + ".Named" + index)
+                .methods(MethodDeclaration.Builder.builder()
+                        .modifiers(KoresModifier.PUBLIC, KoresModifier.ABSTRACT)
+                        .returnType(String.class)
+                        .parameters(PartFactory.koresParameter().type(Object.class).name("receiver").build())
+                        .name(StartupTypes.getName(index))
+                        .build())
+                .build();
+    }
+
+    private static ClassDeclaration createCaller(Class<?> itf, int index) {
+        return ClassDeclaration.Builder.builder()
+                .modifiers(KoresModifier.PUBLIC, KoresModifier.FINAL)
+                .specifiedName(PACKAGE + ".Caller" + index)
+                .implementations(Caller.class)
+                .methods(MethodDeclaration.Builder.builder()
+                        .modifiers(KoresModifier.PUBLIC)
+                        .returnType(String.class)
+                        .parameters(PartFactory.koresParameter().type(Object.class).name("named").build(),
+                                PartFactory.koresParameter().type(Object.class).name("receiver").build())
+                        .name("call")
+                        .body(Instructions.fromPart(Factories.returnValue(String.class,
+                                InvocationFactory.invokeInterface(itf,
+                                        Factories.cast(Object.class, itf, Factories.accessVariable(Object.class, "named")),
+                                        StartupTypes.getName(index),
+                                        Factories.typeSpec(String.class, Object.class),
+                                        Collections.singletonList(Factories.accessVariable(Object.class, "receiver"))))))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Invokes the method of one interface, so benchmarks can call it without reflection.
+     */
+    public interface Caller {
+        String call(Object named, Object receiver);
+    }
+}
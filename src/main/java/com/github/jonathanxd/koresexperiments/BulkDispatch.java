@@ -0,0 +1,364 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.iutils.annotation.Singleton;
+import com.github.jonathanxd.iutils.exception.RethrowException;
+import com.github.jonathanxd.kores.base.InvokeType;
+import com.github.jonathanxd.kores.common.MethodInvokeSpec;
+import com.github.jonathanxd.kores.common.MethodTypeSpec;
+import com.github.jonathanxd.kores.factory.Factories;
+import com.github.jonathanxd.koresexperiments.annotation.Parallel;
+import com.github.jonathanxd.koresexperiments.annotation.internal.AccessedAtRuntime;
+import com.github.jonathanxd.koresexperiments.experiment.KoresIndyExperiment;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteRegistry;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Invokes a method in each receiver of an array or {@link Iterable} of receivers. The receivers
+ * are grouped by class, the target of each class is resolved only once (and cached per call site)
+ * and then invoked for all receivers of the group. Targets of all groups (and of all call sites)
+ * are invoked through the same non-constant {@code invokeExact}, so grouping saves target lookups,
+ * not the polymorphic invocation itself.
+ *
+ * Receivers must not be {@code null}, a {@code null} receiver is reported with an {@link
+ * IllegalArgumentException} that includes its index, before any receiver of the same range (the
+ * whole input, or the slice of a {@link Parallel} task) is invoked.
+ *
+ * The first parameter of the method to implement must be an array or {@link Iterable} of
+ * receivers, other parameters are forwarded to every invocation. The return type may be {@code
+ * void}, an array (the component type is the return type of the invoked method) or a type
+ * assignable from {@link List}, results are in the same order as the receivers.
+ *
+ * Example:
+ *
+ * <pre>
+ * {@code
+ * @Experiment(BulkDispatch.class)
+ * public interface Names {
+ *     String[] getName(Object[] receivers);
+ *     List<Object> getName(Iterable<?> receivers);
+ * }
+ * }
+ * </pre>
+ *
+ * Methods annotated with {@link Parallel} split large inputs across the {@link
+ * ForkJoinPool#commonPool() common pool}.
+ */
+@Singleton("EXPERIMENT")
+public class BulkDispatch implements KoresIndyExperiment {
+    public static final BulkDispatch EXPERIMENT = new BulkDispatch();
+    public static final MethodInvokeSpec BOOTSTRAP_SPEC = new MethodInvokeSpec(
+            InvokeType.INVOKE_STATIC,
+            new MethodTypeSpec(
+                    BulkDispatch.class,
+                    "bind",
+                    Factories.typeSpec(CallSite.class,
+                            MethodHandles.Lookup.class,
+                            String.class,
+                            MethodType.class,
+                            Integer.TYPE
+                    )
+            )
+    );
+
+    private static final MethodHandle INVOKE_METHOD;
+
+    static {
+        try {
+            INVOKE_METHOD = MethodHandles.lookup().findStatic(BulkDispatch.class, "invoke",
+                    MethodType.methodType(Object.class, BulkSite.class, Object.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
+    private BulkDispatch() {
+    }
+
+    @AccessedAtRuntime
+    public static CallSite bind(MethodHandles.Lookup caller,
+                                String name,
+                                MethodType type,
+                                int parallelThreshold) {
+        KoresMetrics.recordBootstrap(EXPERIMENT.getName());
+
+        BulkSite site = new BulkSite(name, type, parallelThreshold);
+        MethodHandle target = INVOKE_METHOD.bindTo(site)
+                .asCollector(Object[].class, type.parameterCount() - 1)
+                .asType(type);
+
+        CallSite callSite = new ConstantCallSite(target);
+        CallSiteRegistry.register(EXPERIMENT.getName(), name, type, callSite, "linked");
+        return callSite;
+    }
+
+    private static Object invoke(BulkSite site, Object receivers, Object[] args) {
+        if (receivers == null)
+            Prelink.seed(site.targets::get);
+
+        Object[] input = BulkDispatch.toArray(receivers);
+        Object[] results = site.returnType == Void.TYPE ? null : new Object[input.length];
+
+        if (site.parallelThreshold > 0 && input.length >= site.parallelThreshold) {
+            ForkJoinPool.commonPool().invoke(new BulkTask(site, input, args, results, 0, input.length));
+        } else {
+            BulkDispatch.invokeRange(site, input, args, results, 0, input.length);
+        }
+
+        return BulkDispatch.toResult(site.returnType, results);
+    }
+
+    /**
+     * Invokes receivers from {@code start} (inclusive) to {@code end} (exclusive), grouped by
+     * receiver class. Receivers are checked to be non-null before any of them is invoked.
+     */
+    private static void invokeRange(BulkSite site, Object[] input, Object[] args, Object[] results,
+                                    int start, int end) {
+        Map<Class<?>, Group> groups = new IdentityHashMap<>();
+        Class<?> lastType = null;
+        Group last = null;
+
+        for (int i = start; i < end; i++) {
+            if (input[i] == null)
+                throw new IllegalArgumentException("Receiver at index " + i + " is null.");
+
+            Class<?> type = input[i].getClass();
+
+            // Runs of receivers of the same class skip the map lookup
+            if (type != lastType) {
+                last = groups.get(type);
+
+                if (last == null) {
+                    last = new Group(Math.min(16, end - i));
+                    groups.put(type, last);
+                }
+
+                lastType = type;
+            }
+
+            last.add(i, end - start);
+        }
+
+        try {
+            for (Map.Entry<Class<?>, Group> entry : groups.entrySet()) {
+                MethodHandle target = site.targets.get(entry.getKey());
+                Group group = entry.getValue();
+
+                for (int i = 0; i < group.size; i++) {
+                    int index = group.indexes[i];
+                    Object result = (Object) target.invokeExact(input[index], args);
+
+                    if (results != null)
+                        results[index] = result;
+                }
+            }
+        } catch (Throwable t) {
+            throw RethrowException.rethrow(t);
+        }
+    }
+
+    private static Object[] toArray(Object receivers) {
+        if (receivers instanceof Object[])
+            return (Object[]) receivers;
+
+        if (receivers instanceof Collection<?>)
+            return ((Collection<?>) receivers).toArray();
+
+        List<Object> list = new ArrayList<>();
+
+        for (Object receiver : (Iterable<?>) receivers) {
+            list.add(receiver);
+        }
+
+        return list.toArray();
+    }
+
+    private static Object toResult(Class<?> returnType, Object[] results) {
+        if (results == null)
+            return null;
+
+        if (!returnType.isArray())
+            return Arrays.asList(results);
+
+        Class<?> component = returnType.getComponentType();
+
+        if (!component.isPrimitive())
+            return Arrays.copyOf(results, results.length, returnType.asSubclass(Object[].class));
+
+        Object array = Array.newInstance(component, results.length);
+
+        for (int i = 0; i < results.length; i++) {
+            Array.set(array, i, results[i]);
+        }
+
+        return array;
+    }
+
+    @Override
+    public MethodInvokeSpec getBootstrapMethod() {
+        return BOOTSTRAP_SPEC;
+    }
+
+    @Override
+    public String getName() {
+        return "BulkDispatch";
+    }
+
+    @Override
+    public void handle(Method m, List<Object> args) {
+        Class<?>[] parameterTypes = m.getParameterTypes();
+        Class<?> returnType = m.getReturnType();
+
+        if (parameterTypes.length == 0
+                || (!Iterable.class.isAssignableFrom(parameterTypes[0])
+                && (!parameterTypes[0].isArray() || parameterTypes[0].getComponentType().isPrimitive())))
+            throw new IllegalArgumentException("First parameter of bulk method must be an array or Iterable" +
+                    " of receivers. Method: " + m + ".");
+
+        if (returnType != Void.TYPE && !returnType.isArray() && !returnType.isAssignableFrom(List.class))
+            throw new IllegalArgumentException("Bulk method must return void, an array or a List." +
+                    " Method: " + m + ".");
+
+        Parallel parallel = m.getDeclaredAnnotation(Parallel.class);
+        args.add(parallel != null ? Math.max(1, parallel.threshold()) : 0);
+    }
+
+    /**
+     * Indexes of the receivers of one class.
+     */
+    private static final class Group {
+        private int[] indexes;
+        private int size;
+
+        Group(int capacity) {
+            this.indexes = new int[capacity];
+        }
+
+        void add(int index, int maxCapacity) {
+            if (this.size == this.indexes.length)
+                this.indexes = Arrays.copyOf(this.indexes, Math.min(this.size * 2, maxCapacity));
+
+            this.indexes[this.size++] = index;
+        }
+    }
+
+    static final class BulkSite {
+        private final String name;
+        private final Class<?> returnType;
+        private final MethodType elementType;
+        private final int parallelThreshold;
+        private final ClassValue<MethodHandle> targets = new ClassValue<MethodHandle>() {
+            @Override
+            protected MethodHandle computeValue(Class<?> type) {
+                return BulkSite.this.resolve(type);
+            }
+        };
+
+        BulkSite(String name, MethodType type, int parallelThreshold) {
+            Class<?> returnType = type.returnType();
+
+            this.name = name;
+            this.returnType = returnType;
+            this.elementType = type
+                    .dropParameterTypes(0, 1)
+                    .changeReturnType(returnType.isArray() ? returnType.getComponentType()
+                            : returnType == Void.TYPE ? Void.TYPE : Object.class);
+            this.parallelThreshold = parallelThreshold;
+        }
+
+        /**
+         * Resolves the target for receivers of {@code type}, the target receives the receiver and
+         * the array of arguments to forward and returns the result.
+         */
+        private MethodHandle resolve(Class<?> type) {
+            try {
+                Method method = InternalUtil.accessibleMethod(type,
+                        type.getMethod(this.name, this.elementType.parameterArray()));
+
+                if (method == null)
+                    throw new NoSuchMethodException("Method '" + this.name + this.elementType
+                            + "' is not declared in a public class of " + type + " hierarchy.");
+
+                return MethodHandles.publicLookup().unreflect(method)
+                        .asType(this.elementType.insertParameterTypes(0, Object.class))
+                        .asSpreader(Object[].class, this.elementType.parameterCount())
+                        .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw RethrowException.rethrow(e);
+            }
+        }
+    }
+
+    static final class BulkTask extends RecursiveAction {
+        private final BulkSite site;
+        private final Object[] input;
+        private final Object[] args;
+        private final Object[] results;
+        private final int start;
+        private final int end;
+
+        BulkTask(BulkSite site, Object[] input, Object[] args, Object[] results, int start, int end) {
+            this.site = site;
+            this.input = input;
+            this.args = args;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start < this.site.parallelThreshold * 2) {
+                BulkDispatch.invokeRange(this.site, this.input, this.args, this.results, this.start, this.end);
+            } else {
+                int middle = (this.start + this.end) >>> 1;
+
+                RecursiveAction.invokeAll(
+                        new BulkTask(this.site, this.input, this.args, this.results, this.start, middle),
+                        new BulkTask(this.site, this.input, this.args, this.results, middle, this.end));
+            }
+        }
+    }
+}
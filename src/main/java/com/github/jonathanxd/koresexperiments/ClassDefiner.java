@@ -0,0 +1,86 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.kores.bytecode.BytecodeClass;
+import com.github.jonathanxd.kores.bytecode.classloader.CodeClassLoader;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Defines generated classes.
+ *
+ * This is the Java 8 definition backend, which always defines classes through {@link
+ * CodeClassLoader}. On JDK 15+, the multi-release jar provides a backend that defines classes as
+ * hidden classes (see {@code src/main/java15}), both backends have the same API.
+ */
+final class ClassDefiner {
+
+    /**
+     * Name of the property used to determine whether to define generated classes as hidden
+     * classes when it is supported, hidden classes are used by default.
+     */
+    static final String HIDDEN_CLASSES_PROPERTY_NAME = "kores_experiments.hidden_classes";
+
+    /**
+     * Whether generated classes are defined as hidden classes.
+     */
+    static final boolean HIDDEN_CLASSES = false;
+
+    private static final String BASE_GEN_PACKAGE = "com.github.jonathanxd.koresexperiments.generated.experiment";
+
+    private ClassDefiner() {
+    }
+
+    /**
+     * Creates the name of the class {@code id} to be generated by {@code module}.
+     *
+     * @param module Module generating the class.
+     * @param base   Base name of the class.
+     * @param id     Unique id of the class.
+     * @return Name of the class.
+     */
+    static String className(String module, String base, int id) {
+        return BASE_GEN_PACKAGE + "." + module + "." + base + "$" + id;
+    }
+
+    /**
+     * Defines {@code classes} and returns the first one.
+     *
+     * @param classes    Classes to define, the first is the main class.
+     * @param loader     Supplier of the loader to define classes in.
+     * @param referenced Types referenced by generated classes, which must be visible to them.
+     * @return First defined class.
+     */
+    static Class<?> define(List<BytecodeClass> classes,
+                           Supplier<? extends CodeClassLoader> loader,
+                           Class<?>... referenced) {
+        return loader.get().define(classes);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.iutils.annotation.Singleton;
+import com.github.jonathanxd.iutils.exception.RethrowException;
+import com.github.jonathanxd.kores.base.InvokeType;
+import com.github.jonathanxd.kores.common.MethodInvokeSpec;
+import com.github.jonathanxd.kores.common.MethodTypeSpec;
+import com.github.jonathanxd.kores.factory.Factories;
+import com.github.jonathanxd.koresexperiments.annotation.internal.AccessedAtRuntime;
+import com.github.jonathanxd.koresexperiments.experiment.KoresIndyExperiment;
+import com.github.jonathanxd.koresexperiments.jfr.BindEvent;
+import com.github.jonathanxd.koresexperiments.jfr.KoresEvents;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteRegistry;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Links the invocation once, at bootstrap, to the method of the <b>declared</b> receiver type (the
+ * first parameter type of the call site) with the parameter types of the call site. The call site
+ * is constant, so the target can be inlined like a regular {@code invokevirtual}.
+ *
+ * This is only useful when the declared receiver type is the exact class of the receivers, or a
+ * class that declares the method to invoke, which is the case of {@link
+ * KoresExperimentsIndyHelper#bind(Object, Class) bound receiver views}.
+ */
+@Singleton("EXPERIMENT")
+public class DirectLink implements KoresIndyExperiment {
+    public static final DirectLink EXPERIMENT = new DirectLink();
+    public static final MethodInvokeSpec BOOTSTRAP_SPEC = new MethodInvokeSpec(
+            InvokeType.INVOKE_STATIC,
+            new MethodTypeSpec(
+                    DirectLink.class,
+                    "link",
+                    Factories.typeSpec(CallSite.class,
+                            MethodHandles.Lookup.class,
+                            String.class,
+                            MethodType.class
+                    )
+            )
+    );
+
+    private DirectLink() {
+    }
+
+    @AccessedAtRuntime
+    public static CallSite link(MethodHandles.Lookup caller,
+                                String name,
+                                MethodType type) {
+        BindEvent event = KoresEvents.beginBind();
+        KoresMetrics.recordBootstrap(EXPERIMENT.getName());
+
+        CallSite callSite = new ConstantCallSite(DirectLink.resolve(type.parameterType(0), name, type));
+        CallSiteRegistry.register(EXPERIMENT.getName(), name, type, callSite, "linked to " + type.parameterType(0).getName());
+
+        KoresEvents.endBind(event, name, type, false, false);
+        return callSite;
+    }
+
+    /**
+     * Resolves the public instance method {@code name} of {@code receiverType} with parameter
+     * types of {@code type} (except the first, which is the receiver) and adapts it to {@code
+     * type}. The return type of the method may differ from the return type of {@code type} as long
+     * as it can be converted.
+     *
+     * @param receiverType Type of the receiver.
+     * @param name         Name of the method.
+     * @param type         Type of the handle to return.
+     * @return Handle to the method adapted to {@code type}.
+     */
+    static MethodHandle resolve(Class<?> receiverType, String name, MethodType type) {
+        try {
+            Method method = receiverType.getMethod(name, type.dropParameterTypes(0, 1).parameterArray());
+            Method accessible = InternalUtil.accessibleMethod(receiverType, method);
+
+            if (accessible == null || Modifier.isStatic(accessible.getModifiers()))
+                throw new NoSuchMethodException("No accessible instance method '" + name + type
+                        + "' in " + receiverType + ".");
+
+            return MethodHandles.publicLookup().unreflect(accessible).asType(type);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
+    @Override
+    public MethodInvokeSpec getBootstrapMethod() {
+        return BOOTSTRAP_SPEC;
+    }
+
+    @Override
+    public String getName() {
+        return "DirectLink";
+    }
+
+    @Override
+    public InvokeType getDirectLinkType(Method m) {
+        return InvokeType.INVOKE_VIRTUAL;
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.koresexperiments.experiment.KoresIndyExperiment;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteEntry;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteProfiler;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteRegistry;
+import com.github.jonathanxd.koresexperiments.metrics.SiteProfileInfo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Records the receiver classes seen by call sites during a representative run and replays them on
+ * later runs, so call sites start with warm caches.
+ *
+ * While {@link #startRecording() recording}, every call site is {@link CallSiteProfiler profiled}
+ * without sampling. Only call sites bootstrapped while recording are profiled: call sites
+ * bootstrapped before {@link #startRecording()} are linked to {@link java.lang.invoke.ConstantCallSite
+ * constant call sites} (unless the {@link CallSiteRegistry} is enabled) and are never recorded, so
+ * recording should start before the implementations to profile are first invoked. {@link
+ * #stopRecording(Path)} writes, for each call site (identified by experiment, method name and
+ * type), the receiver classes it has seen and how many times, to a compact binary file.
+ *
+ * After {@link #replay(Path)}, implementations generated by {@link KoresExperimentsIndyHelper}
+ * with call sites present in the profile are {@link KoresExperimentsIndyHelper#prelink(Object,
+ * Class[]) prelinked} in the {@link ForkJoinPool#commonPool() common pool} with the recorded
+ * receiver classes, the most seen ones first. Prelinking bootstraps the call sites (generating
+ * their invokers) and seeds their caches, so the first invocations do not resolve. Receiver classes
+ * which cannot be loaded are ignored. Implementations generated before the replay are not
+ * prelinked, so the replay should happen as early as possible.
+ */
+public final class DispatchProfile {
+
+    private static final int MAGIC = 0x4B445046;
+    private static final int VERSION = 1;
+
+    private static volatile Map<List<String>, List<String>> replayed = Collections.emptyMap();
+    private static final Set<CompletableFuture<Void>> PENDING = ConcurrentHashMap.newKeySet();
+
+    private DispatchProfile() {
+    }
+
+    /**
+     * Starts recording the receiver classes of all call sites.
+     *
+     * @throws IllegalStateException If the {@link CallSiteProfiler} is already active.
+     */
+    public static void startRecording() {
+        if (CallSiteProfiler.isActive())
+            throw new IllegalStateException("Call site profiler is already active.");
+
+        CallSiteProfiler.start(1);
+    }
+
+    /**
+     * Stops recording and writes the profile to {@code file}.
+     *
+     * @param file File to write the profile to.
+     * @return Amount of call sites written to the profile.
+     * @throws IOException If the profile cannot be written.
+     */
+    public static int stopRecording(Path file) throws IOException {
+        Map<List<String>, Map<String, Long>> sites = new LinkedHashMap<>();
+
+        for (CallSiteEntry entry : CallSiteRegistry.entries()) {
+            SiteProfileInfo profile = entry.getProfile();
+
+            if (profile == null || profile.getReceiverClasses().isEmpty())
+                continue;
+
+            Map<String, Long> receivers = sites.computeIfAbsent(
+                    DispatchProfile.key(entry.getExperiment(), entry.getName(), entry.getType()),
+                    k -> new HashMap<>());
+
+            profile.getReceiverClasses().forEach((type, count) -> receivers.merge(type, count, Long::sum));
+        }
+
+        CallSiteProfiler.stop();
+        DispatchProfile.write(file, sites);
+
+        return sites.size();
+    }
+
+    /**
+     * Reads the profile of {@code file}, implementations generated from now on are prelinked with
+     * it, replacing the previous profile.
+     *
+     * @param file File to read the profile from.
+     * @return Amount of call sites read from the profile.
+     * @throws IOException If the profile cannot be read or is not a profile.
+     */
+    public static int replay(Path file) throws IOException {
+        Map<List<String>, List<String>> sites = DispatchProfile.read(file);
+        replayed = sites;
+        return sites.size();
+    }
+
+    /**
+     * Stops prelinking implementations with the replayed profile.
+     */
+    public static void stopReplay() {
+        replayed = Collections.emptyMap();
+    }
+
+    /**
+     * Waits until scheduled prelinks are completed. A failed prelink is reported only by the first
+     * wait which observes it.
+     *
+     * @throws java.util.concurrent.CompletionException If a scheduled prelink failed, with the
+     *                                                  {@link IllegalStateException} thrown by
+     *                                                  {@link KoresExperimentsIndyHelper#prelink(Object,
+     *                                                  Class[])} as cause.
+     */
+    public static void awaitReplay() {
+        CompletableFuture<?>[] tasks = PENDING.toArray(new CompletableFuture<?>[0]);
+
+        try {
+            CompletableFuture.allOf(tasks).join();
+        } finally {
+            for (CompletableFuture<?> task : tasks) {
+                PENDING.remove(task);
+            }
+        }
+    }
+
+    /**
+     * Schedules the prelink of call sites of {@code methods} of {@code impl} present in the replayed
+     * profile.
+     */
+    static void prelink(Class<?> impl, List<Method> methods,
+                        Function<Method, KoresIndyExperiment> experimentResolver) {
+        Map<List<String>, List<String>> sites = replayed;
+
+        if (sites.isEmpty())
+            return;
+
+        Map<Method, List<String>> receivers = new LinkedHashMap<>();
+
+        for (Method method : methods) {
+            List<String> types = sites.get(DispatchProfile.key(experimentResolver.apply(method).getName(),
+                    method.getName(), MethodType.methodType(method.getReturnType(), method.getParameterTypes())));
+
+            if (types != null)
+                receivers.put(method, types);
+        }
+
+        if (receivers.isEmpty())
+            return;
+
+        CompletableFuture<Void> task = CompletableFuture.runAsync(() -> {
+            Object instance = KoresExperimentsIndyHelper.newInstance(impl);
+            List<Throwable> failures = new ArrayList<>();
+
+            receivers.forEach((method, types) -> KoresExperimentsIndyHelper.prelink(instance, method,
+                    DispatchProfile.load(types, method.getDeclaringClass().getClassLoader()), failures));
+
+            KoresExperimentsIndyHelper.checkPrelink(impl, failures);
+        }, ForkJoinPool.commonPool());
+
+        // Completed prelinks are forgotten, failed ones are kept until awaitReplay reports them.
+        PENDING.add(task);
+        task.whenComplete((r, t) -> {
+            if (t == null)
+                PENDING.remove(task);
+        });
+    }
+
+    private static Class<?>[] load(List<String> names, ClassLoader loader) {
+        List<Class<?>> types = new ArrayList<>(names.size());
+
+        for (String name : names) {
+            try {
+                types.add(Class.forName(name, false, loader));
+            } catch (ClassNotFoundException | LinkageError ignored) {
+            }
+        }
+
+        return types.toArray(new Class<?>[0]);
+    }
+
+    private static List<String> key(String experiment, String name, MethodType type) {
+        return Arrays.asList(experiment, name, type.toMethodDescriptorString());
+    }
+
+    /**
+     * Writes the profile: a table of distinct strings followed by the call sites, each one with the
+     * string indexes of its key and of its receiver classes, ordered from the most seen to the
+     * least seen. Numbers are written as variable length integers.
+     */
+    private static void write(Path file, Map<List<String>, Map<String, Long>> sites) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+
+        sites.forEach((key, receivers) -> {
+            key.forEach(s -> strings.putIfAbsent(s, strings.size()));
+            receivers.keySet().forEach(s -> strings.putIfAbsent(s, strings.size()));
+        });
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            DispatchProfile.writeVarInt(out, strings.size());
+
+            for (String s : strings.keySet()) {
+                out.writeUTF(s);
+            }
+
+            DispatchProfile.writeVarInt(out, sites.size());
+
+            for (Map.Entry<List<String>, Map<String, Long>> site : sites.entrySet()) {
+                List<Map.Entry<String, Long>> receivers = new ArrayList<>(site.getValue().entrySet());
+                receivers.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+                for (String s : site.getKey()) {
+                    DispatchProfile.writeVarInt(out, strings.get(s));
+                }
+
+                DispatchProfile.writeVarInt(out, receivers.size());
+
+                for (Map.Entry<String, Long> receiver : receivers) {
+                    DispatchProfile.writeVarInt(out, strings.get(receiver.getKey()));
+                }
+            }
+        }
+    }
+
+    private static Map<List<String>, List<String>> read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC)
+                throw new IOException("File '" + file + "' is not a dispatch profile.");
+
+            int version = in.readUnsignedByte();
+
+            if (version != VERSION)
+                throw new IOException("Unsupported dispatch profile version '" + version + "'.");
+
+            String[] strings = new String[DispatchProfile.readVarInt(in)];
+
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readUTF();
+            }
+
+            int size = DispatchProfile.readVarInt(in);
+            Map<List<String>, List<String>> sites = new HashMap<>();
+
+            for (int i = 0; i < size; i++) {
+                List<String> key = Arrays.asList(strings[DispatchProfile.readVarInt(in)],
+                        strings[DispatchProfile.readVarInt(in)], strings[DispatchProfile.readVarInt(in)]);
+                String[] receivers = new String[DispatchProfile.readVarInt(in)];
+
+                for (int j = 0; j < receivers.length; j++) {
+                    receivers[j] = strings[DispatchProfile.readVarInt(in)];
+                }
+
+                sites.put(key, Collections.unmodifiableList(Arrays.asList(receivers)));
+            }
+
+            return Collections.unmodifiableMap(sites);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Dispatch profile '" + file + "' is corrupted.", e);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0)
+                return value;
+        }
+
+        throw new IOException("Malformed variable length integer.");
+    }
+}
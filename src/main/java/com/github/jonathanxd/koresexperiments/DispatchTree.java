@@ -0,0 +1,385 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.iutils.exception.RethrowException;
+import com.github.jonathanxd.kores.Instruction;
+import com.github.jonathanxd.kores.Instructions;
+import com.github.jonathanxd.kores.base.ClassDeclaration;
+import com.github.jonathanxd.kores.base.IfStatement;
+import com.github.jonathanxd.kores.base.KoresModifier;
+import com.github.jonathanxd.kores.base.KoresParameter;
+import com.github.jonathanxd.kores.base.MethodDeclaration;
+import com.github.jonathanxd.kores.base.TypeSpec;
+import com.github.jonathanxd.kores.base.VariableAccess;
+import com.github.jonathanxd.kores.bytecode.BytecodeClass;
+import com.github.jonathanxd.kores.bytecode.classloader.CodeClassLoader;
+import com.github.jonathanxd.kores.factory.Factories;
+import com.github.jonathanxd.kores.factory.InvocationFactory;
+import com.github.jonathanxd.kores.factory.PartFactory;
+import com.github.jonathanxd.kores.literal.Literals;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Generates and caches decision trees used by {@link MultipleDispatch}.
+ *
+ * A decision tree is a static method that receives the receiver (typed as its first public
+ * class) and the arguments of the call site, checks the arguments against every overload of the
+ * method (most specific first) with {@code instanceof} and directly invokes the first overload
+ * that matches. Overloads of non-public receiver classes are invoked through the public class or
+ * interface that declares them. The generated method for a {@code stringify(Object receiver, Object v)} call site with
+ * {@code stringify(Person)} and {@code stringify(Object)} overloads looks like this:
+ *
+ * <pre>
+ *     {@code
+ *     public static String stringify(MyStringifier receiver, Object arg0) {
+ *         if (arg0 instanceof Person) {
+ *             return receiver.stringify((Person) arg0);
+ *         }
+ *         return receiver.stringify(arg0);
+ *     }
+ *     }
+ * </pre>
+ *
+ * Arguments whose declared type is already assignable to the overload parameter type are not
+ * checked, so {@code null} arguments only match overloads which accept the declared type.
+ */
+final class DispatchTree {
+
+    private static final ClassValue<ConcurrentMap<Key, MethodHandle>> TREES =
+            new ClassValue<ConcurrentMap<Key, MethodHandle>>() {
+                @Override
+                protected ConcurrentMap<Key, MethodHandle> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private DispatchTree() {
+    }
+
+    /**
+     * Gets the decision tree of method {@code name} of {@code receiverClass} for call sites of
+     * {@code type}, generating it if it was not generated yet.
+     *
+     * @param receiverClass Class of the receiver.
+     * @param name          Name of the method.
+     * @param type          Type of the call site (receiver is the first parameter).
+     * @return Handle to decision tree, adapted to {@code type}.
+     */
+    static MethodHandle get(Class<?> receiverClass, String name, MethodType type) {
+        return TREES.get(receiverClass)
+                .computeIfAbsent(new Key(name, type), key -> DispatchTree.generate(receiverClass, name, type));
+    }
+
+    private static MethodHandle generate(Class<?> runtimeClass, String name, MethodType type) {
+        Class<?> receiverClass = InternalUtil.publicClass(runtimeClass);
+        MethodType treeType = type.changeParameterType(0, receiverClass);
+        List<Method> candidates = DispatchTree.candidates(runtimeClass, name, treeType);
+        ClassDeclaration declaration = DispatchTree.createDeclaration(receiverClass, name, treeType, candidates);
+        List<BytecodeClass> process = InternalUtil.process(declaration,
+                MultipleDispatch.EXPERIMENT.getName());
+        ClassLoader parent = receiverClass.getClassLoader() != null
+                ? receiverClass.getClassLoader()
+                : DispatchTree.class.getClassLoader();
+
+        try {
+            Class<?> tree = ClassDefiner.define(process, () -> new CodeClassLoader(parent),
+                    DispatchTree.referenced(treeType, candidates));
+            return MethodHandles.publicLookup().findStatic(tree, name, treeType).asType(type);
+        } catch (Throwable t) {
+            throw RethrowException.rethrow(t);
+        }
+    }
+
+    private static ClassDeclaration createDeclaration(Class<?> receiverClass, String name,
+                                                      MethodType treeType, List<Method> candidates) {
+        String fullname = InternalUtil
+                .createGenClassName(MultipleDispatch.EXPERIMENT.getName(), "Tree_" + name);
+
+        return ClassDeclaration.Builder.builder()
+                                       .publicModifier()
+                                       .specifiedName(fullname)
+                                       .methods(DispatchTree.impl(receiverClass, name, treeType, candidates))
+                                       .build();
+    }
+
+    private static MethodDeclaration impl(Class<?> receiverClass, String name, MethodType treeType,
+                                          List<Method> candidates) {
+        List<KoresParameter> parameters = new ArrayList<>();
+        parameters.add(PartFactory.koresParameter().type(receiverClass).name("receiver").build());
+
+        for (int i = 1; i < treeType.parameterCount(); i++) {
+            parameters.add(PartFactory.koresParameter().type(treeType.parameterType(i)).name("arg" + (i - 1)).build());
+        }
+
+        List<Instruction> body = new ArrayList<>();
+
+        for (Method candidate : candidates) {
+            body.add(DispatchTree.branch(receiverClass, candidate, treeType));
+        }
+
+        body.add(Factories.throwException(InvocationFactory.invokeStatic(
+                MultipleDispatch.class,
+                "noMatch",
+                Factories.typeSpec(NoSuchMethodException.class, String.class),
+                Collections.singletonList(Literals.STRING("No overload of " + receiverClass.getName()
+                        + "." + name + " matches arguments of call site " + treeType + "."))
+        )));
+
+        return MethodDeclaration.Builder.builder()
+                                        .modifiers(KoresModifier.PUBLIC, KoresModifier.STATIC)
+                                        .returnType(treeType.returnType())
+                                        .parameters(parameters)
+                                        .name(name)
+                                        .body(Instructions.fromIterable(body))
+                                        .build();
+    }
+
+    /**
+     * Gets all types referenced by the tree: types of {@code treeType} and parameter and return
+     * types of {@code candidates}, which are used by {@code instanceof}, {@code checkcast} and
+     * invocations of the tree.
+     */
+    private static Class<?>[] referenced(MethodType treeType, List<Method> candidates) {
+        List<Class<?>> referenced = new ArrayList<>(Arrays.asList(InternalUtil.types(treeType)));
+
+        for (Method candidate : candidates) {
+            referenced.add(candidate.getDeclaringClass());
+            referenced.add(candidate.getReturnType());
+            Collections.addAll(referenced, candidate.getParameterTypes());
+        }
+
+        return referenced.toArray(new Class<?>[0]);
+    }
+
+    /**
+     * Creates the branch that invokes {@code candidate}, the invocation is nested in one {@code
+     * if} for each argument that needs to be checked.
+     */
+    private static Instruction branch(Class<?> receiverClass, Method candidate, MethodType treeType) {
+        Class<?>[] parameterTypes = candidate.getParameterTypes();
+        List<Instruction> arguments = new ArrayList<>();
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> declared = treeType.parameterType(i + 1);
+            VariableAccess access = Factories.accessVariable(declared, "arg" + i);
+
+            arguments.add(parameterTypes[i] == declared
+                    ? access
+                    : Factories.cast(declared, parameterTypes[i], access));
+        }
+
+        Class<?> owner = candidate.getDeclaringClass();
+        Instruction receiver = Factories.accessVariable(receiverClass, "receiver");
+        TypeSpec spec = Factories.typeSpec(candidate.getReturnType(), parameterTypes);
+        Instruction invocation;
+
+        if (owner.isAssignableFrom(receiverClass))
+            invocation = InvocationFactory.invokeVirtual(receiverClass, receiver, candidate.getName(), spec, arguments);
+        else if (owner.isInterface())
+            invocation = InvocationFactory.invokeInterface(owner, Factories.cast(receiverClass, owner, receiver),
+                    candidate.getName(), spec, arguments);
+        else
+            invocation = InvocationFactory.invokeVirtual(owner, Factories.cast(receiverClass, owner, receiver),
+                    candidate.getName(), spec, arguments);
+
+        Instruction branch = treeType.returnType() == Void.TYPE
+                ? Instructions.fromVarArgs(invocation, Factories.returnVoid())
+                : Factories.returnValue(treeType.returnType(), invocation);
+
+        for (int i = parameterTypes.length - 1; i >= 0; i--) {
+            Class<?> declared = treeType.parameterType(i + 1);
+
+            if (!parameterTypes[i].isAssignableFrom(declared)) {
+                branch = IfStatement.Builder.builder()
+                                            .expressions(Factories.checkTrue(Factories.isInstanceOf(
+                                                    Factories.accessVariable(declared, "arg" + i),
+                                                    parameterTypes[i])))
+                                            .body(Instructions.fromPart(branch))
+                                            .build();
+            }
+        }
+
+        return branch;
+    }
+
+    /**
+     * Gets all overloads of {@code name} in {@code runtimeClass} that can be invoked by the tree,
+     * ordered from most specific to least specific. Overloads are resolved to their declaration in
+     * a public class or interface of the {@code runtimeClass} hierarchy (see {@link
+     * InternalUtil#accessibleMethod(Class, Method)}), overloads without such declaration are
+     * skipped.
+     */
+    private static List<Method> candidates(Class<?> runtimeClass, String name, MethodType treeType) {
+        List<Method> remaining = new ArrayList<>();
+        Class<?> returnType = treeType.returnType();
+
+        for (Method declared : runtimeClass.getMethods()) {
+            Method method = declared.getName().equals(name)
+                    ? InternalUtil.accessibleMethod(runtimeClass, declared)
+                    : null;
+
+            if (method == null)
+                continue;
+
+            if (!method.getName().equals(name)
+                    || Modifier.isStatic(method.getModifiers())
+                    || method.isBridge()
+                    || method.getParameterCount() != treeType.parameterCount() - 1)
+                continue;
+
+            if (returnType == Void.TYPE
+                    ? method.getReturnType() != Void.TYPE
+                    : !DispatchTree.isAssignable(returnType, method.getReturnType()))
+                continue;
+
+            if (DispatchTree.isApplicable(method, treeType) && !DispatchTree.containsSignature(remaining, method))
+                remaining.add(method);
+        }
+
+        remaining.sort(Comparator.comparingInt((Method m) -> -DispatchTree.depth(m))
+                .thenComparing(Method::toString));
+
+        List<Method> ordered = new ArrayList<>(remaining.size());
+
+        while (!remaining.isEmpty()) {
+            Method next = remaining.get(0);
+
+            for (Method method : remaining) {
+                if (remaining.stream().noneMatch(other -> other != method
+                        && DispatchTree.isMoreSpecific(other, method))) {
+                    next = method;
+                    break;
+                }
+            }
+
+            remaining.remove(next);
+            ordered.add(next);
+        }
+
+        return ordered;
+    }
+
+    /**
+     * Returns whether arguments of declared types of {@code treeType} can be passed to {@code
+     * method}, either directly or after an {@code instanceof} check. Primitive parameters must
+     * match exactly.
+     */
+    private static boolean isApplicable(Method method, MethodType treeType) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> declared = treeType.parameterType(i + 1);
+
+            if (declared.isPrimitive() || parameterTypes[i].isPrimitive()) {
+                if (declared != parameterTypes[i])
+                    return false;
+            } else if (!Modifier.isPublic(parameterTypes[i].getModifiers())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isAssignable(Class<?> to, Class<?> from) {
+        return to == from || (!to.isPrimitive() && !from.isPrimitive() && to.isAssignableFrom(from));
+    }
+
+    private static boolean isMoreSpecific(Method m1, Method m2) {
+        Class<?>[] p1 = m1.getParameterTypes();
+        Class<?>[] p2 = m2.getParameterTypes();
+
+        if (Arrays.equals(p1, p2))
+            return false;
+
+        for (int i = 0; i < p1.length; i++) {
+            if (!p2[i].isAssignableFrom(p1[i]))
+                return false;
+        }
+
+        return true;
+    }
+
+    private static boolean containsSignature(List<Method> methods, Method method) {
+        for (Method m : methods) {
+            if (Arrays.equals(m.getParameterTypes(), method.getParameterTypes()))
+                return true;
+        }
+
+        return false;
+    }
+
+    private static int depth(Method method) {
+        int depth = 0;
+
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            for (Class<?> c = parameterType; c != null; c = c.getSuperclass()) {
+                ++depth;
+            }
+
+            depth += parameterType.getInterfaces().length;
+        }
+
+        return depth;
+    }
+
+    private static final class Key {
+        private final String name;
+        private final MethodType type;
+
+        Key(String name, MethodType type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.name.hashCode() + this.type.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key
+                    && ((Key) obj).name.equals(this.name)
+                    && ((Key) obj).type.equals(this.type);
+        }
+    }
+}
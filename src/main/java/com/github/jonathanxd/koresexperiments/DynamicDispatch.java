@@ -35,14 +35,26 @@ import com.github.jonathanxd.koresexperiments.annotation.Dynamic;
 import com.github.jonathanxd.koresexperiments.annotation.Static;
 import com.github.jonathanxd.koresexperiments.annotation.internal.AccessedAtRuntime;
 import com.github.jonathanxd.koresexperiments.experiment.KoresIndyExperiment;
+import com.github.jonathanxd.koresexperiments.jfr.BindEvent;
+import com.github.jonathanxd.koresexperiments.jfr.KoresEvents;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteEntry;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteProfiler;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteRegistry;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
 import com.github.jonathanxd.iutils.annotation.Singleton;
+import com.github.jonathanxd.iutils.exception.RethrowException;
 
 import java.lang.invoke.CallSite;
 import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Dynamically invokes the method in the target instance. The bootstrap binds the invocation to
@@ -53,6 +65,19 @@ import java.util.List;
  * and {@code invokestatic} is that the method is resolved base on the runtime type of the instance,
  * instead of the compile-time type, also there is an option to resolve argument types dynamically,
  * which can be enabled through {@link Dynamic}.
+ *
+ * Call sites of methods without {@link Dynamic} cache the method handles resolved for the receiver
+ * classes they have seen in a chain of class guards (an inline cache), up to {@link #MAX_DEPTH}
+ * receiver classes, so the resolved method is invoked directly and can be inlined into the caller.
+ * After that, the call site becomes megamorphic and is linked to the generated method, as call
+ * sites of {@link Dynamic} methods are.
+ *
+ * With {@link #setTiered(boolean) tiered linking}, the bootstrap does not wait for the generation
+ * of the method: it is generated in the {@link ForkJoinPool#commonPool() common pool} and call
+ * sites of {@link Dynamic} methods are linked to an interim target, which resolves the method in
+ * every invocation and invokes it with {@link MethodHandle#invokeWithArguments(Object...)}, until
+ * the generated method is ready. Megamorphic call sites resolve the target of the receiver class
+ * in every invocation until then.
  */
 @Singleton("EXPERIMENT")
 public class DynamicDispatch implements KoresIndyExperiment {
@@ -72,16 +97,132 @@ public class DynamicDispatch implements KoresIndyExperiment {
             )
     );
 
+    /**
+     * Max amount of receiver classes cached by a call site before it becomes megamorphic.
+     */
+    public static final int MAX_DEPTH = 4;
+
+    /**
+     * Name of the property used to determine whether to enable {@link #setTiered(boolean) tiered
+     * linking} by default.
+     */
+    public static final String TIERED_PROPERTY_NAME = "kores_experiments.tiered_linking";
+
+    private static final MethodHandle INTERIM_METHOD;
+    private static volatile boolean tiered = Boolean.valueOf(System.getProperty(TIERED_PROPERTY_NAME, "false"));
+
+    static {
+        try {
+            INTERIM_METHOD = MethodHandles.lookup().findStatic(DynamicDispatch.class, "invokeInterim",
+                    MethodType.methodType(Object.class, MethodHandles.Lookup.class, String.class,
+                            MethodType.class, Integer.TYPE, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
     private DynamicDispatch() {
     }
 
+    /**
+     * Returns whether call sites bootstrapped from now on are linked in tiers.
+     *
+     * @return Whether call sites bootstrapped from now on are linked in tiers.
+     */
+    public static boolean isTiered() {
+        return tiered;
+    }
+
+    /**
+     * Sets whether call sites bootstrapped from now on are linked in tiers, see {@link
+     * DynamicDispatch}. Enabled by default if {@link #TIERED_PROPERTY_NAME} property is {@code
+     * true}.
+     *
+     * @param tiered Whether to link call sites in tiers.
+     */
+    public static void setTiered(boolean tiered) {
+        DynamicDispatch.tiered = tiered;
+    }
+
     @AccessedAtRuntime
     public static CallSite bind(MethodHandles.Lookup caller,
                                 String name,
                                 MethodType type,
                                 int invokeType,
                                 int dynamic) {
-        return new ConstantCallSite(DynamicMethodInvoker.generateAndGetMethodHandle(name, type, invokeType, dynamic).bindTo(caller));
+        BindEvent event = KoresEvents.beginBind();
+        KoresMetrics.recordBootstrap(EXPERIMENT.getName());
+        boolean tiered = DynamicDispatch.tiered;
+        CallSite callSite;
+
+        if (dynamic == InternalUtil.DYNAMIC && tiered) {
+            callSite = new MutableCallSite(MethodHandles.insertArguments(INTERIM_METHOD, 0, caller, name, type, invokeType)
+                    .asCollector(Object[].class, type.parameterCount())
+                    .asType(type));
+            CallSiteEntry entry = CallSiteRegistry.register(EXPERIMENT.getName(), name, type, callSite, "interim");
+
+            DynamicDispatch.generate(caller, name, type, invokeType, dynamic).whenComplete((invoker, failure) -> {
+                if (failure != null) {
+                    entry.setState("interim, generation failed: " + failure);
+                } else {
+                    entry.setTarget(invoker);
+                    entry.setState("linked");
+                }
+            });
+        } else if (dynamic == InternalUtil.DYNAMIC) {
+            MethodHandle invoker = DynamicMethodInvoker.generateAndGetMethodHandle(name, type, invokeType, dynamic)
+                    .bindTo(caller);
+
+            // Only call sites that may be profiled need to be mutable
+            callSite = CallSiteProfiler.isActive() || CallSiteRegistry.isEnabled()
+                    ? new MutableCallSite(invoker)
+                    : new ConstantCallSite(invoker);
+            CallSiteRegistry.register(EXPERIMENT.getName(), name, type, callSite, "linked");
+        } else if (tiered) {
+            DispatchCallSite site = new DispatchCallSite(caller, name, type, invokeType);
+            DynamicDispatch.generate(caller, name, type, invokeType, dynamic).thenAccept(site::setInvoker);
+            callSite = site;
+        } else {
+            DispatchCallSite site = new DispatchCallSite(caller, name, type, invokeType);
+            site.setInvoker(DynamicMethodInvoker.generateAndGetMethodHandle(name, type, invokeType, dynamic).bindTo(caller));
+            callSite = site;
+        }
+
+        KoresEvents.endBind(event, name, type, invokeType == InternalUtil.STATIC, dynamic == InternalUtil.DYNAMIC);
+        return callSite;
+    }
+
+    /**
+     * Generates the invoker of {@code name} in the background.
+     */
+    private static CompletableFuture<MethodHandle> generate(MethodHandles.Lookup caller,
+                                                          String name,
+                                                          MethodType type,
+                                                          int invokeType,
+                                                          int dynamic) {
+        return CompletableFuture.supplyAsync(() -> DynamicMethodInvoker
+                .generateAndGetMethodHandle(name, type, invokeType, dynamic)
+                .bindTo(caller), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Interim target of {@link Dynamic} call sites linked in tiers, resolves the method with the
+     * types of {@code args} and invokes it.
+     */
+    private static Object invokeInterim(MethodHandles.Lookup caller,
+                                        String name,
+                                        MethodType type,
+                                        int invokeType,
+                                        Object[] args) throws Throwable {
+        Class<?>[] argTypes = new Class<?>[args.length - 1];
+
+        for (int i = 1; i < args.length; i++) {
+            Class<?> parameterType = type.parameterType(i);
+            argTypes[i - 1] = parameterType.isPrimitive() || args[i] == null ? parameterType : args[i].getClass();
+        }
+
+        return DynamicMethodInvoker.resolveMethodHandleDynamic(caller, args[0], name, type.dropParameterTypes(0, 1),
+                invokeType, argTypes).invokeWithArguments(Arrays.copyOfRange(args, 1, args.length));
     }
 
     @Override
@@ -94,6 +235,14 @@ public class DynamicDispatch implements KoresIndyExperiment {
         return "DynamicDispatch";
     }
 
+    @Override
+    public InvokeType getDirectLinkType(Method m) {
+        if (m.isAnnotationPresent(Dynamic.class))
+            return null;
+
+        return m.isAnnotationPresent(Static.class) ? InvokeType.INVOKE_STATIC : InvokeType.INVOKE_VIRTUAL;
+    }
+
     @Override
     public void handle(Method m, List<Object> args) {
         int invokationType = m.isAnnotationPresent(Static.class) ? InternalUtil.STATIC : InternalUtil.VIRTUAL;
@@ -101,4 +250,47 @@ public class DynamicDispatch implements KoresIndyExperiment {
         args.add(invokationType);
         args.add(dynamic);
     }
+
+    static final class DispatchCallSite extends InlineCacheCallSite {
+        private final MethodHandles.Lookup caller;
+        private final MethodType resolveType;
+        private final int invokeType;
+        private volatile MethodHandle invoker;
+
+        DispatchCallSite(MethodHandles.Lookup caller, String name, MethodType type, int invokeType) {
+            super(EXPERIMENT.getName(), name, type, MAX_DEPTH);
+            this.caller = caller;
+            this.resolveType = type.dropParameterTypes(0, 1);
+            this.invokeType = invokeType;
+        }
+
+        /**
+         * Sets the generated invoker, which is the target of the call site once it becomes
+         * megamorphic.
+         */
+        void setInvoker(MethodHandle invoker) {
+            this.invoker = invoker;
+            this.relinkMegamorphic();
+        }
+
+        @Override
+        MethodHandle resolve(Class<?> receiverClass) {
+            try {
+                MethodHandle resolved = DynamicMethodInvoker.resolveStatic(this.caller, receiverClass,
+                        this.getName(), this.resolveType, this.invokeType);
+
+                return this.invokeType == InternalUtil.VIRTUAL
+                        ? resolved.asType(this.type())
+                        : MethodHandles.dropArguments(resolved, 0, this.type().parameterType(0));
+            } catch (Throwable t) {
+                throw RethrowException.rethrow(t);
+            }
+        }
+
+        @Override
+        MethodHandle megamorphicTarget() {
+            MethodHandle invoker = this.invoker;
+            return invoker != null ? invoker : super.megamorphicTarget();
+        }
+    }
 }
@@ -44,7 +44,6 @@ import com.github.jonathanxd.kores.base.TypeSpec;
 import com.github.jonathanxd.kores.base.VariableAccess;
 import com.github.jonathanxd.kores.bytecode.BytecodeClass;
 import com.github.jonathanxd.kores.bytecode.classloader.CodeClassLoader;
-import com.github.jonathanxd.kores.bytecode.processor.BytecodeGenerator;
 import com.github.jonathanxd.kores.factory.Factories;
 import com.github.jonathanxd.kores.factory.InvocationFactory;
 import com.github.jonathanxd.kores.factory.PartFactory;
@@ -53,15 +52,24 @@ import com.github.jonathanxd.kores.util.ClassUtil;
 import com.github.jonathanxd.kores.util.conversion.ConversionsKt;
 import com.github.jonathanxd.koresexperiments.annotation.internal.AccessedAtRuntime;
 import com.github.jonathanxd.koresexperiments.experiment.KoresExperiment;
+import com.github.jonathanxd.koresexperiments.jfr.KoresEvents;
+import com.github.jonathanxd.koresexperiments.jfr.ResolutionEvent;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteProfiler;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 import kotlin.collections.CollectionsKt;
@@ -76,13 +84,23 @@ import kotlin.collections.CollectionsKt;
  * The generated method looks like this:
  * <pre>
  *     {@code
- *     public static String method(Lookup callerLookup, Object arg0, int a) {
- *         return callerLookup.findVirtual(arg0.getClass(), "hello",
- * MethodType.methodType(String.class, Integer.TYPE)).bindTo(arg0).invokeExact(a);
+ *     private static final MethodType METHOD_TYPE = MethodType.methodType(String.class, Integer.TYPE);
+ *     private static final MethodType INVOKER_TYPE = MethodType.methodType(String.class, Object.class, Integer.TYPE);
+ *     private static final InvokerResolver RESOLVER = InvokerResolver.of("hello", METHOD_TYPE, INVOKER_TYPE,
+ * InternalUtil.VIRTUAL);
+ *
+ *     public static String hello(Lookup callerLookup, Object arg0, int a) {
+ *         return RESOLVER.resolve(callerLookup, arg0).invokeExact(arg0, a);
  *     }
  *     }
  * </pre>
  *
+ * The resolver is a constant of the generated class and the caller lookup is bound once, by the
+ * bootstrap, so the method body is small enough to be inlined into callers. Resolved handles are
+ * cached by the {@link InvokerResolver} already adapted to the invoked type and are not bound to
+ * the receiver, the receiver is passed as the first argument instead, so a cached resolution does
+ * not allocate. Cache misses and {@link Prelink prelinking} are handled out of line.
+ *
  * The generated method is commonly directly linked to an {@code invokedynamic}.
  */
 @Singleton("EXPERIMENT")
@@ -92,9 +110,48 @@ public class DynamicMethodInvoker implements KoresExperiment {
     private static final String LOOKUP_NAME = "callerLookup";
     private static final Type MT_TYPE = MethodType.class;
     private static final String MT_NAME = "METHOD_TYPE";
+    private static final String INVOKER_TYPE_NAME = "INVOKER_TYPE";
+    private static final String RESOLVER_NAME = "RESOLVER";
+    private static final String ARG_TYPES_NAME = "ARG_TYPES";
     private static final CodeClassLoader loader = new CodeClassLoader(
             DynamicMethodInvoker.class.getClassLoader());
     private static final MethodHandles.Lookup THIS_LOOKUP = MethodHandles.publicLookup();
+    private static final Class<?>[] NO_TYPES = new Class<?>[0];
+
+    /**
+     * Cache of resolved handles, stored per caller lookup class, so cached handles
+     * are released together with the class that resolved them.
+     */
+    private static final ClassValue<ConcurrentMap<ResolutionKey, MethodHandle>> RESOLUTION_CACHE =
+            new ClassValue<ConcurrentMap<ResolutionKey, MethodHandle>>() {
+                @Override
+                protected ConcurrentMap<ResolutionKey, MethodHandle> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+    private static final ResolutionFailures FAILURES = new ResolutionFailures();
+
+    /**
+     * Generated invokers, stored per owner type of the signature (see {@link #ownerType(MethodType)})
+     * and (name, signature, invocation type, dynamic flag) key. Invokers of signatures owned by a
+     * type of another class loader are defined in a class loader of their own, child of the loader
+     * of the owner type, so they are only reachable from this cache and are released together with
+     * the class loader of the signature types. Invokers of signatures owned by {@link
+     * DynamicMethodInvoker} are kept as long as this library is loaded.
+     */
+    private static final ClassValue<ConcurrentMap<List<Object>, MethodHandle>> INVOKERS =
+            new ClassValue<ConcurrentMap<List<Object>, MethodHandle>>() {
+                @Override
+                protected ConcurrentMap<List<Object>, MethodHandle> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /**
+     * Invokers in generation, entries are removed as soon as the generation completes or fails.
+     */
+    private static final ConcurrentMap<List<Object>, CompletableFuture<MethodHandle>> IN_FLIGHT =
+            new ConcurrentHashMap<>();
 
     private DynamicMethodInvoker() {
     }
@@ -119,10 +176,14 @@ public class DynamicMethodInvoker implements KoresExperiment {
     public static Class<?> generate(String name, MethodType signature, int invokeType,
                                     int dynamic) {
         ClassDeclaration declaration = createDeclaration(name, signature, invokeType, dynamic);
-        BytecodeGenerator bg = InternalUtil.getThreadBytecodeGenerator();
-        List<BytecodeClass> process = bg.process(declaration);
-        Debug.save(process, DynamicMethodInvoker.EXPERIMENT.getName());
-        return loader.define(process);
+        List<BytecodeClass> process = InternalUtil.process(declaration,
+                DynamicMethodInvoker.EXPERIMENT.getName());
+        Class<?> owner = DynamicMethodInvoker.ownerType(signature);
+
+        // Classes of the shared loader would keep the signature types reachable after the owner is released
+        return ClassDefiner.define(process,
+                () -> owner == DynamicMethodInvoker.class ? loader : new CodeClassLoader(owner.getClassLoader()),
+                InternalUtil.types(signature));
     }
 
     /**
@@ -132,6 +193,14 @@ public class DynamicMethodInvoker implements KoresExperiment {
      *
      * For additional information see {@link #generate(String, MethodType, int, int)} documentation
      *
+     * Each invoker is generated only once: the first caller generates it, concurrent callers wait
+     * for the generation in progress instead of generating a duplicate, and later callers reuse the
+     * generated invoker. If the generation fails, waiting callers fail with the same exception and
+     * the next caller tries again. Generated invokers are cached per class loader of the signature
+     * types, so they do not keep those class loaders reachable, except for signatures which only
+     * have types of the bootstrap class loader or of the class loader of this library, which
+     * invokers are kept as long as this library is loaded.
+     *
      * @param name       Name of the method to resolve.
      * @param signature  Signature of method to resolve.
      * @param invokeType Type of invocation.
@@ -143,20 +212,93 @@ public class DynamicMethodInvoker implements KoresExperiment {
      */
     public static MethodHandle generateAndGetMethodHandle(String name, MethodType signature,
                                                           int invokeType, int dynamic) {
+        ConcurrentMap<List<Object>, MethodHandle> invokers = INVOKERS.get(DynamicMethodInvoker.ownerType(signature));
+        List<Object> key = Arrays.asList(name, signature, invokeType, dynamic);
+        MethodHandle invoker = invokers.get(key);
+
+        if (invoker != null)
+            return invoker;
+
+        CompletableFuture<MethodHandle> generation = new CompletableFuture<>();
+        CompletableFuture<MethodHandle> inFlight = IN_FLIGHT.putIfAbsent(key, generation);
+
+        if (inFlight == null) {
+            // Generated outside of the map, so other keys are not blocked
+            inFlight = generation;
+
+            try {
+                // Another generation may have completed between the lookup and the registration
+                invoker = invokers.get(key);
+
+                if (invoker == null) {
+                    Class<?> generate = DynamicMethodInvoker.generate(name, signature, invokeType, dynamic);
+
+                    invoker = THIS_LOOKUP.findStatic(generate, name,
+                            signature.insertParameterTypes(0, MethodHandles.Lookup.class));
+                    invokers.put(key, invoker);
+                }
+
+                generation.complete(invoker);
+            } catch (Throwable t) {
+                generation.completeExceptionally(t);
+            } finally {
+                IN_FLIGHT.remove(key, generation);
+            }
+        }
+
         try {
-            Class<?> generate = DynamicMethodInvoker.generate(name, signature, invokeType, dynamic);
+            return inFlight.join();
+        } catch (CompletionException e) {
+            throw RethrowException.rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the type of {@code signature} which is loaded by the most specific class loader,
+     * that is, the class loader which every other type of the signature is visible from (through
+     * its parent chain). Signatures which only have types of bootstrap class loader, or of the
+     * class loader of this library, are owned by {@link DynamicMethodInvoker}.
+     *
+     * @param signature Signature.
+     * @return Owner type of {@code signature}.
+     */
+    private static Class<?> ownerType(MethodType signature) {
+        Class<?> owner = DynamicMethodInvoker.class;
+
+        for (int i = 0; i <= signature.parameterCount(); i++) {
+            Class<?> type = i == signature.parameterCount() ? signature.returnType() : signature.parameterType(i);
+
+            while (type.isArray())
+                type = type.getComponentType();
+
+            ClassLoader loader = type.getClassLoader();
+
+            if (loader != owner.getClassLoader() && DynamicMethodInvoker.isAncestor(owner.getClassLoader(), loader))
+                owner = type;
+        }
+
+        return owner;
+    }
+
+    private static boolean isAncestor(ClassLoader ancestor, ClassLoader loader) {
+        if (ancestor == null)
+            return true;
 
-            return THIS_LOOKUP.findStatic(generate, name,
-                    signature.insertParameterTypes(0, MethodHandles.Lookup.class));
-        } catch (Throwable t) {
-            throw RethrowException.rethrow(t);
+        for (ClassLoader current = loader; current != null; current = current.getParent()) {
+            if (current == ancestor)
+                return true;
         }
+
+        return false;
     }
 
     /**
      * Resolves a method handle of method with specified {@code name} and specified signature
      * ({@code mt}) in {@code receiver}.
      *
+     * Resolved handles and failed resolutions are cached per caller lookup class, a failed
+     * resolution is signaled again with the exception of the first failure.
+     *
      * @param lookup     Lookup to use to resolve the method.
      * @param receiver   Receiver instance.
      * @param name       Name of method to invoke.
@@ -172,20 +314,55 @@ public class DynamicMethodInvoker implements KoresExperiment {
                                                          String name,
                                                          MethodType mt,
                                                          int invokeType) throws Throwable {
+        if (receiver == null)
+            Prelink.seed(type -> DynamicMethodInvoker.resolveStatic(lookup, type, name, mt, invokeType));
 
+        MethodHandle resolved = DynamicMethodInvoker.resolveStatic(lookup, receiver.getClass(), name, mt, invokeType);
 
-        switch (invokeType) {
-            case InternalUtil.VIRTUAL: {
-                return lookup.bind(receiver, name, mt);
-            }
-            case InternalUtil.STATIC: {
-                return lookup.findStatic(receiver.getClass(), name, mt);
-            }
-            default: {
-                throw new IllegalArgumentException("Invalid invocation type '" + invokeType + "'!");
-            }
+        return invokeType == InternalUtil.VIRTUAL ? resolved.bindTo(receiver) : resolved;
+    }
+
+    /**
+     * Resolves the method handle of method with specified {@code name} and signature {@code mt} in
+     * {@code receiverClass} from cache, or resolves and caches it. For virtual invocations, the
+     * returned handle is not bound to the receiver.
+     *
+     * @see #resolveMethodHandleStatic(MethodHandles.Lookup, Object, String, MethodType, int)
+     */
+    static MethodHandle resolveStatic(MethodHandles.Lookup lookup,
+                                      Class<?> receiverClass,
+                                      String name,
+                                      MethodType mt,
+                                      int invokeType) throws Throwable {
+        MethodHandle resolved = RESOLUTION_CACHE.get(lookup.lookupClass())
+                .get(new ResolutionKey(receiverClass, name, mt, invokeType, NO_TYPES));
+
+        if (resolved == null)
+            resolved = DynamicMethodInvoker.resolveStaticSlow(lookup, receiverClass, name, mt, invokeType);
+
+        return resolved;
+    }
+
+    private static MethodHandle resolveStaticSlow(MethodHandles.Lookup lookup,
+                                                  Class<?> receiverClass,
+                                                  String name,
+                                                  MethodType mt,
+                                                  int invokeType) throws Throwable {
+        ResolutionKey key = new ResolutionKey(receiverClass, name, mt, invokeType, NO_TYPES);
+        MethodHandle resolved;
+
+        CallSiteProfiler.recordSlowPath();
+        FAILURES.check(lookup.lookupClass(), key);
+
+        try {
+            resolved = resolveUnbound(lookup, receiverClass, name, mt, invokeType);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw FAILURES.fail(lookup.lookupClass(), key, e);
         }
 
+        MethodHandle present = RESOLUTION_CACHE.get(lookup.lookupClass()).putIfAbsent(key, resolved);
+
+        return present != null ? present : resolved;
     }
 
     /**
@@ -215,65 +392,218 @@ public class DynamicMethodInvoker implements KoresExperiment {
                                                           MethodType mt,
                                                           int invokeType,
                                                           Class<?>[] argTypes) throws Throwable {
+        if (receiver == null)
+            Prelink.seed(type -> DynamicMethodInvoker.resolveDynamic(lookup, type, name, mt, invokeType, argTypes));
+
+        MethodHandle resolved = DynamicMethodInvoker.resolveDynamic(lookup, receiver.getClass(), name, mt,
+                invokeType, argTypes);
+
+        return invokeType == InternalUtil.VIRTUAL ? resolved.bindTo(receiver) : resolved;
+    }
+
+    /**
+     * Resolves the method handle of method with specified {@code name} and signature in {@code
+     * receiverClass} for arguments of {@code argTypes} from cache, or searches and caches it. For
+     * virtual invocations, the returned handle is not bound to the receiver.
+     *
+     * @see #resolveMethodHandleDynamic(MethodHandles.Lookup, Object, String, MethodType, int,
+     * Class[])
+     */
+    static MethodHandle resolveDynamic(MethodHandles.Lookup lookup,
+                                       Class<?> receiverClass,
+                                       String name,
+                                       MethodType mt,
+                                       int invokeType,
+                                       Class<?>[] argTypes) throws Throwable {
+        MethodHandle resolved = RESOLUTION_CACHE.get(lookup.lookupClass())
+                .get(new ResolutionKey(receiverClass, name, mt, invokeType, argTypes));
+
+        if (resolved == null)
+            return DynamicMethodInvoker.resolveDynamicSlow(lookup, receiverClass, name, mt, invokeType, argTypes);
+
+        KoresMetrics.recordResolutionHit();
+        return resolved;
+    }
+
+    private static MethodHandle resolveDynamicSlow(MethodHandles.Lookup lookup,
+                                                   Class<?> receiverClass,
+                                                   String name,
+                                                   MethodType mt,
+                                                   int invokeType,
+                                                   Class<?>[] argTypes) throws Throwable {
+        ResolutionKey key = new ResolutionKey(receiverClass, name, mt, invokeType, argTypes.clone());
+        MethodHandle resolved;
+
+        KoresMetrics.recordResolutionMiss();
+        CallSiteProfiler.recordSlowPath();
+        FAILURES.check(lookup.lookupClass(), key);
+
+        try {
+            resolved = searchMethodHandleDynamic(lookup, receiverClass, name, mt, invokeType, argTypes);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw FAILURES.fail(lookup.lookupClass(), key, e);
+        }
+
+        MethodHandle present = RESOLUTION_CACHE.get(lookup.lookupClass()).putIfAbsent(key, resolved);
+
+        return present != null ? present : resolved;
+    }
 
+    /**
+     * Searches the method handle of method with specified {@code name} and signature in {@code
+     * receiverClass}, trying all combinations of super-types of {@code argTypes}. For virtual
+     * invocations, the returned handle is not bound to the receiver.
+     *
+     * Primitive argument types are resolved following the phases of JLS 15.12.2: the exact
+     * primitive type first, then widening primitive conversions and only then boxing, so methods
+     * that take primitive parameters are linked without boxing the arguments.
+     *
+     * @see #resolveMethodHandleDynamic(MethodHandles.Lookup, Object, String, MethodType, int,
+     * Class[])
+     */
+    static MethodHandle searchMethodHandleDynamic(MethodHandles.Lookup lookup,
+                                                  Class<?> receiverClass,
+                                                  String name,
+                                                  MethodType mt,
+                                                  int invokeType,
+                                                  Class<?>[] argTypes) throws Throwable {
+
+        ResolutionEvent event = KoresEvents.beginResolution();
+        int tried = 1;
         Exception curr;
+        MethodType resolvedType = invokeType == InternalUtil.VIRTUAL
+                ? mt.insertParameterTypes(0, receiverClass)
+                : mt;
         CFunction<Class<?>[], MethodHandle> tryResolve =
-                c -> resolveMethodHandleStatic(lookup, receiver, name,
+                c -> resolveUnbound(lookup, receiverClass, name,
                         MethodType.methodType(mt.returnType(), c), invokeType);
 
         try {
-            return tryResolve.applyChecked(argTypes).asType(mt);
+            MethodHandle resolved = tryResolve.applyChecked(argTypes).asType(resolvedType);
+            KoresEvents.endResolution(event, name, mt, receiverClass, tried, true);
+            return resolved;
         } catch (Exception e) {
             curr = e;
         }
 
         int combinations = 1;
+        boolean primitive = false;
         Class[][] types = new Class[argTypes.length][];
+        int[] primitives = new int[argTypes.length];
         int[] size = new int[argTypes.length];
         int[] counter = new int[argTypes.length];
 
         for (int i = 0; i < argTypes.length; i++) {
             Class<?> argType = argTypes[i];
-
-            Collection<Class<?>> allSubclasses = ClassUtil.getAllSubclasses(argType);
-            types[i] = new Class[allSubclasses.size() + 2];
-            types[i][0] = argType;
-
-            int x = 1;
-            for (Class<?> allSubclass : allSubclasses) {
-                types[i][x++] = allSubclass;
+            List<Class<?>> candidates = new ArrayList<>();
+
+            if (argType.isPrimitive()) {
+                // Exact type first, then widening conversions, then boxing (JLS 15.12.2)
+                primitive = true;
+                candidates.add(argType);
+                candidates.addAll(DynamicMethodInvoker.widenings(argType));
+                primitives[i] = candidates.size();
+                argType = MethodType.methodType(argType).wrap().returnType();
             }
 
-            types[i][x] = Object.class;
+            candidates.add(argType);
+            candidates.addAll(ClassUtil.getAllSubclasses(argType));
+            candidates.add(Object.class);
 
+            types[i] = candidates.toArray(new Class[0]);
             size[i] = types[i].length;
             combinations *= types[i].length;
         }
 
-        for (int c = combinations; c > 0; --c) {
-            Class[] cnv = argTypes.clone();
-            for (int i = 0; i < types.length; i++) {
-                cnv[i] = types[i][counter[i]];
-            }
+        // First phase does not box primitive arguments, second phase only tries combinations with
+        // at least one boxed argument.
+        for (int phase = 0; phase < (primitive ? 2 : 1); phase++) {
+            for (int c = combinations; c > 0; --c) {
+                Class[] cnv = argTypes.clone();
+                boolean boxing = false;
 
-            try {
-                return tryResolve.applyChecked(cnv).asType(mt);
-            } catch (Exception e) {
-                curr.addSuppressed(e);
-            }
+                for (int i = 0; i < types.length; i++) {
+                    cnv[i] = types[i][counter[i]];
+                    boxing |= primitives[i] != 0 && counter[i] >= primitives[i];
+                }
 
-            for (int iinc = types.length - 1; iinc >= 0; --iinc) {
-                if (counter[iinc] + 1 < size[iinc]) {
-                    ++counter[iinc];
-                    break;
+                if (boxing == (phase == 1)) {
+                    ++tried;
+
+                    try {
+                        MethodHandle resolved = tryResolve.applyChecked(cnv).asType(resolvedType);
+                        KoresEvents.endResolution(event, name, mt, receiverClass, tried, true);
+                        return resolved;
+                    } catch (Exception e) {
+                        curr.addSuppressed(e);
+                    }
+                }
+
+                for (int iinc = types.length - 1; iinc >= 0; --iinc) {
+                    if (counter[iinc] + 1 < size[iinc]) {
+                        ++counter[iinc];
+                        break;
+                    }
+                    counter[iinc] = 0;
                 }
-                counter[iinc] = 0;
             }
         }
 
+        KoresEvents.endResolution(event, name, mt, receiverClass, tried, false);
         throw RethrowException.rethrow(curr);
     }
 
+    /**
+     * Gets the types to which primitive {@code type} is converted by widening primitive
+     * conversions, from the most specific to the least specific.
+     */
+    private static List<Class<?>> widenings(Class<?> type) {
+        if (type == Byte.TYPE)
+            return Arrays.asList(Short.TYPE, Integer.TYPE, Long.TYPE, Float.TYPE, Double.TYPE);
+        if (type == Short.TYPE || type == Character.TYPE)
+            return Arrays.asList(Integer.TYPE, Long.TYPE, Float.TYPE, Double.TYPE);
+        if (type == Integer.TYPE)
+            return Arrays.asList(Long.TYPE, Float.TYPE, Double.TYPE);
+        if (type == Long.TYPE)
+            return Arrays.asList(Float.TYPE, Double.TYPE);
+        if (type == Float.TYPE)
+            return Collections.singletonList(Double.TYPE);
+
+        return Collections.emptyList();
+    }
+
+    /**
+     * Resolves a method handle of method with specified {@code name} and specified signature
+     * ({@code mt}) in {@code receiverClass}, without binding it to any receiver. Varargs methods
+     * are resolved as described in {@link Varargs}.
+     *
+     * @param lookup        Lookup to use to resolve the method.
+     * @param receiverClass Class of the receiver.
+     * @param name          Name of method to invoke.
+     * @param mt            Signature of method.
+     * @param invokeType    Type of invocation of the method, either {@link InternalUtil#VIRTUAL} or
+     *                      {@link InternalUtil#STATIC}.
+     * @return Resolved method handle.
+     * @throws Throwable If resolution fails.
+     */
+    private static MethodHandle resolveUnbound(MethodHandles.Lookup lookup,
+                                               Class<?> receiverClass,
+                                               String name,
+                                               MethodType mt,
+                                               int invokeType) throws Throwable {
+        switch (invokeType) {
+            case InternalUtil.VIRTUAL: {
+                return Varargs.findVirtual(lookup, receiverClass, name, mt);
+            }
+            case InternalUtil.STATIC: {
+                return Varargs.findStatic(lookup, receiverClass, name, mt);
+            }
+            default: {
+                throw new IllegalArgumentException("Invalid invocation type '" + invokeType + "'!");
+            }
+        }
+    }
+
     private static ClassDeclaration createDeclaration(String name, MethodType signature,
                                                       int invokeType, int dynamic) {
         String fullname = InternalUtil
@@ -282,18 +612,58 @@ public class DynamicMethodInvoker implements KoresExperiment {
         return ClassDeclaration.Builder.builder()
                                        .publicModifier()
                                        .specifiedName(fullname)
-                                       .fields(field(signature))
+                                       .fields(fields(name, signature, invokeType, dynamic))
                                        .methods(impl(name, signature, invokeType, dynamic))
                                        .build();
     }
 
-    private static FieldDeclaration field(MethodType signature) {
+    private static List<FieldDeclaration> fields(String name, MethodType signature, int invokeType,
+                                                 int dynamic) {
+        MethodType mt = cleanSignature(signature);
+        List<FieldDeclaration> fields = new ArrayList<>();
+
+        fields.add(field(MT_NAME, mt));
+        fields.add(field(INVOKER_TYPE_NAME, invokerSignature(signature, invokeType)));
+
+        if (dynamic == InternalUtil.DYNAMIC && isPrimitive(mt))
+            fields.add(FieldDeclaration.Builder.builder()
+                                               .modifiers(KoresModifier.PRIVATE, KoresModifier.STATIC,
+                                                       KoresModifier.FINAL)
+                                               .type(Class[].class)
+                                               .name(ARG_TYPES_NAME)
+                                               .value(Factories.createArray(Class[].class,
+                                                       Collections.singletonList(
+                                                               Literals.INT(mt.parameterCount())),
+                                                       mt.parameterList().stream().map(Literals::CLASS)
+                                                         .collect(Collectors.toList())))
+                                               .build());
+
+        fields.add(FieldDeclaration.Builder.builder()
+                                           .modifiers(KoresModifier.PRIVATE, KoresModifier.STATIC,
+                                                   KoresModifier.FINAL)
+                                           .type(InvokerResolver.class)
+                                           .name(RESOLVER_NAME)
+                                           .value(InvocationFactory.invokeStatic(
+                                                   InvokerResolver.class,
+                                                   "of",
+                                                   Factories.typeSpec(InvokerResolver.class, String.class,
+                                                           MethodType.class, MethodType.class, Integer.TYPE),
+                                                   Collections3.listOf(Literals.STRING(name),
+                                                           Factories.accessStaticField(MT_TYPE, MT_NAME),
+                                                           Factories.accessStaticField(MT_TYPE, INVOKER_TYPE_NAME),
+                                                           Literals.INT(invokeType))))
+                                           .build());
+
+        return fields;
+    }
+
+    private static FieldDeclaration field(String name, MethodType mt) {
         return FieldDeclaration.Builder.builder()
                                        .modifiers(KoresModifier.PRIVATE, KoresModifier.STATIC,
                                                KoresModifier.FINAL)
                                        .type(MT_TYPE)
-                                       .name(MT_NAME)
-                                       .value(mt(cleanSignature(signature)))
+                                       .name(name)
+                                       .value(mt(mt))
                                        .build();
     }
 
@@ -301,6 +671,14 @@ public class DynamicMethodInvoker implements KoresExperiment {
         return mt.dropParameterTypes(0, 1);
     }
 
+    /**
+     * Type of the resolved handle invoked by generated method, virtual invocations pass the
+     * receiver as first argument.
+     */
+    private static MethodType invokerSignature(MethodType mt, int invokeType) {
+        return invokeType == InternalUtil.VIRTUAL ? mt : cleanSignature(mt);
+    }
+
     private static MethodDeclaration impl(String name, MethodType signature, int invokeType,
                                           int dynamic) {
 
@@ -309,11 +687,12 @@ public class DynamicMethodInvoker implements KoresExperiment {
         List<KoresParameter> parameters = getParameters(signature.parameterList());
         List<Instruction> accesses = ConversionsKt.getAccess(parameters);
         List<Instruction> argumentsToForward = accesses.subList(2, accesses.size());
-        MethodType targetSignature = cleanSignature(signature);
+        MethodType targetSignature = invokerSignature(signature, invokeType);
 
         Class<?> rType = signature.returnType();
 
-        Instruction find = lookup(lookup, receiver, name, invokeType, dynamic, argumentsToForward);
+        Instruction find = lookup(lookup, receiver, dynamic, cleanSignature(signature),
+                argumentsToForward);
 
         return MethodDeclaration.Builder.builder()
                                         .modifiers(KoresModifier.PUBLIC, KoresModifier.STATIC)
@@ -322,20 +701,14 @@ public class DynamicMethodInvoker implements KoresExperiment {
                                         .name(name)
                                         .body(Instructions.fromPart(Factories
                                                 .returnValue(rType,
-                                                        invokeExact(find, argumentsToForward,
+                                                        invokeExact(find,
+                                                                invokeType == InternalUtil.VIRTUAL
+                                                                        ? accesses.subList(1, accesses.size())
+                                                                        : argumentsToForward,
                                                                 targetSignature))))
                                         .build();
     }
 
-    private static Instruction bind(Instruction mh, Instruction instruction) {
-        return InvocationFactory.invokeVirtual(MethodHandle.class,
-                mh,
-                "bindTo",
-                Factories.typeSpec(MethodHandle.class, Object.class),
-                Collections.singletonList(instruction)
-        );
-    }
-
     private static Instruction invokeExact(Instruction mh, List<Instruction> arguments,
                                            MethodType signature) {
         return InvocationFactory.invokeVirtual(MethodHandle.class,
@@ -346,6 +719,32 @@ public class DynamicMethodInvoker implements KoresExperiment {
         );
     }
 
+    /**
+     * Creates the array of argument types of an invocation of {@code mt} with {@code args}, the
+     * types of primitive parameters are constant and the others are the classes of the arguments.
+     */
+    private static Instruction argTypes(MethodType mt, List<Instruction> args) {
+        return Factories.createArray(Class[].class,
+                Collections.singletonList(Literals.INT(args.size())),
+                CollectionsKt.mapIndexed(args, (i, c) -> mt.parameterType(i).isPrimitive()
+                        ? Literals.CLASS(mt.parameterType(i))
+                        : DynamicMethodInvoker.getPartClass(c, i))
+        );
+    }
+
+    /**
+     * Whether all parameters of {@code mt} are primitive, so the argument types of its invocations
+     * are constant.
+     */
+    private static boolean isPrimitive(MethodType mt) {
+        for (Class<?> parameterType : mt.parameterArray()) {
+            if (!parameterType.isPrimitive())
+                return false;
+        }
+
+        return true;
+    }
+
     private static Instruction getPartClass(Instruction receiver, int alt) {
         return new Line.TypedLine(1, IfStatement.Builder.builder()
                                                         .expressions(
@@ -383,38 +782,31 @@ public class DynamicMethodInvoker implements KoresExperiment {
 
     private static Instruction lookup(Instruction lookupInstance,
                                       Instruction instance,
-                                      String name,
-                                      int invokeType,
                                       int dynamic,
+                                      MethodType mt,
                                       List<Instruction> args) {
 
         switch (dynamic) {
             case InternalUtil.NORMAL: {
-                return InvocationFactory.invokeStatic(
-                        DynamicMethodInvoker.class,
-                        "resolveMethodHandleStatic",
-                        Factories.typeSpec(MethodHandle.class, LOOKUP_TYPE, Object.class,
-                                String.class, MethodType.class, Integer.TYPE),
-                        Collections3.listOf(lookupInstance, instance,
-                                Literals.STRING(name),
-                                Factories.accessStaticField(MT_TYPE, MT_NAME),
-                                Literals.INT(invokeType))
+                return InvocationFactory.invokeVirtual(
+                        InvokerResolver.class,
+                        Factories.accessStaticField(InvokerResolver.class, RESOLVER_NAME),
+                        "resolve",
+                        Factories.typeSpec(MethodHandle.class, LOOKUP_TYPE, Object.class),
+                        Collections3.listOf(lookupInstance, instance)
                 );
             }
             case InternalUtil.DYNAMIC: {
-                return InvocationFactory.invokeStatic(
-                        DynamicMethodInvoker.class,
-                        "resolveMethodHandleDynamic",
+                return InvocationFactory.invokeVirtual(
+                        InvokerResolver.class,
+                        Factories.accessStaticField(InvokerResolver.class, RESOLVER_NAME),
+                        "resolve",
                         Factories.typeSpec(MethodHandle.class, LOOKUP_TYPE, Object.class,
-                                String.class, MethodType.class, Integer.TYPE, Class[].class),
+                                Class[].class),
                         Collections3.listOf(lookupInstance, instance,
-                                Literals.STRING(name),
-                                Factories.accessStaticField(MT_TYPE, MT_NAME),
-                                Literals.INT(invokeType), Factories.createArray(Class[].class,
-                                        Collections.singletonList(Literals.INT(args.size())),
-                                        CollectionsKt.mapIndexed(args, (i, c) ->
-                                                DynamicMethodInvoker.getPartClass(c, i))
-                                ))
+                                DynamicMethodInvoker.isPrimitive(mt)
+                                        ? Factories.accessStaticField(Class[].class, ARG_TYPES_NAME)
+                                        : argTypes(mt, args))
                 );
             }
 
@@ -425,35 +817,6 @@ public class DynamicMethodInvoker implements KoresExperiment {
 
     }
 
-    private static Instruction lookupVirtually(Instruction lookupInstance,
-                                               Instruction instance,
-                                               String name) {
-        return InvocationFactory.invokeVirtual(
-                LOOKUP_TYPE,
-                lookupInstance,
-                "bind",
-                Factories
-                        .typeSpec(MethodHandle.class, Object.class, String.class, MethodType.class),
-                Collections3.listOf(instance, Literals.STRING(name),
-                        Factories.accessStaticField(MT_TYPE, MT_NAME))
-        );
-    }
-
-    private static Instruction lookupFor(Instruction lookupInstance,
-                                         String type,
-                                         Instruction refcInstance,
-                                         String name,
-                                         MethodType mt) {
-        return InvocationFactory.invokeVirtual(
-                LOOKUP_TYPE,
-                lookupInstance,
-                "find" + type,
-                Factories.typeSpec(MethodHandle.class, Class.class, String.class, MethodType.class),
-                Collections3.listOf(refcInstance, Literals.STRING(name),
-                        Factories.accessStaticField(MT_TYPE, MT_NAME))
-        );
-    }
-
     private static Instruction mt(MethodType mt) {
         switch (mt.parameterCount()) {
             case 0: {
@@ -508,4 +871,50 @@ public class DynamicMethodInvoker implements KoresExperiment {
     public String getName() {
         return "DynamicMethodInvoker";
     }
+
+    /**
+     * Key of a dynamic resolution in {@link #RESOLUTION_CACHE}.
+     */
+    private static final class ResolutionKey {
+        private final Class<?> receiverClass;
+        private final String name;
+        private final MethodType mt;
+        private final int invokeType;
+        private final Class<?>[] argTypes;
+        private final int hash;
+
+        ResolutionKey(Class<?> receiverClass, String name, MethodType mt, int invokeType,
+                      Class<?>[] argTypes) {
+            this.receiverClass = receiverClass;
+            this.name = name;
+            this.mt = mt;
+            this.invokeType = invokeType;
+            this.argTypes = argTypes;
+            this.hash = 31 * (31 * (31 * (31 * receiverClass.hashCode() + name.hashCode())
+                    + mt.hashCode()) + invokeType) + Arrays.hashCode(argTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+
+            if (!(obj instanceof ResolutionKey))
+                return false;
+
+            ResolutionKey other = (ResolutionKey) obj;
+
+            return this.hash == other.hash
+                    && this.receiverClass == other.receiverClass
+                    && this.invokeType == other.invokeType
+                    && this.name.equals(other.name)
+                    && this.mt.equals(other.mt)
+                    && Arrays.equals(this.argTypes, other.argTypes);
+        }
+    }
 }
@@ -0,0 +1,207 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.iutils.exception.RethrowException;
+import com.github.jonathanxd.koresexperiments.jfr.KoresEvents;
+import com.github.jonathanxd.koresexperiments.jfr.RelinkEvent;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteEntry;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteProfiler;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteRegistry;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Call site that links to a target {@link #resolve(Class) resolved} from the receiver class (the
+ * first argument) and caches the targets of the receiver classes it has seen in a chain of class
+ * guards (an inline cache). After {@code maxDepth} receiver classes, the call site becomes
+ * megamorphic and resolves the target of the receiver class in every invocation, so {@link
+ * #resolve(Class)} should be backed by a cache.
+ */
+abstract class InlineCacheCallSite extends MutableCallSite {
+
+    private static final MethodHandle LINK_METHOD;
+    private static final MethodHandle LOOKUP_METHOD;
+    private static final MethodHandle IS_CLASS_METHOD;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        try {
+            LINK_METHOD = lookup.findVirtual(InlineCacheCallSite.class, "link",
+                    MethodType.methodType(MethodHandle.class, Object.class));
+            LOOKUP_METHOD = lookup.findVirtual(InlineCacheCallSite.class, "lookup",
+                    MethodType.methodType(MethodHandle.class, Object.class));
+            IS_CLASS_METHOD = lookup.findStatic(InlineCacheCallSite.class, "isClass",
+                    MethodType.methodType(Boolean.TYPE, Class.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
+    private final String experiment;
+    private final String name;
+    private final int maxDepth;
+    private final List<Class<?>> receiverClasses = new ArrayList<>();
+    private CallSiteEntry entry;
+    private int depth;
+
+    InlineCacheCallSite(String experiment, String name, MethodType type, int maxDepth) {
+        super(type);
+
+        if (type.parameterCount() == 0 || type.parameterType(0).isPrimitive())
+            throw new IllegalArgumentException("First parameter of '" + name + type
+                    + "' must be the receiver.");
+
+        this.experiment = experiment;
+        this.name = name;
+        this.maxDepth = maxDepth;
+        this.setTarget(this.fold(LINK_METHOD));
+        this.entry = CallSiteRegistry.register(experiment, name, type, this, "unlinked");
+    }
+
+    /**
+     * Resolves the target of invocations with receivers of {@code receiverClass}.
+     *
+     * @param receiverClass Class of the receiver.
+     * @return Target of invocations, the type must be the same as the {@link #type() call site
+     * type}.
+     */
+    abstract MethodHandle resolve(Class<?> receiverClass);
+
+    /**
+     * Gets the target of the call site once it becomes megamorphic, by default, a target that
+     * {@link #resolve(Class) resolves} the target of the receiver class in every invocation.
+     *
+     * @return Target of the megamorphic call site, the type must be the same as the {@link #type()
+     * call site type}.
+     */
+    MethodHandle megamorphicTarget() {
+        return this.fold(LOOKUP_METHOD);
+    }
+
+    /**
+     * Relinks the call site to the {@link #megamorphicTarget() megamorphic target} if it is already
+     * megamorphic, used when the megamorphic target changes.
+     */
+    void relinkMegamorphic() {
+        synchronized (this) {
+            if (this.depth > this.maxDepth)
+                this.entry.setTarget(this.megamorphicTarget());
+        }
+    }
+
+    String getName() {
+        return this.name;
+    }
+
+    /**
+     * Creates a handle of call site type which invokes the handle returned by {@code selector}.
+     */
+    private MethodHandle fold(MethodHandle selector) {
+        MethodType type = this.type();
+        MethodHandle select = selector.bindTo(this)
+                .asType(MethodType.methodType(MethodHandle.class, type.parameterType(0)));
+
+        return MethodHandles.foldArguments(MethodHandles.exactInvoker(type), select);
+    }
+
+    private MethodHandle link(Object receiver) {
+        if (receiver == null)
+            Prelink.seed(this::seed);
+
+        return this.link(receiver.getClass());
+    }
+
+    private MethodHandle link(Class<?> receiverClass) {
+        RelinkEvent event = KoresEvents.beginRelink();
+        MethodHandle resolved = this.resolve(receiverClass);
+
+        synchronized (this) {
+            // Concurrent misses of the same receiver class, or misses while becoming megamorphic,
+            // are already linked by the first one
+            if (this.depth > this.maxDepth || this.receiverClasses.contains(receiverClass))
+                return resolved;
+
+            MethodHandle target;
+
+            if (++this.depth > this.maxDepth) {
+                target = this.megamorphicTarget();
+                this.entry.setState("megamorphic");
+            } else {
+                MethodHandle current = this.entry.getTarget();
+                MethodHandle test = MethodHandles.dropArguments(
+                        IS_CLASS_METHOD.bindTo(receiverClass)
+                                .asType(MethodType.methodType(Boolean.TYPE, this.type().parameterType(0))),
+                        1,
+                        this.type().dropParameterTypes(0, 1).parameterList());
+
+                target = MethodHandles.guardWithTest(test, resolved, current != null ? current : this.getTarget());
+                this.receiverClasses.add(receiverClass);
+                this.entry.setState("linked to " + this.depth + " receiver classes");
+            }
+
+            this.entry.setTarget(target);
+        }
+
+        KoresMetrics.recordRelink();
+        CallSiteProfiler.recordSlowPath();
+        KoresEvents.endRelink(event, this.name, this.type(), receiverClass);
+
+        return resolved;
+    }
+
+    private MethodHandle lookup(Object receiver) {
+        if (receiver == null)
+            Prelink.seed(this::resolve);
+
+        return this.resolve(receiver.getClass());
+    }
+
+    /**
+     * Links {@code receiverClass} if it is not linked yet, see {@link Prelink}.
+     */
+    private void seed(Class<?> receiverClass) {
+        synchronized (this) {
+            if (this.depth > this.maxDepth || this.receiverClasses.contains(receiverClass))
+                return;
+        }
+
+        this.link(receiverClass);
+    }
+
+    private static boolean isClass(Class<?> type, Object receiver) {
+        return receiver != null && receiver.getClass() == type;
+    }
+}
@@ -27,12 +27,17 @@
  */
 package com.github.jonathanxd.koresexperiments;
 
+import com.github.jonathanxd.kores.base.TypeDeclaration;
+import com.github.jonathanxd.kores.bytecode.BytecodeClass;
 import com.github.jonathanxd.kores.bytecode.processor.BytecodeGenerator;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
 
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
@@ -43,7 +48,6 @@ public class InternalUtil {
     static final int NORMAL = 0;
     static final int DYNAMIC = 1;
 
-    private static final String BASE_GEN_PACKAGE = "com.github.jonathanxd.koresexperiments.generated.experiment";
     private static final ThreadLocal<BytecodeGenerator> GENERATOR = ThreadLocal.withInitial(BytecodeGenerator::new);
     private static AtomicInteger count = new AtomicInteger(0);
 
@@ -56,7 +60,7 @@ public class InternalUtil {
      * @return Name for a new experiment generated class.
      */
     static String createGenClassName(String module, String base) {
-        return BASE_GEN_PACKAGE + "." + module + "." + base + "$" + count.getAndIncrement();
+        return ClassDefiner.className(module, base, count.getAndIncrement());
     }
 
     /**
@@ -68,6 +72,30 @@ public class InternalUtil {
         return GENERATOR.get();
     }
 
+    /**
+     * Generates the bytecode of {@code declaration} using the {@link #getThreadBytecodeGenerator()
+     * thread local generator}, records generation metrics in {@link KoresMetrics} and saves
+     * generated classes through {@link Debug#save(List, String)}.
+     *
+     * @param declaration Declaration of the type to generate.
+     * @param module      Module generating the class.
+     * @return Generated classes.
+     */
+    static List<BytecodeClass> process(TypeDeclaration declaration, String module) {
+        long start = System.nanoTime();
+        List<BytecodeClass> process = InternalUtil.getThreadBytecodeGenerator().process(declaration);
+        long elapsed = System.nanoTime() - start;
+        long bytes = 0;
+
+        for (BytecodeClass bytecodeClass : process) {
+            bytes += bytecodeClass.getBytecode().length;
+        }
+
+        KoresMetrics.recordGeneration(module, process.size(), bytes, elapsed);
+        Debug.save(process, module);
+        return process;
+    }
+
     /**
      * Loop all unique methods of {@code itfs}, consume them with {@code each} and add to a list.
      *
@@ -93,4 +121,89 @@ public class InternalUtil {
 
         return methodsToImplement;
     }
+
+    /**
+     * Gets the declaration of {@code method} in a public class of {@code type} hierarchy, or
+     * {@code null} if it is not declared by any public class. Methods declared in public classes
+     * can be accessed through {@link java.lang.invoke.MethodHandles#publicLookup()} even when the
+     * receiver class is not public.
+     *
+     * @param type   Type to start lookup.
+     * @param method Method to find accessible declaration.
+     * @return Accessible declaration of {@code method}, or {@code null} if there is no accessible
+     * declaration.
+     */
+    static Method accessibleMethod(Class<?> type, Method method) {
+        if (Modifier.isPublic(type.getModifiers())) {
+            try {
+                return type.getMethod(method.getName(), method.getParameterTypes());
+            } catch (NoSuchMethodException ignored) {
+                return null;
+            }
+        }
+
+        Method found = type.getSuperclass() != null
+                ? InternalUtil.accessibleMethod(type.getSuperclass(), method)
+                : null;
+
+        for (Class<?> itf : type.getInterfaces()) {
+            if (found != null)
+                break;
+
+            found = InternalUtil.accessibleMethod(itf, method);
+        }
+
+        return found;
+    }
+
+    /**
+     * Gets the first public class in the hierarchy of {@code type}.
+     *
+     * @param type Type to start lookup.
+     * @return First public class in the hierarchy of {@code type}.
+     */
+    static Class<?> publicClass(Class<?> type) {
+        Class<?> c = type;
+
+        while (!Modifier.isPublic(c.getModifiers()))
+            c = c.getSuperclass();
+
+        return c;
+    }
+
+    /**
+     * Returns whether {@code type} is visible to {@code loader}, in other words, whether resolving
+     * the name of {@code type} through {@code loader} results in {@code type}.
+     *
+     * @param type   Type to check.
+     * @param loader Class loader.
+     * @return Whether {@code type} is visible to {@code loader}.
+     */
+    static boolean isVisible(Class<?> type, ClassLoader loader) {
+        if (type.isPrimitive())
+            return true;
+
+        try {
+            return Class.forName(type.getName(), false, loader) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the return type and parameter types of {@code type}.
+     *
+     * @param type Method type.
+     * @return Return type followed by parameter types of {@code type}.
+     */
+    static Class<?>[] types(MethodType type) {
+        Class<?>[] types = new Class<?>[type.parameterCount() + 1];
+        types[0] = type.returnType();
+
+        for (int i = 0; i < type.parameterCount(); i++) {
+            types[i + 1] = type.parameterType(i);
+        }
+
+        return types;
+    }
 }
@@ -0,0 +1,164 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Precompiled invoker of public instance methods with a fixed name and signature, obtained through
+ * {@link Invokers#invoker(String, MethodType)} or {@link Invokers#dynamicInvoker(String,
+ * MethodType)}.
+ *
+ * Resolved handles are cached per receiver class already spread to {@code (Object,
+ * Object[])Object}, so, once a receiver class was seen, an invocation costs a {@link ClassValue}
+ * lookup and an exact invocation of the cached handle. Failed resolutions are cached as well, see
+ * {@link Invokers}.
+ *
+ * As in {@link DynamicDispatch}, the return type of the signature must be the exact return type of
+ * the target method.
+ */
+public final class Invoker {
+    private final String name;
+    private final MethodType type;
+    private final boolean dynamic;
+    private final ResolutionFailures failures = new ResolutionFailures();
+    private final ClassValue<MethodHandle> exact = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            Invoker.this.failures.check(type, Invoker.this);
+
+            try {
+                return Invokers.spread(Invokers.find(type, Invoker.this.name, Invoker.this.type, null));
+            } catch (Throwable t) {
+                throw Invoker.this.failures.fail(type, Invoker.this, t);
+            }
+        }
+    };
+    private final ClassValue<ConcurrentMap<Invokers.Key, MethodHandle>> resolved =
+            new ClassValue<ConcurrentMap<Invokers.Key, MethodHandle>>() {
+                @Override
+                protected ConcurrentMap<Invokers.Key, MethodHandle> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    Invoker(String name, MethodType type, boolean dynamic) {
+        this.name = name;
+        this.type = type;
+        this.dynamic = dynamic;
+    }
+
+    /**
+     * Invokes the method on {@code receiver} with {@code args}. Primitive parameters are unboxed
+     * from their wrappers and a primitive return value is boxed, as with {@link
+     * java.lang.reflect.Method#invoke(Object, Object...)}, but exceptions thrown by the method are
+     * propagated as is.
+     *
+     * @param receiver Receiver of the invocation.
+     * @param args     Arguments of the invocation.
+     * @return Value returned by the method, or {@code null} for {@code void} methods.
+     * @throws Throwable If the method could not be resolved or the invoked method throws.
+     */
+    public Object invoke(Object receiver, Object... args) throws Throwable {
+        Class<?> receiverClass = receiver.getClass();
+        MethodHandle handle = this.dynamic
+                ? this.resolve(receiverClass, args)
+                : this.exact.get(receiverClass);
+
+        return (Object) handle.invokeExact(receiver, args);
+    }
+
+    /**
+     * Gets the handle to invoke for arguments of {@code args} classes: parameters of primitive
+     * type keep their type while other parameters use the class of the argument, or the declared
+     * type for {@code null} arguments.
+     */
+    private MethodHandle resolve(Class<?> receiverClass, Object[] args) {
+        Class<?>[] argTypes = new Class<?>[this.type.parameterCount()];
+
+        for (int i = 0; i < argTypes.length; i++) {
+            Class<?> declared = this.type.parameterType(i);
+
+            argTypes[i] = declared.isPrimitive() || i >= args.length || args[i] == null
+                    ? declared
+                    : args[i].getClass();
+        }
+
+        ConcurrentMap<Invokers.Key, MethodHandle> handles = this.resolved.get(receiverClass);
+        Invokers.Key key = new Invokers.Key(this.name, argTypes);
+        MethodHandle handle = handles.get(key);
+
+        if (handle == null) {
+            this.failures.check(receiverClass, key);
+
+            try {
+                handle = handles.computeIfAbsent(key, k ->
+                        Invokers.spread(Invokers.find(receiverClass, this.name, this.type, argTypes)));
+            } catch (Throwable t) {
+                throw this.failures.fail(receiverClass, key, t);
+            }
+        }
+
+        return handle;
+    }
+
+    /**
+     * Gets the name of the methods invoked by this invoker.
+     *
+     * @return Name of the methods invoked by this invoker.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the signature of the methods invoked by this invoker, without the receiver.
+     *
+     * @return Signature of the methods invoked by this invoker.
+     */
+    public MethodType getType() {
+        return this.type;
+    }
+
+    /**
+     * Returns whether this invoker resolves methods based on the classes of the arguments.
+     *
+     * @return Whether this invoker resolves methods based on the classes of the arguments.
+     */
+    public boolean isDynamic() {
+        return this.dynamic;
+    }
+
+    @Override
+    public String toString() {
+        return "Invoker[name=" + this.name + ", type=" + this.type + ", dynamic=" + this.dynamic + "]";
+    }
+}
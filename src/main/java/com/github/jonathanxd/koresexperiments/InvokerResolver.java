@@ -0,0 +1,222 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.iutils.exception.RethrowException;
+import com.github.jonathanxd.koresexperiments.annotation.internal.AccessedAtRuntime;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+
+/**
+ * Resolver of the handles invoked by a method generated by {@link DynamicMethodInvoker}, each
+ * generated class holds its resolver in a constant.
+ *
+ * Resolved handles are already adapted to the type invoked by the generated method and are cached
+ * per caller lookup class and receiver class (in {@link ClassValue ClassValues}), so a cached
+ * resolution is two class value lookups: it does not create keys and does not adapt the handle
+ * again. Handles of dynamic resolutions are additionally selected by argument types, from a small
+ * table per receiver class, a handle found in the table is recorded as a {@link
+ * KoresMetrics#recordResolutionHit() resolution hit}.
+ */
+public final class InvokerResolver {
+
+    /**
+     * Maximum number of argument type combinations cached per receiver class by dynamic
+     * resolutions, other combinations are resolved from the {@link DynamicMethodInvoker} cache.
+     */
+    private static final int MAX_ARGUMENT_TYPES = 8;
+
+    private final String name;
+    private final MethodType mt;
+    private final MethodType invokerType;
+    private final int invokeType;
+    private final ClassValue<Cache> caches = new ClassValue<Cache>() {
+        @Override
+        protected Cache computeValue(Class<?> type) {
+            return new Cache();
+        }
+    };
+
+    private InvokerResolver(String name, MethodType mt, MethodType invokerType, int invokeType) {
+        this.name = name;
+        this.mt = mt;
+        this.invokerType = invokerType;
+        this.invokeType = invokeType;
+    }
+
+    /**
+     * Creates the resolver of a generated method.
+     *
+     * @param name        Name of method to invoke.
+     * @param mt          Signature of method.
+     * @param invokerType Type of resolved handles, which for virtual invocations takes the receiver
+     *                    as first argument.
+     * @param invokeType  Type of invocation of the method, either {@link InternalUtil#VIRTUAL} or
+     *                    {@link InternalUtil#STATIC}.
+     * @return Resolver of the generated method.
+     */
+    @AccessedAtRuntime
+    public static InvokerResolver of(String name, MethodType mt, MethodType invokerType, int invokeType) {
+        return new InvokerResolver(name, mt, invokerType, invokeType);
+    }
+
+    /**
+     * Resolves the handle of the method in {@code receiver}, see {@link
+     * DynamicMethodInvoker#resolveMethodHandleStatic(MethodHandles.Lookup, Object, String,
+     * MethodType, int)}.
+     *
+     * @param lookup   Lookup to use to resolve the method.
+     * @param receiver Receiver instance.
+     * @return Resolved handle, of {@code invokerType}.
+     */
+    @AccessedAtRuntime
+    public MethodHandle resolve(MethodHandles.Lookup lookup, Object receiver) {
+        if (receiver == null)
+            this.seed(lookup);
+
+        return this.cache(lookup).get(receiver.getClass());
+    }
+
+    /**
+     * Resolves the handle of the method in {@code receiver} for arguments of {@code argTypes}, see
+     * {@link DynamicMethodInvoker#resolveMethodHandleDynamic(MethodHandles.Lookup, Object, String,
+     * MethodType, int, Class[])}.
+     *
+     * @param lookup   Lookup to use to resolve the method.
+     * @param receiver Receiver instance.
+     * @param argTypes Types of arguments.
+     * @return Resolved handle, of {@code invokerType}.
+     */
+    @AccessedAtRuntime
+    public MethodHandle resolve(MethodHandles.Lookup lookup, Object receiver, Class<?>[] argTypes) {
+        if (receiver == null)
+            this.seed(lookup, argTypes);
+
+        Cache cache = this.cache(lookup);
+        Class<?> receiverClass = receiver.getClass();
+        ArgumentTypes[] entries = cache.dynamic.get(receiverClass).entries;
+
+        for (ArgumentTypes entry : entries) {
+            if (Arrays.equals(entry.argTypes, argTypes)) {
+                KoresMetrics.recordResolutionHit();
+                return entry.handle;
+            }
+        }
+
+        return this.resolveDynamic(cache, receiverClass, argTypes);
+    }
+
+    private MethodHandle resolveDynamic(Cache cache, Class<?> receiverClass, Class<?>[] argTypes) {
+        MethodHandle resolved;
+
+        try {
+            resolved = DynamicMethodInvoker.resolveDynamic(cache.lookup, receiverClass, this.name, this.mt,
+                    this.invokeType, argTypes).asType(this.invokerType);
+        } catch (Throwable t) {
+            throw RethrowException.rethrow(t);
+        }
+
+        Table table = cache.dynamic.get(receiverClass);
+
+        synchronized (table) {
+            ArgumentTypes[] entries = table.entries;
+
+            if (entries.length < MAX_ARGUMENT_TYPES) {
+                ArgumentTypes[] copy = Arrays.copyOf(entries, entries.length + 1);
+                copy[entries.length] = new ArgumentTypes(argTypes.clone(), resolved);
+                table.entries = copy;
+            }
+        }
+
+        return resolved;
+    }
+
+    private Cache cache(MethodHandles.Lookup lookup) {
+        Cache cache = this.caches.get(lookup.lookupClass());
+
+        // Lookups of the same class resolve the same handles, the first one is kept
+        if (cache.lookup == null)
+            cache.lookup = lookup;
+
+        return cache;
+    }
+
+    private void seed(MethodHandles.Lookup lookup) {
+        Prelink.seed(type -> this.cache(lookup).get(type));
+    }
+
+    private void seed(MethodHandles.Lookup lookup, Class<?>[] argTypes) {
+        Prelink.seed(type -> this.resolveDynamic(this.cache(lookup), type, argTypes));
+    }
+
+    /**
+     * Cache of handles resolved with the lookup of one class, per receiver class.
+     */
+    private final class Cache extends ClassValue<MethodHandle> {
+        private final ClassValue<Table> dynamic = new ClassValue<Table>() {
+            @Override
+            protected Table computeValue(Class<?> type) {
+                return new Table();
+            }
+        };
+        private volatile MethodHandles.Lookup lookup;
+
+        @Override
+        protected MethodHandle computeValue(Class<?> receiverClass) {
+            InvokerResolver resolver = InvokerResolver.this;
+
+            try {
+                return DynamicMethodInvoker.resolveStatic(this.lookup, receiverClass, resolver.name, resolver.mt,
+                        resolver.invokeType).asType(resolver.invokerType);
+            } catch (Throwable t) {
+                throw RethrowException.rethrow(t);
+            }
+        }
+    }
+
+    /**
+     * Handles of dynamic resolutions of one receiver class, per argument types.
+     */
+    private static final class Table {
+        private volatile ArgumentTypes[] entries = new ArgumentTypes[0];
+    }
+
+    private static final class ArgumentTypes {
+        private final Class<?>[] argTypes;
+        private final MethodHandle handle;
+
+        ArgumentTypes(Class<?>[] argTypes, MethodHandle handle) {
+            this.argTypes = argTypes;
+            this.handle = handle;
+        }
+    }
+}
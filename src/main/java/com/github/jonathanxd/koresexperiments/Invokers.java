@@ -0,0 +1,442 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.iutils.exception.RethrowException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Invocation of public instance methods by name, as a replacement of {@link
+ * Method#invoke(Object, Object...)} for methods which the name is only known at runtime.
+ *
+ * Methods are resolved with the same rules of {@link DynamicMethodInvoker}: the method with the
+ * classes of the arguments as parameter types is searched, then all combinations of their
+ * super-types. Resolved handles and failed resolutions are cached per receiver class, so probing
+ * for an absent method repeatedly is cheap.
+ *
+ * Only methods declared by public classes or interfaces can be resolved, the class of the
+ * receiver may be non-public.
+ *
+ * <pre>
+ * {@code
+ * Object name = Invokers.invoke(person, "getName");
+ *
+ * Invoker greet = Invokers.invoker("greet", MethodType.methodType(String.class, String.class));
+ * Object greeting = greet.invoke(person, "Hello");
+ * }
+ * </pre>
+ */
+public final class Invokers {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    /**
+     * Maximum number of argument class combinations per receiver class and name that are matched
+     * without allocating, other combinations are found by {@link Key}.
+     */
+    private static final int MAX_RECENT = 8;
+
+    private static final ClassValue<Table> BY_NAME = new ClassValue<Table>() {
+        @Override
+        protected Table computeValue(Class<?> type) {
+            return new Table();
+        }
+    };
+    private static final ResolutionFailures FAILURES = new ResolutionFailures();
+
+    private Invokers() {
+    }
+
+    /**
+     * Invokes the public instance method {@code name} of {@code receiver} that accepts {@code
+     * args}. Arguments of wrapper classes are also matched against parameters of the corresponding
+     * primitive type, and {@code null} arguments match any parameter of reference type (the most
+     * specific method is invoked).
+     *
+     * Resolved handles are cached per receiver class, name and classes of the arguments. The first
+     * combinations of classes of each name are found by comparing the classes of {@code args} with
+     * the cached ones, without allocating, later ones by a key of the classes. Failed resolutions
+     * are cached as well, except for invocations with {@code null} arguments.
+     *
+     * @param receiver Receiver of the invocation.
+     * @param name     Name of the method.
+     * @param args     Arguments of the invocation.
+     * @return Value returned by the method, or {@code null} for {@code void} methods.
+     * @throws Throwable If the method could not be resolved or the invoked method throws.
+     */
+    public static Object invoke(Object receiver, String name, Object... args) throws Throwable {
+        Class<?> receiverClass = receiver.getClass();
+        Table table = BY_NAME.get(receiverClass);
+        Resolved[] resolved = table.recent.get(name);
+
+        if (resolved != null) {
+            for (Resolved r : resolved) {
+                if (r.matches(args))
+                    return (Object) r.handle.invokeExact(receiver, args);
+            }
+        }
+
+        return (Object) Invokers.resolve(table, receiverClass, name, args).invokeExact(receiver, args);
+    }
+
+    private static MethodHandle resolve(Table table, Class<?> receiverClass, String name, Object[] args) {
+        Class<?>[] argTypes = new Class<?>[args.length];
+        boolean hasNull = false;
+
+        for (int i = 0; i < args.length; i++) {
+            argTypes[i] = args[i] == null ? null : args[i].getClass();
+            hasNull |= args[i] == null;
+        }
+
+        Key key = new Key(name, argTypes);
+        MethodHandle handle = table.all.get(key);
+
+        if (handle != null)
+            return handle;
+
+        if (hasNull) {
+            // Whether a method accepts null depends on all overloads, failures are not cached
+            handle = Invokers.byNameWithNulls(receiverClass, name, argTypes);
+        } else {
+            FAILURES.check(receiverClass, key);
+
+            try {
+                handle = Invokers.byName(receiverClass, name, argTypes);
+            } catch (Throwable t) {
+                throw FAILURES.fail(receiverClass, key, t);
+            }
+        }
+
+        MethodHandle present = table.all.putIfAbsent(key, handle);
+
+        if (present != null)
+            return present;
+
+        Resolved entry = new Resolved(argTypes, handle);
+
+        table.recent.merge(name, new Resolved[]{entry}, (current, added) -> {
+            for (Resolved r : current) {
+                if (Arrays.equals(r.argTypes, argTypes))
+                    return current;
+            }
+
+            if (current.length >= MAX_RECENT)
+                return current;
+
+            Resolved[] merged = Arrays.copyOf(current, current.length + 1);
+            merged[current.length] = entry;
+            return merged;
+        });
+
+        return handle;
+    }
+
+    /**
+     * Creates an invoker of methods named {@code name} with exactly the signature {@code type}.
+     *
+     * @param name Name of the method.
+     * @param type Signature of the method, without the receiver.
+     * @return Invoker of methods named {@code name} with signature {@code type}.
+     */
+    public static Invoker invoker(String name, MethodType type) {
+        return new Invoker(name, type, false);
+    }
+
+    /**
+     * Creates an invoker of methods named {@code name} and return type of {@code type}, resolved
+     * based on the classes of the arguments, like {@link com.github.jonathanxd.koresexperiments.annotation.Dynamic
+     * dynamic} methods of {@link DynamicDispatch}.
+     *
+     * @param name Name of the method.
+     * @param type Signature of the invocation, without the receiver.
+     * @return Invoker of methods named {@code name} resolved based on the classes of the
+     * arguments.
+     */
+    public static Invoker dynamicInvoker(String name, MethodType type) {
+        return new Invoker(name, type, true);
+    }
+
+    /**
+     * Resolves the method invoked by {@link #invoke(Object, String, Object...)}, trying each
+     * return type of the public instance methods with {@code name} and the amount of arguments.
+     *
+     * Like the phases of JLS 15.12.2, methods applicable to the classes of the arguments (or their
+     * super-types) are searched first, and arguments of wrapper classes are only unboxed to match
+     * primitive parameters if there is none, so {@code set(Integer)} is preferred over {@code
+     * set(int)} for an {@link Integer} argument.
+     */
+    private static MethodHandle byName(Class<?> receiverClass, String name, Class<?>[] argTypes) {
+        Set<Class<?>> returnTypes = new LinkedHashSet<>();
+        Class<?>[] resolveTypes = argTypes.clone();
+        boolean unboxes = false;
+
+        for (Method method : receiverClass.getMethods()) {
+            if (!method.getName().equals(name)
+                    || Modifier.isStatic(method.getModifiers())
+                    || method.isBridge()
+                    || method.getParameterCount() != argTypes.length)
+                continue;
+
+            returnTypes.add(method.getReturnType());
+
+            Class<?>[] parameterTypes = method.getParameterTypes();
+
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (parameterTypes[i].isPrimitive()
+                        && MethodType.methodType(argTypes[i]).unwrap().returnType() == parameterTypes[i]) {
+                    resolveTypes[i] = parameterTypes[i];
+                    unboxes = true;
+                }
+            }
+        }
+
+        if (returnTypes.isEmpty())
+            throw RethrowException.rethrow(new NoSuchMethodException("No public instance method '"
+                    + name + "' with " + argTypes.length + " parameters in " + receiverClass + "."));
+
+        Throwable failure = null;
+
+        for (Class<?>[] types : unboxes ? new Class<?>[][]{argTypes, resolveTypes} : new Class<?>[][]{argTypes}) {
+            for (Class<?> returnType : returnTypes) {
+                try {
+                    return Invokers.spread(Invokers.find(receiverClass, name,
+                            MethodType.methodType(returnType, types), types));
+                } catch (Throwable t) {
+                    failure = Invokers.suppress(failure, t);
+                }
+            }
+        }
+
+        throw RethrowException.rethrow(failure);
+    }
+
+    /**
+     * Resolves the method invoked by {@link #invoke(Object, String, Object...)} when some
+     * arguments are {@code null} ({@code null} elements of {@code argTypes}). A {@code null}
+     * argument matches any parameter of reference type, other arguments match parameters of a
+     * super-type of their class (or of the corresponding primitive type). The most specific of the
+     * matching methods is resolved.
+     */
+    private static MethodHandle byNameWithNulls(Class<?> receiverClass, String name, Class<?>[] argTypes) {
+        List<Method> applicable = new ArrayList<>();
+
+        for (Method method : receiverClass.getMethods()) {
+            if (method.getName().equals(name)
+                    && !Modifier.isStatic(method.getModifiers())
+                    && !method.isBridge()
+                    && method.getParameterCount() == argTypes.length
+                    && Invokers.isApplicable(method.getParameterTypes(), argTypes))
+                applicable.add(method);
+        }
+
+        Method mostSpecific = null;
+
+        for (Method method : applicable) {
+            if (applicable.stream().allMatch(other -> Invokers.isApplicable(other.getParameterTypes(),
+                    method.getParameterTypes())))
+                mostSpecific = method;
+        }
+
+        if (mostSpecific == null)
+            throw RethrowException.rethrow(new NoSuchMethodException((applicable.isEmpty()
+                    ? "No public instance method '"
+                    : "Ambiguous public instance method '")
+                    + name + "' for arguments " + Arrays.toString(argTypes) + " in " + receiverClass + "."));
+
+        return Invokers.spread(Invokers.find(receiverClass, name,
+                MethodType.methodType(mostSpecific.getReturnType(), mostSpecific.getParameterTypes()), null));
+    }
+
+    /**
+     * Returns whether arguments of {@code argTypes} ({@code null} elements for {@code null}
+     * arguments) can be passed to parameters of {@code parameterTypes}.
+     */
+    private static boolean isApplicable(Class<?>[] parameterTypes, Class<?>[] argTypes) {
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> parameterType = parameterTypes[i];
+            Class<?> argType = argTypes[i];
+
+            if (argType == null
+                    ? parameterType.isPrimitive()
+                    : !parameterType.isAssignableFrom(argType)
+                    && !(parameterType.isPrimitive()
+                    && MethodType.methodType(argType).unwrap().returnType() == parameterType))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Finds the public instance method {@code name} with signature {@code type} in {@code
+     * receiverClass}, with exact parameter types if {@code argTypes} is {@code null}, or dynamically
+     * resolved from {@code argTypes} otherwise. The returned handle takes the receiver as first
+     * parameter.
+     */
+    static MethodHandle find(Class<?> receiverClass, String name, MethodType type, Class<?>[] argTypes) {
+        Throwable failure = null;
+
+        for (Class<?> searchClass : Invokers.searchClasses(receiverClass)) {
+            try {
+                return argTypes == null
+                        ? LOOKUP.findVirtual(searchClass, name, type)
+                        : DynamicMethodInvoker.searchMethodHandleDynamic(LOOKUP, searchClass, name,
+                        type, InternalUtil.VIRTUAL, argTypes);
+            } catch (Throwable t) {
+                failure = Invokers.suppress(failure, t);
+            }
+        }
+
+        throw RethrowException.rethrow(failure);
+    }
+
+    /**
+     * Adapts {@code handle} to {@code (Object, Object[])Object}.
+     */
+    static MethodHandle spread(MethodHandle handle) {
+        int arguments = handle.type().parameterCount() - 1;
+
+        return handle.asType(MethodType.genericMethodType(arguments + 1))
+                .asSpreader(Object[].class, arguments);
+    }
+
+    /**
+     * Gets the classes in which methods of {@code receiverClass} can be resolved through {@link
+     * MethodHandles#publicLookup()}: the class itself if it is public, otherwise its first public
+     * super class followed by all its public interfaces.
+     */
+    private static List<Class<?>> searchClasses(Class<?> receiverClass) {
+        List<Class<?>> classes = new ArrayList<>();
+        classes.add(InternalUtil.publicClass(receiverClass));
+
+        if (classes.get(0) != receiverClass) {
+            for (Class<?> c = receiverClass; c != null; c = c.getSuperclass()) {
+                Invokers.addInterfaces(classes, c);
+            }
+        }
+
+        return classes;
+    }
+
+    private static void addInterfaces(List<Class<?>> classes, Class<?> type) {
+        for (Class<?> itf : type.getInterfaces()) {
+            if (Modifier.isPublic(itf.getModifiers()) && !classes.contains(itf))
+                classes.add(itf);
+
+            Invokers.addInterfaces(classes, itf);
+        }
+    }
+
+    private static Throwable suppress(Throwable failure, Throwable t) {
+        if (failure == null)
+            return t;
+
+        failure.addSuppressed(t);
+        return failure;
+    }
+
+    /**
+     * Handles resolved for one receiver class: the first combinations of argument classes of each
+     * name, matched without allocating, and all of them by key.
+     */
+    private static final class Table {
+        private final ConcurrentMap<String, Resolved[]> recent = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Key, MethodHandle> all = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Handle resolved for arguments of {@code argTypes} ({@code null} elements for {@code null}
+     * arguments).
+     */
+    private static final class Resolved {
+        private final Class<?>[] argTypes;
+        private final MethodHandle handle;
+
+        Resolved(Class<?>[] argTypes, MethodHandle handle) {
+            this.argTypes = argTypes;
+            this.handle = handle;
+        }
+
+        boolean matches(Object[] args) {
+            if (args.length != this.argTypes.length)
+                return false;
+
+            for (int i = 0; i < args.length; i++) {
+                Object arg = args[i];
+
+                if ((arg == null ? null : arg.getClass()) != this.argTypes[i])
+                    return false;
+            }
+
+            return true;
+        }
+    }
+
+    static final class Key {
+        private final String name;
+        private final Class<?>[] argTypes;
+        private final int hash;
+
+        Key(String name, Class<?>[] argTypes) {
+            this.name = name;
+            this.argTypes = argTypes;
+            this.hash = 31 * name.hashCode() + Arrays.hashCode(argTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+
+            if (!(obj instanceof Key))
+                return false;
+
+            Key other = (Key) obj;
+
+            return this.hash == other.hash
+                    && this.name.equals(other.name)
+                    && Arrays.equals(this.argTypes, other.argTypes);
+        }
+    }
+}
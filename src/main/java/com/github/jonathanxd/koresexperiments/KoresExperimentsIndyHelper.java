@@ -29,28 +29,48 @@ package com.github.jonathanxd.koresexperiments;
 
 import com.github.jonathanxd.iutils.collection.Collections3;
 import com.github.jonathanxd.iutils.exception.RethrowException;
+import com.github.jonathanxd.kores.Instruction;
 import com.github.jonathanxd.kores.Instructions;
 import com.github.jonathanxd.kores.base.ClassDeclaration;
+import com.github.jonathanxd.kores.base.ConstructorDeclaration;
+import com.github.jonathanxd.kores.base.FieldDeclaration;
+import com.github.jonathanxd.kores.base.InvokeType;
 import com.github.jonathanxd.kores.base.KoresModifier;
 import com.github.jonathanxd.kores.base.KoresParameter;
 import com.github.jonathanxd.kores.base.MethodDeclaration;
+import com.github.jonathanxd.kores.base.TypeSpec;
 import com.github.jonathanxd.kores.base.VariableAccess;
 import com.github.jonathanxd.kores.bytecode.BytecodeClass;
 import com.github.jonathanxd.kores.bytecode.classloader.CodeClassLoader;
 import com.github.jonathanxd.kores.common.DynamicMethodSpec;
 import com.github.jonathanxd.kores.factory.DynamicInvocationFactory;
 import com.github.jonathanxd.kores.factory.Factories;
+import com.github.jonathanxd.kores.factory.InvocationFactory;
+import com.github.jonathanxd.kores.factory.PartFactory;
 import com.github.jonathanxd.kores.util.conversion.ConversionsKt;
 import com.github.jonathanxd.koresexperiments.experiment.KoresIndyExperiment;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -77,6 +97,34 @@ import kotlin.collections.CollectionsKt;
  */
 public class KoresExperimentsIndyHelper {
 
+    /**
+     * Constructors of bound receiver views, by receiver class and interface.
+     */
+    private static final ClassValue<ConcurrentMap<Class<?>, MethodHandle>> BOUND_VIEWS =
+            new ClassValue<ConcurrentMap<Class<?>, MethodHandle>>() {
+                @Override
+                protected ConcurrentMap<Class<?>, MethodHandle> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /**
+     * Shared implementation classes, by first interface and (interfaces, experiment) key.
+     */
+    private static final ClassValue<ConcurrentMap<List<Object>, Class<?>>> SHARED_IMPLS =
+            new ClassValue<ConcurrentMap<List<Object>, Class<?>>>() {
+                @Override
+                protected ConcurrentMap<List<Object>, Class<?>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /**
+     * Methods implemented with dynamic invocations, by generated implementation class.
+     */
+    private static final Map<Class<?>, List<Method>> DYNAMIC_METHODS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
     /**
      * Generates a class that implements abstract methods of {@code itf} with dynamic invocations of
      * methods of the receiver object with its arguments. This method uses {@link
@@ -154,14 +202,353 @@ public class KoresExperimentsIndyHelper {
     @SuppressWarnings("unchecked")
     public static <T> T create(List<Class<?>> itfs,
                                Function<Method, KoresIndyExperiment> experimentResolver) {
+        KoresExperimentsIndyHelper.checkInterfaces(itfs);
+
+        return create(itfs, InternalUtil.loopMethods(itfs, m -> {
+        }), experimentResolver);
+    }
+
+    /**
+     * Same as {@link #createFromInterface(Class)}, but all instances created by this method for
+     * {@code itf} share the same implementation class, and thus the same call sites: linking and
+     * profiling state learned through one instance is used by all others, and call sites are only
+     * bootstrapped once per method.
+     *
+     * @param itf Interface to implement.
+     * @param <T> Interface type.
+     * @return Instance of the shared implementation.
+     * @see #createFromInterface(Class)
+     */
+    public static <T> T createSharedFromInterface(Class<T> itf) {
+        return KoresExperimentsIndyHelper.createShared(Collections.singletonList(itf), null);
+    }
+
+    /**
+     * Same as {@link #create(Class, KoresIndyExperiment)}, but all instances created by this method
+     * for {@code itf} and {@code experiment} share the same implementation class, and thus the same
+     * call sites: linking and profiling state learned through one instance is used by all others,
+     * and call sites are only bootstrapped once per method.
+     *
+     * @param itf        Interface to implement.
+     * @param experiment Experiment to use to generate dynamic invocations.
+     * @param <T>        Type of interface.
+     * @return Instance of the shared implementation.
+     * @see #create(Class, KoresIndyExperiment)
+     */
+    public static <T> T createShared(Class<T> itf, KoresIndyExperiment experiment) {
+        return KoresExperimentsIndyHelper.createShared(Collections.singletonList(itf),
+                Objects.requireNonNull(experiment, "experiment"));
+    }
+
+    /**
+     * Same as {@link #create(List, KoresIndyExperiment)}, but all instances created by this method
+     * for {@code itfs} and {@code experiment} share the same implementation class, and thus the
+     * same call sites: linking and profiling state learned through one instance is used by all
+     * others, and call sites are only bootstrapped once per method.
+     *
+     * @param itfs       Interfaces to implement.
+     * @param experiment Experiment to use to generate dynamic invocations, or {@code null} to use
+     *                   the experiments specified by {@link com.github.jonathanxd.koresexperiments.annotation.Experiment}
+     *                   annotations.
+     * @param <T>        Expected interface type, must be in {@code itfs} list, otherwise a class
+     *                   cast exception will be thrown.
+     * @return Instance of the shared implementation.
+     * @see #create(List, KoresIndyExperiment)
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T createShared(List<Class<?>> itfs, KoresIndyExperiment experiment) {
+        KoresExperimentsIndyHelper.checkInterfaces(itfs);
+
+        List<Object> key = new ArrayList<>(itfs);
+        key.add(experiment);
+
+        Class<?> impl = SHARED_IMPLS.get(itfs.get(0)).computeIfAbsent(key, k -> {
+            List<Class<?>> interfaces = new ArrayList<>(itfs);
+            Function<Method, KoresIndyExperiment> experimentResolver = experiment != null
+                    ? ignored -> experiment
+                    : Util::getExperiment;
+
+            return KoresExperimentsIndyHelper.define(interfaces, InternalUtil.loopMethods(interfaces, m -> {
+            }), experimentResolver);
+        });
+
+        return (T) KoresExperimentsIndyHelper.newInstance(impl);
+    }
+
+    private static void checkInterfaces(List<Class<?>> itfs) {
         if (itfs.isEmpty())
             throw new IllegalArgumentException("No interface provided: " + itfs + "!");
         if (CollectionsKt.any(itfs, i -> !i.isInterface()))
             throw new IllegalArgumentException("All input classes for 'itfs' must be interface." +
                     " Inputs: " + itfs + ".");
+    }
 
-        return create(itfs, InternalUtil.loopMethods(itfs, m -> {
-        }), experimentResolver);
+    /**
+     * Creates a view of {@code receiver} that implements {@code itf}. Differently from other
+     * implementations, methods of {@code itf} do not receive the receiver as first argument, the
+     * receiver is held by the view and all methods of {@code itf} invoke the method of {@code
+     * receiver} with same name and parameter types.
+     *
+     * Invocations are {@link DirectLink linked once} to the methods of the receiver class (or of
+     * the public superclass or interface that declares them, if it is not public), and view
+     * classes are cached by receiver class, so views are cheap to create and invocations through
+     * them are as fast as direct invocations.
+     *
+     * Example of a valid interface for a {@code Person} receiver:
+     *
+     * <pre>
+     * {@code
+     * public interface Named {
+     *     String getName();
+     * }
+     * }
+     * </pre>
+     *
+     * @param receiver Receiver of invocations.
+     * @param itf      Interface to implement.
+     * @param <T>      Interface type.
+     * @return View of {@code receiver} that implements {@code itf}.
+     */
+    public static <T> T bind(Object receiver, Class<T> itf) {
+        Objects.requireNonNull(receiver, "receiver");
+
+        if (!itf.isInterface())
+            throw new IllegalArgumentException("Input class for 'itf' must be interface. Input: " + itf + ".");
+
+        MethodHandle constructor = BOUND_VIEWS.get(receiver.getClass())
+                .computeIfAbsent(itf, i -> createBoundView(receiver.getClass(), i));
+
+        try {
+            return itf.cast((Object) constructor.invokeExact(receiver));
+        } catch (Throwable t) {
+            throw RethrowException.rethrow(t);
+        }
+    }
+
+    /**
+     * Links all dynamic invocations of {@code instance}, an implementation generated by {@code
+     * create} methods, before it is used, so the first invocations do not pay the cost of
+     * bootstrapping call sites and generating classes.
+     *
+     * Every call site is bootstrapped, and call sites which cache targets by receiver class
+     * ({@link DynamicDispatch}, {@link LateBinding}, {@link MultipleDispatch}, {@link
+     * PropertyAccess}, {@link LambdaStubDispatch} and {@link BulkDispatch}) are seeded with the
+     * targets of {@code expectedReceiverTypes} that are assignable to the receiver parameter. {@link
+     * com.github.jonathanxd.koresexperiments.annotation.Dynamic Dynamic} methods are seeded for
+     * arguments of the declared parameter types. Receiver types which do not have a method are
+     * ignored.
+     *
+     * Methods are prelinked by invoking them with a {@code null} receiver and default arguments,
+     * methods of the receivers are never invoked. Prelinking an already linked implementation only
+     * seeds the expected receiver types.
+     *
+     * @param instance              Implementation generated by {@code create} methods.
+     * @param expectedReceiverTypes Receiver types to seed call sites with.
+     * @return Nanoseconds taken to link each method implemented with a dynamic invocation.
+     * @throws IllegalArgumentException If {@code instance} was not generated by {@code create}
+     *                                  methods.
+     * @throws IllegalStateException    If a call site fails to bootstrap or to be seeded for a
+     *                                  reason other than a missing method (after all methods are
+     *                                  prelinked), failures are suppressed exceptions of the thrown
+     *                                  exception.
+     */
+    public static Map<Method, Long> prelink(Object instance, Class<?>... expectedReceiverTypes) {
+        List<Method> methods = DYNAMIC_METHODS.get(instance.getClass());
+
+        if (methods == null)
+            throw new IllegalArgumentException("Instance '" + instance + "' was not created by KoresExperimentsIndyHelper.");
+
+        Map<Method, Long> linkTimes = new LinkedHashMap<>();
+        List<Throwable> failures = new ArrayList<>();
+
+        for (Method method : methods) {
+            linkTimes.put(method, KoresExperimentsIndyHelper.prelink(instance, method, expectedReceiverTypes, failures));
+        }
+
+        KoresExperimentsIndyHelper.checkPrelink(instance.getClass(), failures);
+
+        return linkTimes;
+    }
+
+    /**
+     * Signals {@code failures} of the prelink of {@code impl}, does nothing if there are no
+     * failures.
+     *
+     * @throws IllegalStateException If there are failures, with the failures as suppressed
+     *                               exceptions.
+     */
+    static void checkPrelink(Class<?> impl, List<Throwable> failures) {
+        if (failures.isEmpty())
+            return;
+
+        IllegalStateException exception = new IllegalStateException("Failed to prelink " + failures.size()
+                + " call sites of '" + impl + "'.");
+        failures.forEach(exception::addSuppressed);
+        throw exception;
+    }
+
+    /**
+     * Prelinks {@code method} of {@code instance}, see {@link #prelink(Object, Class[])}. Unexpected
+     * failures are added to {@code failures}.
+     *
+     * @return Nanoseconds taken to link {@code method}.
+     */
+    static long prelink(Object instance, Method method, Class<?>[] expectedReceiverTypes, List<Throwable> failures) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Object[] args = new Object[parameterTypes.length];
+        Class<?>[] receiverTypes = Arrays.stream(expectedReceiverTypes)
+                .filter(parameterTypes[0]::isAssignableFrom)
+                .toArray(Class<?>[]::new);
+
+        for (int i = 1; i < parameterTypes.length; i++) {
+            if (parameterTypes[i].isPrimitive())
+                args[i] = Array.get(Array.newInstance(parameterTypes[i], 1), 0);
+        }
+
+        long start = System.nanoTime();
+
+        Prelink.Result result = Prelink.run(receiverTypes, () -> {
+            try {
+                method.invoke(instance, args);
+            } catch (InvocationTargetException e) {
+                throw RethrowException.rethrow(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw RethrowException.rethrow(e);
+            }
+        });
+        long nanos = System.nanoTime() - start;
+
+        failures.addAll(result.getFailures());
+
+        return nanos;
+    }
+
+    /**
+     * Generates the class of bound views of receivers of {@code receiverClass} implementing {@code
+     * itf}.
+     *
+     * @param receiverClass Class of the receiver.
+     * @param itf           Interface to implement.
+     * @return Constructor of the view, adapted to receive an {@link Object} and return an {@link
+     * Object}.
+     */
+    private static MethodHandle createBoundView(Class<?> receiverClass, Class<?> itf) {
+        Class<?> fieldType = InternalUtil.publicClass(receiverClass);
+        ClassLoader loader = receiverClass.getClassLoader() != null
+                && InternalUtil.isVisible(itf, receiverClass.getClassLoader())
+                ? receiverClass.getClassLoader()
+                : itf.getClassLoader();
+
+        List<Class<?>> itfs = Collections.singletonList(itf);
+        Set<Method> methods = InternalUtil.loopMethods(itfs, m -> {
+        });
+        List<Class<?>> types = new ArrayList<>();
+
+        types.add(itf);
+        types.add(fieldType);
+
+        for (Method method : methods) {
+            types.add(KoresExperimentsIndyHelper.boundReceiverType(receiverClass, fieldType, method));
+        }
+
+        for (Class<?> type : types) {
+            if (!InternalUtil.isVisible(type, loader))
+                throw new IllegalArgumentException("Receiver type '" + type + "' and interface '" + itf
+                        + "' must be visible from the same class loader.");
+        }
+
+        String name = InternalUtil.createGenClassName("bound", "View");
+
+        ClassDeclaration declaration = ClassDeclaration.Builder.builder()
+                .modifiers(KoresModifier.PUBLIC, KoresModifier.FINAL)
+                .specifiedName(name)
+                .implementations(new ArrayList<>(itfs))
+                .fields(FieldDeclaration.Builder.builder()
+                        .modifiers(KoresModifier.PRIVATE, KoresModifier.FINAL)
+                        .type(fieldType)
+                        .name("receiver")
+                        .build())
+                .constructors(ConstructorDeclaration.Builder.builder()
+                        .modifiers(KoresModifier.PUBLIC)
+                        .parameters(PartFactory.koresParameter().type(fieldType).name("receiver").build())
+                        .body(Instructions.fromPart(Factories.setThisFieldValue(fieldType, "receiver",
+                                Factories.accessVariable(fieldType, "receiver"))))
+                        .build())
+                .methods(methods.stream()
+                        .map(it -> boundImpl(it, fieldType, boundReceiverType(receiverClass, fieldType, it)))
+                        .collect(Collectors.toList()))
+                .build();
+
+        List<BytecodeClass> process = InternalUtil.process(declaration, "bound");
+
+        try {
+            Class<?> view = ClassDefiner.define(process, () -> new CodeClassLoader(loader),
+                    types.toArray(new Class<?>[0]));
+            return MethodHandles.publicLookup()
+                    .findConstructor(view, MethodType.methodType(Void.TYPE, fieldType))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (Exception e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
+    /**
+     * Gets the type of the receiver of {@code m} invocations in a bound view: the public type which
+     * declares the method of {@code receiverClass} overridden by {@code m}, which may be an
+     * interface if {@code receiverClass} is not public. If there is no such method, {@code
+     * fieldType} is returned and the invocation fails when it is linked.
+     *
+     * @param receiverClass Class of the receiver.
+     * @param fieldType     Type of the receiver field.
+     * @param m             Method of the view.
+     * @return Type of the receiver of {@code m} invocations.
+     */
+    private static Class<?> boundReceiverType(Class<?> receiverClass, Class<?> fieldType, Method m) {
+        Method accessible = InternalUtil.accessibleMethod(receiverClass, m);
+
+        return accessible != null ? accessible.getDeclaringClass() : fieldType;
+    }
+
+    /**
+     * Implements {@code m} in a bound view with dynamic invocation to {@link DirectLink} bootstrap,
+     * passing the bound receiver as the first argument.
+     *
+     * @param m            Method to implement.
+     * @param fieldType    Type of the receiver field.
+     * @param receiverType Type of the receiver of the invocation, the field is cast to this type if
+     *                     it is not the field type.
+     * @return Implementation of {@code m}.
+     */
+    private static MethodDeclaration boundImpl(Method m, Class<?> fieldType, Class<?> receiverType) {
+        MethodDeclaration methodDeclaration = ConversionsKt.toMethodDeclaration(m);
+
+        Type rType = methodDeclaration.getReturnType();
+        List<Type> pTypes = new ArrayList<>();
+        List<Instruction> arguments = new ArrayList<>();
+        Instruction receiver = Factories.accessThisField(fieldType, "receiver");
+
+        pTypes.add(receiverType);
+        arguments.add(receiverType == fieldType ? receiver : Factories.cast(fieldType, receiverType, receiver));
+
+        for (KoresParameter parameter : methodDeclaration.getParameters()) {
+            pTypes.add(parameter.getType());
+            arguments.add(Factories.accessVariable(parameter.getType(), parameter.getName()));
+        }
+
+        return methodDeclaration
+                .builder()
+                .body(Instructions.fromPart(Factories.returnValue(rType,
+                        DynamicInvocationFactory.invokeDynamic(
+                                DirectLink.BOOTSTRAP_SPEC,
+                                new DynamicMethodSpec(
+                                        methodDeclaration.getName(),
+                                        Factories.typeSpec(rType, pTypes),
+                                        arguments
+                                ),
+                                Collections.emptyList()
+                        )))
+                )
+                .build();
     }
 
     /**
@@ -184,14 +571,36 @@ public class KoresExperimentsIndyHelper {
     private static <T> T create(List<Class<?>> itfs,
                                 Collection<? extends Method> methodsToImplement,
                                 Function<Method, KoresIndyExperiment> experimentResolver) {
+        return (T) KoresExperimentsIndyHelper.newInstance(
+                KoresExperimentsIndyHelper.define(itfs, methodsToImplement, experimentResolver));
+    }
+
+    /**
+     * Generates and defines the class that implements {@code methodsToImplement}, see {@link
+     * #create(List, Collection, Function)}.
+     *
+     * @return Implementation class.
+     */
+    private static Class<?> define(List<Class<?>> itfs,
+                                   Collection<? extends Method> methodsToImplement,
+                                   Function<Method, KoresIndyExperiment> experimentResolver) {
+        List<Method> dynamicMethods = new ArrayList<>();
         ClassDeclaration declaration = KoresExperimentsIndyHelper
-                .createClass(itfs, methodsToImplement, experimentResolver);
-        List<BytecodeClass> process = InternalUtil.getThreadBytecodeGenerator()
-                .process(declaration);
-        Debug.save(process, "indy_helper");
-        CodeClassLoader loader = new CodeClassLoader(itfs.get(0).getClassLoader());
+                .createClass(itfs, methodsToImplement, experimentResolver, dynamicMethods);
+        List<BytecodeClass> process = InternalUtil.process(declaration, "indy_helper");
+        Class<?> impl = ClassDefiner.define(process,
+                () -> new CodeClassLoader(itfs.get(0).getClassLoader()),
+                itfs.toArray(new Class<?>[0]));
+
+        DYNAMIC_METHODS.put(impl, Collections.unmodifiableList(dynamicMethods));
+        DispatchProfile.prelink(impl, dynamicMethods, experimentResolver);
+
+        return impl;
+    }
+
+    static Object newInstance(Class<?> impl) {
         try {
-            return (T) loader.define(process).getConstructors()[0].newInstance();
+            return impl.getConstructors()[0].newInstance();
         } catch (Exception e) {
             throw RethrowException.rethrow(e);
         }
@@ -204,17 +613,19 @@ public class KoresExperimentsIndyHelper {
      * @param methods            Methods to implement.
      * @param experimentResolver Resolver of experiments to get the bootstrap to use in dynamic
      *                           invocation.
+     * @param dynamicMethods     List to add methods implemented with dynamic invocations to.
      * @return Class declaration of the implementation.
      */
     private static ClassDeclaration createClass(List<Class<?>> interfaces,
                                                 Collection<? extends Method> methods,
-                                                Function<Method, KoresIndyExperiment> experimentResolver) {
+                                                Function<Method, KoresIndyExperiment> experimentResolver,
+                                                List<Method> dynamicMethods) {
         final String name = InternalUtil.createGenClassName("indy_helper", "Impl");
         return ClassDeclaration.Builder.builder()
                 .modifiers(KoresModifier.PUBLIC)
                 .specifiedName(name)
                 .implementations(new ArrayList<>(interfaces))
-                .methods(methods.stream().map(it -> impl(it, experimentResolver.apply(it)))
+                .methods(methods.stream().map(it -> impl(it, experimentResolver.apply(it), dynamicMethods))
                         .collect(Collectors.toList()))
                 .build();
     }
@@ -223,11 +634,20 @@ public class KoresExperimentsIndyHelper {
      * Implements the {@code m} and generate the body with dynamic invocation to bootstrap of {@code
      * experiment}.
      *
-     * @param m          Method to implement.
-     * @param experiment Experiment to use to get the bootstrap to invoke.
+     * @param m              Method to implement.
+     * @param experiment     Experiment to use to get the bootstrap to invoke.
+     * @param dynamicMethods List to add {@code m} to if it is implemented with a dynamic
+     *                       invocation.
      * @return Implementation of {@code m}.
      */
-    private static MethodDeclaration impl(Method m, KoresIndyExperiment experiment) {
+    private static MethodDeclaration impl(Method m, KoresIndyExperiment experiment, List<Method> dynamicMethods) {
+        MethodDeclaration direct = KoresExperimentsIndyHelper.directImpl(m, experiment.getDirectLinkType(m));
+
+        if (direct != null)
+            return direct;
+
+        dynamicMethods.add(m);
+
         List<Object> args = new ArrayList<>();
         experiment.handle(m, args);
 
@@ -257,4 +677,70 @@ public class KoresExperimentsIndyHelper {
                 .build();
     }
 
+    /**
+     * Implements the {@code m} with a direct invocation ({@code invokevirtual} or {@code
+     * invokestatic}) of the method with same name, parameter types and return type of the
+     * declared receiver type, if the receiver type is final.
+     *
+     * @param m        Method to implement.
+     * @param linkType How the experiment allows {@code m} to be directly linked, see {@link
+     *                 KoresIndyExperiment#getDirectLinkType(Method)}.
+     * @return Implementation of {@code m}, or {@code null} if it must be dynamically linked.
+     */
+    private static MethodDeclaration directImpl(Method m, InvokeType linkType) {
+        if (linkType == null || m.getParameterCount() == 0)
+            return null;
+
+        Class<?>[] parameterTypes = m.getParameterTypes();
+        Class<?> receiverType = parameterTypes[0];
+
+        // Only final receiver types have a single possible receiver class, so linking directly
+        // can not skip an override or overload the experiment would have resolved at run-time.
+        if (receiverType.isPrimitive()
+                || receiverType.isArray()
+                || !Modifier.isPublic(receiverType.getModifiers())
+                || !Modifier.isFinal(receiverType.getModifiers()))
+            return null;
+
+        Method target;
+
+        try {
+            target = receiverType.getMethod(m.getName(), Arrays.copyOfRange(parameterTypes, 1, parameterTypes.length));
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+
+        boolean isStatic = Modifier.isStatic(target.getModifiers());
+
+        if (isStatic != (linkType == InvokeType.INVOKE_STATIC))
+            return null;
+
+        Class<?> rType = m.getReturnType();
+        Class<?> tType = target.getReturnType();
+
+        if (rType != tType)
+            return null;
+
+        MethodDeclaration methodDeclaration = ConversionsKt.toMethodDeclaration(m);
+        List<KoresParameter> parameters = methodDeclaration.getParameters();
+        List<Instruction> arguments = new ArrayList<>();
+
+        for (KoresParameter parameter : parameters.subList(1, parameters.size())) {
+            arguments.add(Factories.accessVariable(parameter.getType(), parameter.getName()));
+        }
+
+        VariableAccess receiverAccess = Factories.accessVariable(receiverType, parameters.get(0).getName());
+        TypeSpec spec = Factories.typeSpec(tType, target.getParameterTypes());
+        Instruction invocation;
+
+        if (isStatic)
+            invocation = InvocationFactory.invokeStatic(receiverType, target.getName(), spec, arguments);
+        else
+            invocation = InvocationFactory.invokeVirtual(receiverType, receiverAccess, target.getName(), spec, arguments);
+
+        return methodDeclaration
+                .builder()
+                .body(Instructions.fromPart(Factories.returnValue(rType, invocation)))
+                .build();
+    }
 }
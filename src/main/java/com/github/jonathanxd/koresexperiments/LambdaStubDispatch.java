@@ -0,0 +1,117 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.iutils.annotation.Singleton;
+import com.github.jonathanxd.kores.base.InvokeType;
+import com.github.jonathanxd.kores.common.MethodInvokeSpec;
+import com.github.jonathanxd.kores.common.MethodTypeSpec;
+import com.github.jonathanxd.kores.factory.Factories;
+import com.github.jonathanxd.koresexperiments.annotation.internal.AccessedAtRuntime;
+import com.github.jonathanxd.koresexperiments.experiment.KoresIndyExperiment;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Dispatches invocations to the method of the receiver class through direct-call stubs spun with
+ * {@link LambdaMetafactory} (see {@link LambdaStubs}), one per receiver class, instead of binding
+ * a new {@link MethodHandle} to every receiver.
+ *
+ * Stubs are cached per receiver class and the call site caches the stubs of the receiver classes
+ * it has seen, up to {@link #MAX_DEPTH} receiver classes, so each stub is invoked through a
+ * constant, monomorphic {@code invokeinterface} that the JIT can inline.
+ *
+ * Only public instance methods with exactly the parameter types of the call site are linked, like
+ * {@link DynamicDispatch} without {@link com.github.jonathanxd.koresexperiments.annotation.Dynamic}.
+ */
+@Singleton("EXPERIMENT")
+public class LambdaStubDispatch implements KoresIndyExperiment {
+    public static final LambdaStubDispatch EXPERIMENT = new LambdaStubDispatch();
+    public static final MethodInvokeSpec BOOTSTRAP_SPEC = new MethodInvokeSpec(
+            InvokeType.INVOKE_STATIC,
+            new MethodTypeSpec(
+                    LambdaStubDispatch.class,
+                    "bind",
+                    Factories.typeSpec(CallSite.class,
+                            MethodHandles.Lookup.class,
+                            String.class,
+                            MethodType.class
+                    )
+            )
+    );
+
+    /**
+     * Max amount of receiver classes cached by a call site before it becomes megamorphic.
+     */
+    public static final int MAX_DEPTH = 4;
+
+    private LambdaStubDispatch() {
+    }
+
+    @AccessedAtRuntime
+    public static CallSite bind(MethodHandles.Lookup caller,
+                                String name,
+                                MethodType type) {
+        KoresMetrics.recordBootstrap(EXPERIMENT.getName());
+
+        return new StubCallSite(name, type);
+    }
+
+    @Override
+    public MethodInvokeSpec getBootstrapMethod() {
+        return BOOTSTRAP_SPEC;
+    }
+
+    @Override
+    public String getName() {
+        return "LambdaStubDispatch";
+    }
+
+    @Override
+    public InvokeType getDirectLinkType(Method m) {
+        return InvokeType.INVOKE_VIRTUAL;
+    }
+
+    static final class StubCallSite extends InlineCacheCallSite {
+
+        StubCallSite(String name, MethodType type) {
+            super(EXPERIMENT.getName(), name, type, MAX_DEPTH);
+        }
+
+        @Override
+        MethodHandle resolve(Class<?> receiverClass) {
+            return LambdaStubs.get(receiverClass, this.getName(), this.type());
+        }
+    }
+}
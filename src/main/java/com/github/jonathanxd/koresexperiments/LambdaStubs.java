@@ -0,0 +1,295 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.iutils.exception.RethrowException;
+import com.github.jonathanxd.kores.Instructions;
+import com.github.jonathanxd.kores.base.ClassDeclaration;
+import com.github.jonathanxd.kores.base.InterfaceDeclaration;
+import com.github.jonathanxd.kores.base.KoresModifier;
+import com.github.jonathanxd.kores.base.KoresParameter;
+import com.github.jonathanxd.kores.base.MethodDeclaration;
+import com.github.jonathanxd.kores.bytecode.classloader.CodeClassLoader;
+import com.github.jonathanxd.kores.factory.Factories;
+import com.github.jonathanxd.kores.factory.InvocationFactory;
+import com.github.jonathanxd.kores.factory.PartFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Spins and caches direct-call stubs used by {@link LambdaStubDispatch}.
+ *
+ * A stub is an instance of a functional interface generated for the call site signature (with the
+ * receiver erased to {@link Object}), implemented through {@link LambdaMetafactory} by the target
+ * method of the receiver class, for example, for a {@code String getName(Object receiver)} call
+ * site and a {@code Person} receiver:
+ *
+ * <pre>
+ *     {@code
+ *     public interface Stub { String invoke(Object receiver); }
+ *     Stub stub = (Object receiver) -> ((Person) receiver).getName();
+ *     }
+ * </pre>
+ *
+ * The functional interface is generated in a class loader child of the receiver class loader,
+ * together with a holder class that provides the {@link MethodHandles.Lookup} used to spin the
+ * lambda, so the stub can see both the interface and the receiver class. The holder is generated
+ * once per receiver class loader and the functional interface once per receiver class loader and
+ * signature, only the lambda is spun for each receiver class.
+ */
+final class LambdaStubs {
+
+    private static final String SAM_NAME = "invoke";
+
+    private static final ClassValue<ConcurrentMap<Key, MethodHandle>> STUBS =
+            new ClassValue<ConcurrentMap<Key, MethodHandle>>() {
+                @Override
+                protected ConcurrentMap<Key, MethodHandle> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+    private static final ResolutionFailures FAILURES = new ResolutionFailures();
+
+    /**
+     * Lookup holder classes, per receiver class loader. Holders are weakly referenced, they are
+     * kept alive by the stubs spun through their lookup.
+     */
+    private static final Map<ClassLoader, WeakReference<Class<?>>> HOLDERS = new WeakHashMap<>();
+
+    /**
+     * Functional interfaces defined along with each holder, released together with it.
+     */
+    private static final ClassValue<Holder> INTERFACES = new ClassValue<Holder>() {
+        @Override
+        protected Holder computeValue(Class<?> type) {
+            return new Holder(type);
+        }
+    };
+
+    private LambdaStubs() {
+    }
+
+    /**
+     * Gets a handle which invokes the stub of method {@code name} of {@code receiverClass} for
+     * call sites of {@code type}, spinning the stub if it was not spun yet.
+     *
+     * @param receiverClass Class of the receiver.
+     * @param name          Name of the method.
+     * @param type          Type of the call site (receiver is the first parameter).
+     * @return Handle that invokes the stub, adapted to {@code type}.
+     */
+    static MethodHandle get(Class<?> receiverClass, String name, MethodType type) {
+        ConcurrentMap<Key, MethodHandle> stubs = STUBS.get(receiverClass);
+        Key key = new Key(name, type);
+        MethodHandle stub = stubs.get(key);
+
+        if (stub == null) {
+            FAILURES.check(receiverClass, key);
+
+            try {
+                stub = stubs.computeIfAbsent(key, k -> LambdaStubs.spin(receiverClass, name, type));
+            } catch (Throwable t) {
+                throw FAILURES.fail(receiverClass, key, t);
+            }
+        }
+
+        return stub;
+    }
+
+    private static MethodHandle spin(Class<?> receiverClass, String name, MethodType type) {
+        MethodType samType = type.changeParameterType(0, Object.class);
+
+        try {
+            Method method = receiverClass.getMethod(name, samType.dropParameterTypes(0, 1).parameterArray());
+            Method accessible = InternalUtil.accessibleMethod(receiverClass, method);
+
+            if (accessible == null || Modifier.isStatic(accessible.getModifiers()))
+                throw new NoSuchMethodException("No accessible instance method '" + name + samType
+                        + "' in " + receiverClass + ".");
+
+            ClassLoader parent = receiverClass.getClassLoader() != null
+                    ? receiverClass.getClassLoader()
+                    : LambdaStubs.class.getClassLoader();
+            Holder holder = INTERFACES.get(LambdaStubs.holder(parent));
+            Sam sam = holder.getSam(samType);
+            MethodHandle impl = holder.lookup.unreflect(accessible);
+
+            CallSite metafactory = LambdaMetafactory.metafactory(
+                    holder.lookup,
+                    SAM_NAME,
+                    MethodType.methodType(sam.itf),
+                    samType,
+                    impl,
+                    samType.changeParameterType(0, accessible.getDeclaringClass())
+            );
+
+            Object stub = metafactory.getTarget().invoke();
+
+            return sam.invoker
+                    .bindTo(stub)
+                    .asType(type);
+        } catch (Throwable t) {
+            throw RethrowException.rethrow(t);
+        }
+    }
+
+    private static Class<?> holder(ClassLoader parent) {
+        synchronized (HOLDERS) {
+            WeakReference<Class<?>> reference = HOLDERS.get(parent);
+            Class<?> holder = reference != null ? reference.get() : null;
+
+            if (holder == null) {
+                holder = new CodeClassLoader(parent).define(InternalUtil.process(LambdaStubs.createHolder(),
+                        LambdaStubDispatch.EXPERIMENT.getName()));
+                HOLDERS.put(parent, new WeakReference<>(holder));
+            }
+
+            return holder;
+        }
+    }
+
+    private static InterfaceDeclaration createInterface(MethodType samType) {
+        List<KoresParameter> parameters = new ArrayList<>();
+
+        for (int i = 0; i < samType.parameterCount(); i++) {
+            parameters.add(PartFactory.koresParameter().type(samType.parameterType(i)).name("arg" + i).build());
+        }
+
+        return InterfaceDeclaration.Builder.builder()
+                .publicModifier()
+                .specifiedName(InternalUtil.createGenClassName(LambdaStubDispatch.EXPERIMENT.getName(), "Stub"))
+                .methods(MethodDeclaration.Builder.builder()
+                        .modifiers(KoresModifier.PUBLIC, KoresModifier.ABSTRACT)
+                        .returnType(samType.returnType())
+                        .parameters(parameters)
+                        .name(SAM_NAME)
+                        .build())
+                .build();
+    }
+
+    private static ClassDeclaration createHolder() {
+        return ClassDeclaration.Builder.builder()
+                .modifiers(KoresModifier.PUBLIC, KoresModifier.FINAL)
+                .specifiedName(InternalUtil.createGenClassName(LambdaStubDispatch.EXPERIMENT.getName(), "StubLookup"))
+                .methods(MethodDeclaration.Builder.builder()
+                        .modifiers(KoresModifier.PUBLIC, KoresModifier.STATIC)
+                        .returnType(MethodHandles.Lookup.class)
+                        .name("lookup")
+                        .body(Instructions.fromPart(Factories.returnValue(MethodHandles.Lookup.class,
+                                InvocationFactory.invokeStatic(MethodHandles.class, "lookup",
+                                        Factories.typeSpec(MethodHandles.Lookup.class),
+                                        Collections.emptyList()))))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Lookup of a holder class and the functional interfaces defined in the loader of the holder,
+     * per signature.
+     */
+    private static final class Holder {
+        private final CodeClassLoader loader;
+        private final MethodHandles.Lookup lookup;
+        private final ConcurrentMap<MethodType, Sam> sams = new ConcurrentHashMap<>();
+
+        Holder(Class<?> holder) {
+            this.loader = (CodeClassLoader) holder.getClassLoader();
+
+            try {
+                this.lookup = (MethodHandles.Lookup) holder.getMethod("lookup").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw RethrowException.rethrow(e);
+            }
+        }
+
+        Sam getSam(MethodType samType) {
+            return this.sams.computeIfAbsent(samType, this::createSam);
+        }
+
+        private Sam createSam(MethodType samType) {
+            Class<?> itf = this.loader.define(InternalUtil.process(LambdaStubs.createInterface(samType),
+                    LambdaStubDispatch.EXPERIMENT.getName()));
+
+            try {
+                return new Sam(itf, this.lookup.findVirtual(itf, SAM_NAME, samType));
+            } catch (ReflectiveOperationException e) {
+                throw RethrowException.rethrow(e);
+            }
+        }
+    }
+
+    /**
+     * Functional interface of a signature and the handle that invokes its single method.
+     */
+    private static final class Sam {
+        private final Class<?> itf;
+        private final MethodHandle invoker;
+
+        Sam(Class<?> itf, MethodHandle invoker) {
+            this.itf = itf;
+            this.invoker = invoker;
+        }
+    }
+
+    private static final class Key {
+        private final String name;
+        private final MethodType type;
+
+        Key(String name, MethodType type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.name, this.type);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key
+                    && ((Key) obj).name.equals(this.name)
+                    && ((Key) obj).type.equals(this.type);
+        }
+    }
+}
@@ -32,6 +32,12 @@ import com.github.jonathanxd.kores.common.MethodInvokeSpec;
 import com.github.jonathanxd.kores.common.MethodTypeSpec;
 import com.github.jonathanxd.kores.factory.Factories;
 import com.github.jonathanxd.koresexperiments.experiment.KoresIndyExperiment;
+import com.github.jonathanxd.koresexperiments.jfr.KoresEvents;
+import com.github.jonathanxd.koresexperiments.jfr.RelinkEvent;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteEntry;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteProfiler;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteRegistry;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
 import com.github.jonathanxd.iutils.annotation.Singleton;
 import com.github.jonathanxd.iutils.exception.RethrowException;
 
@@ -40,12 +46,14 @@ import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.invoke.MutableCallSite;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 /**
  * Late binding of a {@code method invocation} to a method resolved statically (we will talk about
  * it soon).
  *
- * The first invocation of the method will be bind to {@link #bind(LazyCallSite, Object[]) bind
+ * The first invocation of the method will be bind to {@link #bind(LazyCallSite, Object) bind
  * fallback}, this method will resolve the target of invocation statically, in other words, based on
  * {@code returnType} and {@code parameterTypes} provided to bootstrap, after resolution of the
  * {@link MethodHandle} that matches the {@link MethodType} provided to bootstrap, the {@link
@@ -85,7 +93,7 @@ public class LateBinding implements KoresIndyExperiment {
             BIND_METHOD = LOOKUP.findStatic(
                     LateBinding.class,
                     "bind",
-                    MethodType.methodType(Object.class, LazyCallSite.class, Object[].class));
+                    MethodType.methodType(MethodHandle.class, LazyCallSite.class, Object.class));
         } catch (NoSuchMethodException | IllegalAccessException e) {
             throw RethrowException.rethrow(e);
         }
@@ -98,32 +106,62 @@ public class LateBinding implements KoresIndyExperiment {
                                    String name,
                                    MethodType type) {
 
+        KoresMetrics.recordBootstrap(EXPERIMENT.getName());
         LazyCallSite lazyCallSite = new LazyCallSite(type, caller, name);
 
-        MethodHandle handle = BIND_METHOD.bindTo(lazyCallSite).asCollector(Object[].class, type.parameterCount()).asType(type);
+        // Selects the target from the receiver only, so the arguments are never collected,
+        // whatever the arity of the method is.
+        MethodHandle select = BIND_METHOD.bindTo(lazyCallSite)
+                .asType(MethodType.methodType(MethodHandle.class, type.parameterType(0)));
+        MethodHandle handle = MethodHandles.foldArguments(MethodHandles.exactInvoker(type), select);
 
         lazyCallSite.setTarget(handle);
+        lazyCallSite.setEntry(CallSiteRegistry.register(EXPERIMENT.getName(), name, type, lazyCallSite, "unlinked"));
 
         return lazyCallSite;
     }
 
-    private static Object bind(LazyCallSite callSite, Object[] args) {
+    private static MethodHandle bind(LazyCallSite callSite, Object receiver) {
+        if (receiver == null)
+            Prelink.seedFirst(type -> LateBinding.link(callSite, type));
+
         try {
-            MethodHandles.Lookup caller = callSite.getCallerLookup();
-            String name = callSite.getName();
+            return LateBinding.link(callSite, receiver.getClass());
+        } catch (Throwable e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
 
-            Object instance = args[0];
-            Class<?> instanceClass = instance.getClass();
-            MethodType type = callSite.getTarget().type().dropParameterTypes(0, 1);
+    /**
+     * Links {@code callSite} to the method of {@code instanceClass}. Varargs methods are resolved
+     * as described in {@link Varargs}.
+     *
+     * @return Target of the call site.
+     */
+    private static MethodHandle link(LazyCallSite callSite, Class<?> instanceClass) throws Throwable {
+        RelinkEvent event = KoresEvents.beginRelink();
 
-            MethodHandle resolved = caller.findVirtual(instanceClass, name, type);
+        MethodHandles.Lookup caller = callSite.getCallerLookup();
+        String name = callSite.getName();
+        MethodType type = callSite.type().dropParameterTypes(0, 1);
 
-            callSite.setTarget(resolved.asType(callSite.getTarget().type()));
+        MethodHandle resolved = Varargs.findVirtual(caller, instanceClass, name, type);
 
-            return resolved.invokeWithArguments(args);
-        } catch (Throwable e) {
-            throw RethrowException.rethrow(e);
+        MethodHandle target = resolved.asType(callSite.type());
+
+        if (callSite.getEntry() != null) {
+            callSite.getEntry().setTarget(target);
+            callSite.getEntry().setState("linked to " + instanceClass.getName());
+        } else {
+            callSite.setTarget(target);
         }
+
+        KoresMetrics.recordRelink();
+        CallSiteProfiler.recordSlowPath();
+
+        KoresEvents.endRelink(event, name, type, instanceClass);
+
+        return target;
     }
 
     @Override
@@ -136,10 +174,19 @@ public class LateBinding implements KoresIndyExperiment {
         return "LateBinding";
     }
 
+    @Override
+    public InvokeType getDirectLinkType(Method m) {
+        // Only one receiver class is possible, so there is nothing to bind late.
+        return m.getParameterCount() > 0 && Modifier.isFinal(m.getParameterTypes()[0].getModifiers())
+                ? InvokeType.INVOKE_VIRTUAL
+                : null;
+    }
+
     static class LazyCallSite extends MutableCallSite {
 
         private final MethodHandles.Lookup callerLookup;
         private final String name;
+        private CallSiteEntry entry;
 
         public LazyCallSite(MethodType type, MethodHandles.Lookup callerLookup, String name) {
             super(type);
@@ -160,6 +207,14 @@ public class LateBinding implements KoresIndyExperiment {
         public String getName() {
             return this.name;
         }
+
+        public CallSiteEntry getEntry() {
+            return this.entry;
+        }
+
+        void setEntry(CallSiteEntry entry) {
+            this.entry = entry;
+        }
     }
 
 }
@@ -0,0 +1,169 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of memoized results, used by {@link MemoizedDispatch}.
+ *
+ * The cache is split in segments (selected by key hash), each segment is an access ordered {@link
+ * LinkedHashMap} guarded by its own lock, so least recently used results are evicted first and
+ * threads invoking with different keys rarely contend.
+ */
+final class MemoCache {
+
+    /**
+     * Value returned by {@link #get(MemoKey)} when there is no result cached for the key.
+     */
+    static final Object MISS = new Object();
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final long expireAfterNanos;
+
+    MemoCache(int maxEntries, long expireAfterNanos) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("Max entries must be greater than zero. Max entries: " + maxEntries + ".");
+
+        int segments = Integer.highestOneBit(Math.min(MAX_SEGMENTS, maxEntries));
+        int segmentEntries = (maxEntries + segments - 1) / segments;
+
+        this.segments = new Segment[segments];
+        this.expireAfterNanos = expireAfterNanos;
+
+        for (int i = 0; i < segments; i++) {
+            this.segments[i] = new Segment(segmentEntries);
+        }
+    }
+
+    /**
+     * Gets the result cached for {@code key}, or {@link #MISS} if there is no result cached or it
+     * has expired.
+     *
+     * @param key Key of the invocation.
+     * @return Result cached for {@code key}, or {@link #MISS}.
+     */
+    Object get(MemoKey key) {
+        Segment segment = this.segment(key);
+        Object value = MISS;
+
+        synchronized (segment) {
+            Entry entry = segment.get(key);
+
+            if (entry != null) {
+                if (this.expireAfterNanos > 0 && System.nanoTime() - entry.created >= this.expireAfterNanos) {
+                    segment.remove(key);
+                    KoresMetrics.recordMemoEviction();
+                } else {
+                    value = entry.value;
+                }
+            }
+        }
+
+        if (value == MISS)
+            KoresMetrics.recordMemoMiss();
+        else
+            KoresMetrics.recordMemoHit();
+
+        return value;
+    }
+
+    /**
+     * Caches the {@code value} for {@code key}.
+     *
+     * @param key   Key of the invocation.
+     * @param value Result of the invocation.
+     * @return {@code value}.
+     */
+    Object put(MemoKey key, Object value) {
+        Segment segment = this.segment(key);
+        Entry entry = new Entry(value, this.expireAfterNanos > 0 ? System.nanoTime() : 0L);
+
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+
+        return value;
+    }
+
+    /**
+     * Gets the amount of cached results, including expired results not evicted yet.
+     *
+     * @return Amount of cached results.
+     */
+    int size() {
+        int size = 0;
+
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        return size;
+    }
+
+    private Segment segment(MemoKey key) {
+        int hash = key.hashCode();
+        return this.segments[(hash ^ (hash >>> 16)) & (this.segments.length - 1)];
+    }
+
+    static final class Entry {
+        final Object value;
+        final long created;
+
+        Entry(Object value, long created) {
+            this.value = value;
+            this.created = created;
+        }
+    }
+
+    static final class Segment extends LinkedHashMap<MemoKey, Entry> {
+        private final int maxEntries;
+
+        Segment(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MemoKey, Entry> eldest) {
+            if (this.size() > this.maxEntries) {
+                KoresMetrics.recordMemoEviction();
+                return true;
+            }
+
+            return false;
+        }
+    }
+}
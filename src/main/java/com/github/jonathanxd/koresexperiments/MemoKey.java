@@ -0,0 +1,199 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.iutils.exception.RethrowException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Key of {@link MemoCache memoized results}. The receiver is compared by identity and arguments
+ * are compared by {@link Object#equals(Object) equality}.
+ *
+ * Invocations with up to two arguments use a {@link Small} key, which holds primitive arguments in
+ * {@code long} slots, so they are never boxed. Invocations with more arguments use an {@link
+ * Array} key.
+ */
+abstract class MemoKey {
+
+    private static final int SMALL_ARITY = 2;
+    private static final MethodHandle SMALL_CONSTRUCTOR;
+    private static final MethodHandle ARRAY_CONSTRUCTOR;
+    private static final MethodHandle BOOLEAN_TO_LONG;
+    private static final MethodHandle FLOAT_TO_INT;
+    private static final MethodHandle DOUBLE_TO_LONG;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        try {
+            SMALL_CONSTRUCTOR = lookup.findConstructor(Small.class, MethodType.methodType(Void.TYPE,
+                    Object.class, Long.TYPE, Object.class, Long.TYPE, Object.class));
+            ARRAY_CONSTRUCTOR = lookup.findConstructor(Array.class, MethodType.methodType(Void.TYPE,
+                    Object.class, Object[].class));
+            BOOLEAN_TO_LONG = lookup.findStatic(MemoKey.class, "booleanToLong",
+                    MethodType.methodType(Long.TYPE, Boolean.TYPE));
+            FLOAT_TO_INT = lookup.findStatic(Float.class, "floatToRawIntBits",
+                    MethodType.methodType(Integer.TYPE, Float.TYPE));
+            DOUBLE_TO_LONG = lookup.findStatic(Double.class, "doubleToRawLongBits",
+                    MethodType.methodType(Long.TYPE, Double.TYPE));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
+    final Object receiver;
+
+    MemoKey(Object receiver) {
+        this.receiver = receiver;
+    }
+
+    /**
+     * Creates a handle that receives the arguments of an invocation of {@code type} (the receiver
+     * is the first argument) and creates the key of the invocation.
+     *
+     * @param type Type of the invocation.
+     * @return Factory of keys of invocations of {@code type}.
+     */
+    static MethodHandle factory(MethodType type) {
+        int arity = type.parameterCount() - 1;
+        MethodType keyType = type.changeReturnType(MemoKey.class);
+
+        if (arity > SMALL_ARITY)
+            return ARRAY_CONSTRUCTOR.asCollector(Object[].class, arity).asType(keyType);
+
+        MethodHandle factory = SMALL_CONSTRUCTOR;
+
+        // From last to first, so indexes of earlier slots are not affected.
+        for (int i = SMALL_ARITY - 1; i >= 0; i--) {
+            int longSlot = 1 + 2 * i;
+            int objectSlot = longSlot + 1;
+
+            if (i >= arity) {
+                factory = MethodHandles.insertArguments(factory, longSlot, 0L, null);
+            } else if (type.parameterType(i + 1).isPrimitive()) {
+                factory = MethodHandles.insertArguments(factory, objectSlot, (Object) null);
+                factory = MethodHandles.filterArguments(factory, longSlot,
+                        MemoKey.toLong(type.parameterType(i + 1)));
+            } else {
+                factory = MethodHandles.insertArguments(factory, longSlot, 0L);
+            }
+        }
+
+        return factory.asType(keyType);
+    }
+
+    /**
+     * Gets a handle that converts a value of primitive {@code type} to a {@code long} without
+     * losing information.
+     */
+    private static MethodHandle toLong(Class<?> type) {
+        if (type == Boolean.TYPE)
+            return BOOLEAN_TO_LONG;
+        if (type == Float.TYPE)
+            return FLOAT_TO_INT.asType(MethodType.methodType(Long.TYPE, Float.TYPE));
+        if (type == Double.TYPE)
+            return DOUBLE_TO_LONG;
+
+        return MethodHandles.identity(Long.TYPE).asType(MethodType.methodType(Long.TYPE, type));
+    }
+
+    private static long booleanToLong(boolean b) {
+        return b ? 1L : 0L;
+    }
+
+    /**
+     * Key of invocations with up to two arguments.
+     */
+    static final class Small extends MemoKey {
+        private final long p0;
+        private final Object o0;
+        private final long p1;
+        private final Object o1;
+
+        Small(Object receiver, long p0, Object o0, long p1, Object o1) {
+            super(receiver);
+            this.p0 = p0;
+            this.o0 = o0;
+            this.p1 = p1;
+            this.o1 = o1;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(this.receiver);
+            result = 31 * result + Long.hashCode(this.p0);
+            result = 31 * result + Objects.hashCode(this.o0);
+            result = 31 * result + Long.hashCode(this.p1);
+            result = 31 * result + Objects.hashCode(this.o1);
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Small))
+                return false;
+
+            Small other = (Small) obj;
+
+            return other.receiver == this.receiver
+                    && other.p0 == this.p0
+                    && other.p1 == this.p1
+                    && Objects.equals(other.o0, this.o0)
+                    && Objects.equals(other.o1, this.o1);
+        }
+    }
+
+    /**
+     * Key of invocations with more than two arguments, primitive arguments are boxed.
+     */
+    static final class Array extends MemoKey {
+        private final Object[] args;
+
+        Array(Object receiver, Object[] args) {
+            super(receiver);
+            this.args = args;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(this.receiver) + Arrays.hashCode(this.args);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Array
+                    && ((Array) obj).receiver == this.receiver
+                    && Arrays.equals(((Array) obj).args, this.args);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.iutils.annotation.Singleton;
+import com.github.jonathanxd.iutils.exception.RethrowException;
+import com.github.jonathanxd.kores.base.InvokeType;
+import com.github.jonathanxd.kores.common.MethodInvokeSpec;
+import com.github.jonathanxd.kores.common.MethodTypeSpec;
+import com.github.jonathanxd.kores.factory.Factories;
+import com.github.jonathanxd.koresexperiments.annotation.Memoize;
+import com.github.jonathanxd.koresexperiments.annotation.internal.AccessedAtRuntime;
+import com.github.jonathanxd.koresexperiments.experiment.KoresIndyExperiment;
+import com.github.jonathanxd.koresexperiments.jfr.BindEvent;
+import com.github.jonathanxd.koresexperiments.jfr.KoresEvents;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteRegistry;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Dynamically dispatches invocations like {@link DynamicDispatch} and caches results by receiver
+ * identity and arguments, so subsequent invocations with the same receiver and equal arguments do
+ * not invoke the target again. Only use this experiment for pure methods: concurrent invocations
+ * with the same key may invoke the target more than once, and receivers and arguments are strongly
+ * referenced by cached results until they are evicted.
+ *
+ * Each call site has its own bounded cache, configured through {@link Memoize}, least recently
+ * used results are evicted first and results may expire after a configured time. Arguments of
+ * invocations with up to two arguments are never boxed to create the cache key (see {@link
+ * MemoKey}). Cache hits, misses and evictions are recorded in {@link KoresMetrics}.
+ */
+@Singleton("EXPERIMENT")
+public class MemoizedDispatch implements KoresIndyExperiment {
+    public static final MemoizedDispatch EXPERIMENT = new MemoizedDispatch();
+    public static final MethodInvokeSpec BOOTSTRAP_SPEC = new MethodInvokeSpec(
+            InvokeType.INVOKE_STATIC,
+            new MethodTypeSpec(
+                    MemoizedDispatch.class,
+                    "bind",
+                    Factories.typeSpec(CallSite.class,
+                            MethodHandles.Lookup.class,
+                            String.class,
+                            MethodType.class,
+                            Integer.TYPE,
+                            Integer.TYPE,
+                            Integer.TYPE,
+                            Long.TYPE
+                    )
+            )
+    );
+
+    private static final MethodHandle GET_METHOD;
+    private static final MethodHandle PUT_METHOD;
+    private static final MethodHandle IS_MISS_METHOD;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        try {
+            GET_METHOD = lookup.findVirtual(MemoCache.class, "get",
+                    MethodType.methodType(Object.class, MemoKey.class));
+            PUT_METHOD = lookup.findVirtual(MemoCache.class, "put",
+                    MethodType.methodType(Object.class, MemoKey.class, Object.class));
+            IS_MISS_METHOD = lookup.findStatic(MemoizedDispatch.class, "isMiss",
+                    MethodType.methodType(Boolean.TYPE, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
+    private MemoizedDispatch() {
+    }
+
+    @AccessedAtRuntime
+    public static CallSite bind(MethodHandles.Lookup caller,
+                                String name,
+                                MethodType type,
+                                int invokeType,
+                                int dynamic,
+                                int maxEntries,
+                                long expireAfterNanos) {
+        BindEvent event = KoresEvents.beginBind();
+        KoresMetrics.recordBootstrap(EXPERIMENT.getName());
+
+        MethodHandle target = DynamicMethodInvoker.generateAndGetMethodHandle(name, type, invokeType, dynamic)
+                .bindTo(caller);
+        MemoCache cache = new MemoCache(maxEntries, expireAfterNanos);
+
+        CallSite callSite = new MutableCallSite(MemoizedDispatch.memoize(target, cache));
+        CallSiteRegistry.register(EXPERIMENT.getName(), name, type, callSite, "memoized (max " + maxEntries + ")");
+
+        KoresEvents.endBind(event, name, type, invokeType == InternalUtil.STATIC, dynamic == InternalUtil.DYNAMIC);
+        return callSite;
+    }
+
+    /**
+     * Wraps {@code target} in a handle of the same type that looks up the result in {@code cache}
+     * and only invokes {@code target} when there is no result cached.
+     *
+     * <pre>
+     *     {@code
+     *     MemoKey key = key(args);
+     *     Object cached = cache.get(key);
+     *     return cached != MISS ? (R) cached : (R) cache.put(key, target(args));
+     *     }
+     * </pre>
+     *
+     * @param target Target to wrap.
+     * @param cache  Cache of results.
+     * @return Memoized {@code target}.
+     */
+    static MethodHandle memoize(MethodHandle target, MemoCache cache) {
+        MethodType type = target.type();
+        List<Class<?>> parameters = type.parameterList();
+
+        // (MemoKey, args)R
+        MethodHandle compute = MethodHandles.collectArguments(
+                PUT_METHOD.bindTo(cache),
+                1,
+                target.asType(type.changeReturnType(Object.class))
+        ).asType(type.insertParameterTypes(0, MemoKey.class));
+
+        // (Object cached, MemoKey, args)R
+        MethodHandle cached = MethodHandles.dropArguments(
+                MethodHandles.identity(Object.class).asType(MethodType.methodType(type.returnType(), Object.class)),
+                1,
+                type.insertParameterTypes(0, MemoKey.class).parameterList());
+
+        MethodHandle select = MethodHandles.guardWithTest(
+                MethodHandles.dropArguments(IS_MISS_METHOD, 1, cached.type().dropParameterTypes(0, 1).parameterList()),
+                MethodHandles.dropArguments(compute, 0, Object.class),
+                cached
+        );
+
+        // (MemoKey, args)R
+        MethodHandle lookup = MethodHandles.foldArguments(select, GET_METHOD.bindTo(cache));
+
+        return MethodHandles.foldArguments(lookup, MemoKey.factory(type)).asType(type);
+    }
+
+    @AccessedAtRuntime
+    private static boolean isMiss(Object value) {
+        return value == MemoCache.MISS;
+    }
+
+    @Override
+    public MethodInvokeSpec getBootstrapMethod() {
+        return BOOTSTRAP_SPEC;
+    }
+
+    @Override
+    public String getName() {
+        return "MemoizedDispatch";
+    }
+
+    @Override
+    public void handle(Method m, List<Object> args) {
+        if (m.getReturnType() == Void.TYPE)
+            throw new IllegalArgumentException("Memoized method must return a value. Method: " + m + ".");
+
+        DynamicDispatch.EXPERIMENT.handle(m, args);
+
+        Memoize memoize = m.getDeclaredAnnotation(Memoize.class);
+
+        args.add(memoize != null ? memoize.maxEntries() : 1024);
+        args.add(memoize != null ? memoize.unit().toNanos(memoize.expireAfter()) : 0L);
+    }
+}
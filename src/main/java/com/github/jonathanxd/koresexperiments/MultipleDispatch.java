@@ -0,0 +1,137 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.iutils.annotation.Singleton;
+import com.github.jonathanxd.kores.base.InvokeType;
+import com.github.jonathanxd.kores.common.MethodInvokeSpec;
+import com.github.jonathanxd.kores.common.MethodTypeSpec;
+import com.github.jonathanxd.kores.factory.Factories;
+import com.github.jonathanxd.koresexperiments.annotation.internal.AccessedAtRuntime;
+import com.github.jonathanxd.koresexperiments.experiment.KoresIndyExperiment;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Multiple dispatch of method invocations: the overload to invoke is selected based on the
+ * runtime type of the receiver <b>and</b> of all arguments, like {@link DynamicDispatch} with
+ * {@link com.github.jonathanxd.koresexperiments.annotation.Dynamic}, but without resolving the
+ * overload through reflection in every invocation.
+ *
+ * For each receiver class, a decision tree is generated (see {@link DispatchTree}), which checks
+ * the arguments against every overload, from the most specific to the least specific one, and
+ * directly invokes the first matching overload. The call site caches the decision trees of the
+ * receiver classes it has seen in a chain of class guards (an inline cache), up to {@link
+ * #MAX_DEPTH} receiver classes, after that the call site becomes megamorphic and looks up the
+ * decision tree of the receiver class in every invocation.
+ *
+ * If no overload matches the arguments, a {@link NoSuchMethodException} is thrown.
+ */
+@Singleton("EXPERIMENT")
+public class MultipleDispatch implements KoresIndyExperiment {
+    public static final MultipleDispatch EXPERIMENT = new MultipleDispatch();
+    public static final MethodInvokeSpec BOOTSTRAP_SPEC = new MethodInvokeSpec(
+            InvokeType.INVOKE_STATIC,
+            new MethodTypeSpec(
+                    MultipleDispatch.class,
+                    "bind",
+                    Factories.typeSpec(CallSite.class,
+                            MethodHandles.Lookup.class,
+                            String.class,
+                            MethodType.class
+                    )
+            )
+    );
+
+    /**
+     * Max amount of receiver classes cached by a call site before it becomes megamorphic.
+     */
+    public static final int MAX_DEPTH = 4;
+
+    private MultipleDispatch() {
+    }
+
+    public static CallSite bind(MethodHandles.Lookup caller,
+                                String name,
+                                MethodType type) {
+        KoresMetrics.recordBootstrap(EXPERIMENT.getName());
+
+        return new DispatchCallSite(name, type);
+    }
+
+    /**
+     * Creates the exception thrown by decision trees when no overload matches the arguments. The
+     * exception does not fill its stack trace (the message is constant for each decision tree and
+     * identifies it), so a failed dispatch is cheap, and each failed dispatch has its own exception
+     * instance.
+     *
+     * @param message Message of the exception.
+     * @return Exception to throw.
+     */
+    @AccessedAtRuntime
+    public static NoSuchMethodException noMatch(String message) {
+        return new NoMatchException(message);
+    }
+
+    @Override
+    public MethodInvokeSpec getBootstrapMethod() {
+        return BOOTSTRAP_SPEC;
+    }
+
+    @Override
+    public String getName() {
+        return "MultipleDispatch";
+    }
+
+    static final class DispatchCallSite extends InlineCacheCallSite {
+
+        DispatchCallSite(String name, MethodType type) {
+            super(EXPERIMENT.getName(), name, type, MAX_DEPTH);
+        }
+
+        @Override
+        MethodHandle resolve(Class<?> receiverClass) {
+            return DispatchTree.get(receiverClass, this.getName(), this.type());
+        }
+    }
+
+    private static final class NoMatchException extends NoSuchMethodException {
+        NoMatchException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * State of {@link KoresExperimentsIndyHelper#prelink(Object, Class[]) prelinking}.
+ *
+ * Prelinking invokes every dynamically linked method of an implementation with a {@code null}
+ * receiver, which forces the bootstrap of its call site. Targets that receive a {@code null}
+ * receiver call {@link #seed(Seeder)} before dereferencing it: while prelinking, this seeds their
+ * caches with the expected receiver types and aborts the invocation, otherwise it does nothing and
+ * the target fails as it would without prelinking.
+ */
+final class Prelink {
+
+    private static final ThreadLocal<Result> CURRENT = new ThreadLocal<>();
+    private static final Linked LINKED = new Linked();
+
+    private Prelink() {
+    }
+
+    /**
+     * Runs {@code action} with {@code receiverTypes} as expected receiver types of call sites
+     * invoked by the current thread.
+     *
+     * The {@link NullPointerException} thrown by targets that do not seed (because they dereference
+     * the {@code null} receiver) is expected and ignored, any other failure of {@code action} is
+     * returned in the result.
+     *
+     * @param receiverTypes Expected receiver types.
+     * @param action        Action to run.
+     * @return Result of the prelink.
+     */
+    static Result run(Class<?>[] receiverTypes, Runnable action) {
+        Result result = new Result(receiverTypes);
+        CURRENT.set(result);
+
+        try {
+            action.run();
+        } catch (Linked linked) {
+            result.linked = true;
+        } catch (NullPointerException ignored) {
+            // Target does not seed
+        } catch (Throwable t) {
+            result.failures.add(t);
+        } finally {
+            CURRENT.remove();
+        }
+
+        return result;
+    }
+
+    /**
+     * Seeds the caches of the call site with {@code seeder} for each expected receiver type and
+     * aborts the invocation if the current thread is prelinking, otherwise does nothing. Receiver
+     * types which do not have the member to link (the seeder fails with a {@link
+     * ReflectiveOperationException}) are ignored, other failures are recorded in the {@link
+     * Result}.
+     *
+     * @param seeder Seeder of the call site caches.
+     */
+    static void seed(Seeder seeder) {
+        Result result = CURRENT.get();
+
+        if (result == null)
+            return;
+
+        for (Class<?> receiverType : result.receiverTypes) {
+            Prelink.seed(result, seeder, receiverType);
+        }
+
+        throw LINKED;
+    }
+
+    /**
+     * Same as {@link #seed(Seeder)}, but only seeds the first expected receiver type for which
+     * {@code seeder} succeeds, for call sites that link to a single receiver type.
+     *
+     * @param seeder Seeder of the call site caches.
+     */
+    static void seedFirst(Seeder seeder) {
+        Result result = CURRENT.get();
+
+        if (result == null)
+            return;
+
+        for (Class<?> receiverType : result.receiverTypes) {
+            if (Prelink.seed(result, seeder, receiverType))
+                break;
+        }
+
+        throw LINKED;
+    }
+
+    private static boolean seed(Result result, Seeder seeder, Class<?> receiverType) {
+        try {
+            seeder.seed(receiverType);
+            return true;
+        } catch (ReflectiveOperationException ignored) {
+            // Receiver type does not have the member
+        } catch (Throwable t) {
+            result.failures.add(t);
+        }
+
+        return false;
+    }
+
+    @FunctionalInterface
+    interface Seeder {
+        void seed(Class<?> receiverType) throws Throwable;
+    }
+
+    /**
+     * Result of {@link #run(Class[], Runnable)}.
+     */
+    static final class Result {
+        private final Class<?>[] receiverTypes;
+        private final List<Throwable> failures = new ArrayList<>();
+        private boolean linked;
+
+        Result(Class<?>[] receiverTypes) {
+            this.receiverTypes = receiverTypes;
+        }
+
+        /**
+         * Returns whether a call site was reached and seeded.
+         *
+         * @return Whether a call site was reached and seeded.
+         */
+        boolean isLinked() {
+            return this.linked;
+        }
+
+        /**
+         * Gets unexpected failures of the prelink (bootstrap failures, failures of seeders other
+         * than missing members).
+         *
+         * @return Unexpected failures of the prelink.
+         */
+        List<Throwable> getFailures() {
+            return this.failures;
+        }
+    }
+
+    /**
+     * Signal of a seeded call site, preallocated and without stack trace.
+     */
+    private static final class Linked extends RuntimeException {
+        Linked() {
+            super("Call site prelinked", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.iutils.annotation.Singleton;
+import com.github.jonathanxd.iutils.exception.RethrowException;
+import com.github.jonathanxd.kores.base.InvokeType;
+import com.github.jonathanxd.kores.common.MethodInvokeSpec;
+import com.github.jonathanxd.kores.common.MethodTypeSpec;
+import com.github.jonathanxd.kores.factory.Factories;
+import com.github.jonathanxd.koresexperiments.annotation.Property;
+import com.github.jonathanxd.koresexperiments.annotation.internal.AccessedAtRuntime;
+import com.github.jonathanxd.koresexperiments.experiment.KoresIndyExperiment;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+
+/**
+ * Reads and writes properties of the receiver object. Methods with only the receiver parameter are
+ * linked to a property getter, and methods with the receiver and a value are linked to a property
+ * setter. The name of the property is provided by {@link Property} or derived from the method name
+ * (see {@link Property} for more information).
+ *
+ * Properties are resolved, in order, to public bean accessors ({@code getName}/{@code isName} and
+ * {@code setName}) and to public instance fields of the receiver class. Like {@link
+ * MultipleDispatch}, the call site caches the accessors of the receiver classes it has seen, up to
+ * {@link #MAX_DEPTH} receiver classes, and accessors are cached per receiver class, so no
+ * reflection is involved after the first access.
+ *
+ * Example:
+ *
+ * <pre>
+ * {@code
+ * @Experiment(PropertyAccess.class)
+ * public interface Named {
+ *     Object get_name(Object receiver);
+ *     void set_name(Object receiver, Object name);
+ * }
+ * }
+ * </pre>
+ *
+ * If the receiver class has no such property, a {@link NoSuchFieldException} is thrown.
+ */
+@Singleton("EXPERIMENT")
+public class PropertyAccess implements KoresIndyExperiment {
+    public static final PropertyAccess EXPERIMENT = new PropertyAccess();
+    public static final MethodInvokeSpec BOOTSTRAP_SPEC = new MethodInvokeSpec(
+            InvokeType.INVOKE_STATIC,
+            new MethodTypeSpec(
+                    PropertyAccess.class,
+                    "bind",
+                    Factories.typeSpec(CallSite.class,
+                            MethodHandles.Lookup.class,
+                            String.class,
+                            MethodType.class,
+                            String.class
+                    )
+            )
+    );
+
+    /**
+     * Max amount of receiver classes cached by a call site before it becomes megamorphic.
+     */
+    public static final int MAX_DEPTH = 4;
+
+    private static final ClassValue<ConcurrentMap<String, MethodHandle>> GETTERS = PropertyAccess.cache();
+    private static final ClassValue<ConcurrentMap<String, MethodHandle>> SETTERS = PropertyAccess.cache();
+    private static final ResolutionFailures GETTER_FAILURES = new ResolutionFailures();
+    private static final ResolutionFailures SETTER_FAILURES = new ResolutionFailures();
+
+    private PropertyAccess() {
+    }
+
+    @AccessedAtRuntime
+    public static CallSite bind(MethodHandles.Lookup caller,
+                                String name,
+                                MethodType type,
+                                String property) {
+        KoresMetrics.recordBootstrap(EXPERIMENT.getName());
+
+        return new PropertyCallSite(name, type, property);
+    }
+
+    /**
+     * Gets the getter of {@code property} of {@code type}. The getter receives an instance of
+     * {@code type} and returns the value of the property.
+     *
+     * @param type     Type to get getter.
+     * @param property Name of the property.
+     * @return Getter of {@code property}.
+     * @throws NoSuchFieldException If {@code type} does not have a readable {@code property}
+     *                              (sneaky thrown).
+     */
+    public static MethodHandle getter(Class<?> type, String property) {
+        return PropertyAccess.get(GETTERS, GETTER_FAILURES, type, property, PropertyAccess::findGetter);
+    }
+
+    /**
+     * Gets the setter of {@code property} of {@code type}. The setter receives an instance of
+     * {@code type} and the value to set.
+     *
+     * @param type     Type to get setter.
+     * @param property Name of the property.
+     * @return Setter of {@code property}.
+     * @throws NoSuchFieldException If {@code type} does not have a writable {@code property}
+     *                              (sneaky thrown).
+     */
+    public static MethodHandle setter(Class<?> type, String property) {
+        return PropertyAccess.get(SETTERS, SETTER_FAILURES, type, property, PropertyAccess::findSetter);
+    }
+
+    private static MethodHandle get(ClassValue<ConcurrentMap<String, MethodHandle>> cache,
+                                    ResolutionFailures failures,
+                                    Class<?> type,
+                                    String property,
+                                    BiFunction<Class<?>, String, MethodHandle> find) {
+        ConcurrentMap<String, MethodHandle> handles = cache.get(type);
+        MethodHandle handle = handles.get(property);
+
+        if (handle == null) {
+            failures.check(type, property);
+
+            try {
+                handle = handles.computeIfAbsent(property, p -> find.apply(type, p));
+            } catch (Throwable t) {
+                throw failures.fail(type, property, t);
+            }
+        }
+
+        return handle;
+    }
+
+    private static MethodHandle findGetter(Class<?> type, String property) {
+        String capitalized = PropertyAccess.capitalize(property);
+
+        try {
+            Method getter = PropertyAccess.findMethod(type, "get" + capitalized, 0);
+
+            if (getter == null) {
+                getter = PropertyAccess.findMethod(type, "is" + capitalized, 0);
+
+                if (getter != null && getter.getReturnType() != Boolean.TYPE)
+                    getter = null;
+            }
+
+            if (getter != null && getter.getReturnType() != Void.TYPE)
+                return MethodHandles.publicLookup().unreflect(getter);
+
+            Field field = PropertyAccess.findField(type, property);
+
+            if (field != null)
+                return MethodHandles.publicLookup().unreflectGetter(field);
+        } catch (IllegalAccessException e) {
+            throw RethrowException.rethrow(e);
+        }
+
+        throw RethrowException.rethrow(new NoSuchFieldException("No readable property '" + property
+                + "' in " + type + "."));
+    }
+
+    private static MethodHandle findSetter(Class<?> type, String property) {
+        try {
+            Method setter = PropertyAccess.findMethod(type, "set" + PropertyAccess.capitalize(property), 1);
+
+            if (setter != null)
+                return MethodHandles.publicLookup().unreflect(setter);
+
+            Field field = PropertyAccess.findField(type, property);
+
+            if (field != null && !Modifier.isFinal(field.getModifiers()))
+                return MethodHandles.publicLookup().unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            throw RethrowException.rethrow(e);
+        }
+
+        throw RethrowException.rethrow(new NoSuchFieldException("No writable property '" + property
+                + "' in " + type + "."));
+    }
+
+    /**
+     * Finds a public instance method declared in a public class, with {@code name} and {@code
+     * parameterCount} parameters.
+     */
+    private static Method findMethod(Class<?> type, String name, int parameterCount) {
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(name)
+                    && method.getParameterCount() == parameterCount
+                    && !method.isBridge()
+                    && !Modifier.isStatic(method.getModifiers())) {
+                return InternalUtil.accessibleMethod(type, method);
+            }
+        }
+
+        return null;
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        try {
+            Field field = type.getField(name);
+
+            return !Modifier.isStatic(field.getModifiers())
+                    && Modifier.isPublic(field.getDeclaringClass().getModifiers()) ? field : null;
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    private static String capitalize(String property) {
+        return Character.toUpperCase(property.charAt(0)) + property.substring(1);
+    }
+
+    /**
+     * Derives the name of the property from the name of {@code m}.
+     */
+    private static String propertyName(Method m) {
+        Property property = m.getDeclaredAnnotation(Property.class);
+
+        if (property != null && !property.value().isEmpty())
+            return property.value();
+
+        String name = m.getName();
+
+        for (String prefix : new String[]{"get_", "set_", "is_"}) {
+            if (name.startsWith(prefix) && name.length() > prefix.length())
+                return name.substring(prefix.length());
+        }
+
+        for (String prefix : new String[]{"get", "set", "is"}) {
+            if (name.startsWith(prefix) && name.length() > prefix.length()
+                    && Character.isUpperCase(name.charAt(prefix.length())))
+                return Character.toLowerCase(name.charAt(prefix.length())) + name.substring(prefix.length() + 1);
+        }
+
+        return name;
+    }
+
+    private static ClassValue<ConcurrentMap<String, MethodHandle>> cache() {
+        return new ClassValue<ConcurrentMap<String, MethodHandle>>() {
+            @Override
+            protected ConcurrentMap<String, MethodHandle> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+    }
+
+    @Override
+    public MethodInvokeSpec getBootstrapMethod() {
+        return BOOTSTRAP_SPEC;
+    }
+
+    @Override
+    public String getName() {
+        return "PropertyAccess";
+    }
+
+    @Override
+    public void handle(Method m, List<Object> args) {
+        if (m.getParameterCount() != 1 && m.getParameterCount() != 2)
+            throw new IllegalArgumentException("Property access method must receive only the receiver " +
+                    "(getter) or the receiver and the value (setter). Method: " + m + ".");
+
+        args.add(PropertyAccess.propertyName(m));
+    }
+
+    static final class PropertyCallSite extends InlineCacheCallSite {
+        private final String property;
+
+        PropertyCallSite(String name, MethodType type, String property) {
+            super(EXPERIMENT.getName(), name, type, MAX_DEPTH);
+            this.property = property;
+        }
+
+        @Override
+        MethodHandle resolve(Class<?> receiverClass) {
+            MethodHandle accessor = this.type().parameterCount() == 1
+                    ? PropertyAccess.getter(receiverClass, this.property)
+                    : PropertyAccess.setter(receiverClass, this.property);
+
+            if (this.type().returnType() == Void.TYPE || accessor.type().returnType() != Void.TYPE)
+                return accessor.asType(this.type());
+
+            // Setter linked to a method with return type returns the receiver
+            return MethodHandles.foldArguments(
+                    MethodHandles.dropArguments(MethodHandles.identity(this.type().parameterType(0)),
+                            1, this.type().parameterType(1)),
+                    accessor.asType(this.type().changeReturnType(Void.TYPE))
+            ).asType(this.type());
+        }
+    }
+}
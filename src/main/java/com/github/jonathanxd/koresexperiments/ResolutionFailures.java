@@ -0,0 +1,162 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import com.github.jonathanxd.iutils.exception.RethrowException;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of failed resolutions, stored per class, like caches of resolved handles. Each cache of
+ * resolved handles has its own instance, so keys of different caches do not collide.
+ *
+ * Only the kind and message of a failure are cached. A cached failure is signaled again with a new
+ * exception of the same kind, which does not fill its stack trace, so a cached failure costs a map
+ * lookup and a small allocation instead of a {@link java.lang.invoke.MethodHandles.Lookup} search
+ * and the creation of a full exception (with one suppressed exception per combination tried, for
+ * dynamic resolutions). Callers never share an exception instance, and the exception of the first
+ * failure (with its suppressed exceptions) is not kept alive.
+ *
+ * Only missing ({@link NoSuchMethodException}, {@link NoSuchFieldException}) or inaccessible
+ * ({@link IllegalAccessException}) members are cached, other exceptions are signaled without
+ * being cached.
+ */
+final class ResolutionFailures {
+
+    private static final int NO_SUCH_METHOD = 0;
+    private static final int NO_SUCH_FIELD = 1;
+    private static final int ILLEGAL_ACCESS = 2;
+
+    private final ClassValue<ConcurrentMap<Object, Failure>> failures =
+            new ClassValue<ConcurrentMap<Object, Failure>>() {
+                @Override
+                protected ConcurrentMap<Object, Failure> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /**
+     * Signals the cached failure of resolution identified by {@code key} in {@code type} caches,
+     * does nothing if the resolution did not fail.
+     *
+     * @param type Class which caches the failure.
+     * @param key  Key of the resolution.
+     */
+    void check(Class<?> type, Object key) {
+        Failure failure = this.failures.get(type).get(key);
+
+        if (failure != null) {
+            KoresMetrics.recordResolutionFailureHit();
+            throw RethrowException.rethrow(failure.create());
+        }
+    }
+
+    /**
+     * Caches the {@code failure} of resolution identified by {@code key} in {@code type} caches, if
+     * it is a missing or inaccessible member, and signals it.
+     *
+     * @param type    Class which caches the failure.
+     * @param key     Key of the resolution.
+     * @param failure Failure of the resolution.
+     * @return Nothing, the failure is always thrown.
+     */
+    RuntimeException fail(Class<?> type, Object key, Throwable failure) {
+        int kind;
+
+        if (failure instanceof NoSuchMethodException)
+            kind = NO_SUCH_METHOD;
+        else if (failure instanceof NoSuchFieldException)
+            kind = NO_SUCH_FIELD;
+        else if (failure instanceof IllegalAccessException)
+            kind = ILLEGAL_ACCESS;
+        else
+            throw RethrowException.rethrow(failure);
+
+        this.failures.get(type).putIfAbsent(key, new Failure(kind, failure.getMessage()));
+        throw RethrowException.rethrow(failure);
+    }
+
+    /**
+     * Kind and message of a cached failure.
+     */
+    private static final class Failure {
+        private final int kind;
+        private final String message;
+
+        Failure(int kind, String message) {
+            this.kind = kind;
+            this.message = message;
+        }
+
+        Throwable create() {
+            switch (this.kind) {
+                case NO_SUCH_METHOD:
+                    return new CachedNoSuchMethodException(this.message);
+                case NO_SUCH_FIELD:
+                    return new CachedNoSuchFieldException(this.message);
+                default:
+                    return new CachedIllegalAccessException(this.message);
+            }
+        }
+    }
+
+    private static final class CachedNoSuchMethodException extends NoSuchMethodException {
+        CachedNoSuchMethodException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private static final class CachedNoSuchFieldException extends NoSuchFieldException {
+        CachedNoSuchFieldException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private static final class CachedIllegalAccessException extends IllegalAccessException {
+        CachedIllegalAccessException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Resolution of varargs methods from the exact signature of an invocation.
+ *
+ * An invocation of {@code log(String, Object, Object)} matches a {@code log(String, Object...)}
+ * method if the fixed parameters are the same and the trailing arguments are assignable to the
+ * component type of the varargs parameter. The resolved handle collects the trailing arguments
+ * into an array of arity specialized at link time, so the invocation is as cheap as a call to the
+ * varargs method compiled by {@code javac}: the array received by the method is the only
+ * allocation, and invocations without trailing arguments share an empty array.
+ *
+ * Methods that do not take varargs are resolved exactly, as {@link MethodHandles.Lookup} does.
+ */
+final class Varargs {
+
+    private Varargs() {
+    }
+
+    /**
+     * Same as {@link MethodHandles.Lookup#findVirtual(Class, String, MethodType)}, but also
+     * resolves varargs methods which can be invoked with {@code type}.
+     *
+     * @param lookup Lookup to use to resolve the method.
+     * @param refc   Class to resolve the method from.
+     * @param name   Name of the method.
+     * @param type   Type of the invocation, without the receiver.
+     * @return Resolved method handle, of {@code type} with {@code refc} as first parameter.
+     * @throws NoSuchMethodException  If no method matches.
+     * @throws IllegalAccessException If the method cannot be accessed by {@code lookup}.
+     */
+    static MethodHandle findVirtual(MethodHandles.Lookup lookup, Class<?> refc, String name, MethodType type)
+            throws NoSuchMethodException, IllegalAccessException {
+        try {
+            return lookup.findVirtual(refc, name, type);
+        } catch (NoSuchMethodException e) {
+            return Varargs.collect(lookup, refc, name, type, false, e);
+        }
+    }
+
+    /**
+     * Same as {@link MethodHandles.Lookup#findStatic(Class, String, MethodType)}, but also resolves
+     * varargs methods which can be invoked with {@code type}.
+     *
+     * @param lookup Lookup to use to resolve the method.
+     * @param refc   Class to resolve the method from.
+     * @param name   Name of the method.
+     * @param type   Type of the invocation.
+     * @return Resolved method handle, of {@code type}.
+     * @throws NoSuchMethodException  If no method matches.
+     * @throws IllegalAccessException If the method cannot be accessed by {@code lookup}.
+     */
+    static MethodHandle findStatic(MethodHandles.Lookup lookup, Class<?> refc, String name, MethodType type)
+            throws NoSuchMethodException, IllegalAccessException {
+        try {
+            return lookup.findStatic(refc, name, type);
+        } catch (NoSuchMethodException e) {
+            return Varargs.collect(lookup, refc, name, type, true, e);
+        }
+    }
+
+    private static MethodHandle collect(MethodHandles.Lookup lookup, Class<?> refc, String name,
+                                        MethodType type, boolean isStatic,
+                                        NoSuchMethodException notFound)
+            throws NoSuchMethodException, IllegalAccessException {
+        Method target = null;
+
+        for (Method method : refc.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) == isStatic
+                    && Varargs.matches(method, name, type)
+                    && (target == null || method.getParameterCount() > target.getParameterCount()))
+                target = method;
+        }
+
+        if (target == null)
+            throw notFound;
+
+        int fixed = target.getParameterCount() - 1;
+        int position = isStatic ? fixed : fixed + 1;
+        Class<?> arrayType = target.getParameterTypes()[fixed];
+        MethodHandle handle = isStatic
+                ? lookup.findStatic(refc, name, MethodType.methodType(target.getReturnType(), target.getParameterTypes()))
+                : lookup.findVirtual(refc, name, MethodType.methodType(target.getReturnType(), target.getParameterTypes()));
+
+        handle = handle.asFixedArity();
+
+        if (type.parameterCount() == fixed)
+            handle = MethodHandles.insertArguments(handle, position,
+                    Array.newInstance(arrayType.getComponentType(), 0));
+        else
+            handle = handle.asCollector(arrayType, type.parameterCount() - fixed);
+
+        return handle.asType(isStatic ? type : type.insertParameterTypes(0, refc));
+    }
+
+    /**
+     * Whether varargs {@code method} can be invoked with {@code type}.
+     */
+    private static boolean matches(Method method, String name, MethodType type) {
+        if (!method.isVarArgs() || !method.getName().equals(name) || method.getReturnType() != type.returnType())
+            return false;
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        int fixed = parameterTypes.length - 1;
+
+        if (type.parameterCount() < fixed)
+            return false;
+
+        for (int i = 0; i < fixed; i++) {
+            if (parameterTypes[i] != type.parameterType(i))
+                return false;
+        }
+
+        Class<?> component = parameterTypes[fixed].getComponentType();
+
+        for (int i = fixed; i < type.parameterCount(); i++) {
+            Class<?> argType = type.parameterType(i);
+
+            if (component.isPrimitive() || argType.isPrimitive()
+                    ? component != argType
+                    : !component.isAssignableFrom(argType))
+                return false;
+        }
+
+        return true;
+    }
+}
@@ -27,6 +27,7 @@
  */
 package com.github.jonathanxd.koresexperiments.experiment;
 
+import com.github.jonathanxd.kores.base.InvokeType;
 import com.github.jonathanxd.kores.common.MethodInvokeSpec;
 import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
 
@@ -60,4 +61,24 @@ public interface KoresIndyExperiment extends KoresExperiment {
      */
     default void handle(Method m, List<Object> args) {
     }
+
+    /**
+     * Gets how invocations of {@code m} may be linked directly (without {@code invokedynamic}) when
+     * the target is statically known, or {@code null} if invocations of {@code m} must always be
+     * dynamically linked.
+     *
+     * {@link KoresExperimentsIndyHelper} only links directly when the declared receiver type (the
+     * first parameter type of {@code m}) is public and final and the method to invoke is resolvable
+     * in it with the same name, parameter types and return type, in other words, when linking
+     * directly does not change the semantic of the experiment. {@link InvokeType#INVOKE_VIRTUAL}
+     * denotes an instance method of the receiver and {@link InvokeType#INVOKE_STATIC} denotes a
+     * static method of the receiver class.
+     *
+     * @param m Method to implement.
+     * @return How invocations of {@code m} may be linked directly, or {@code null} if it must be
+     * dynamically linked.
+     */
+    default InvokeType getDirectLinkType(Method m) {
+        return null;
+    }
 }
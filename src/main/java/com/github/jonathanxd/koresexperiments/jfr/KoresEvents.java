@@ -0,0 +1,179 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.jfr;
+
+import java.lang.invoke.MethodType;
+
+/**
+ * Entry point of Java Flight Recorder events emitted by experiments.
+ *
+ * Events are only created when {@code jdk.jfr} is {@link #AVAILABLE available}, in this case the
+ * cost of an event when no recording is running is the cost of an object allocation that is
+ * commonly eliminated by JIT. All events are emitted on slow paths (bootstrap, resolution and
+ * relinking), never on the steady-state invocation path.
+ *
+ * Methods that begin an event return {@code null} when events are not available, and methods that
+ * end an event accept {@code null}.
+ */
+public final class KoresEvents {
+
+    /**
+     * Whether {@code jdk.jfr} is available in the running JVM.
+     */
+    public static final boolean AVAILABLE = KoresEvents.isAvailable();
+
+    private KoresEvents() {
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, KoresEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Begins a {@link BindEvent}.
+     *
+     * @return Begun event, or {@code null} if events are not available.
+     */
+    public static BindEvent beginBind() {
+        if (!AVAILABLE)
+            return null;
+
+        BindEvent event = new BindEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends and commits the {@code event} if it should be committed.
+     *
+     * @param event     Event to end, may be {@code null}.
+     * @param name      Name of the bound method.
+     * @param type      Type of the call site.
+     * @param isStatic  Whether the call site invokes a static method.
+     * @param isDynamic Whether the call site resolves the method dynamically.
+     */
+    public static void endBind(BindEvent event, String name, MethodType type, boolean isStatic,
+                               boolean isDynamic) {
+        if (event == null)
+            return;
+
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.methodName = name;
+            event.methodType = type.toString();
+            event.staticInvocation = isStatic;
+            event.dynamic = isDynamic;
+            event.commit();
+        }
+    }
+
+    /**
+     * Begins a {@link ResolutionEvent}.
+     *
+     * @return Begun event, or {@code null} if events are not available.
+     */
+    public static ResolutionEvent beginResolution() {
+        if (!AVAILABLE)
+            return null;
+
+        ResolutionEvent event = new ResolutionEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends and commits the {@code event} if it should be committed.
+     *
+     * @param event             Event to end, may be {@code null}.
+     * @param name              Name of the resolved method.
+     * @param type              Type of the resolved method.
+     * @param receiverClass     Class of the receiver.
+     * @param combinationsTried Amount of combinations of argument types tried.
+     * @param resolved          Whether the method was resolved or not.
+     */
+    public static void endResolution(ResolutionEvent event, String name, MethodType type,
+                                     Class<?> receiverClass, int combinationsTried,
+                                     boolean resolved) {
+        if (event == null)
+            return;
+
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.methodName = name;
+            event.methodType = type.toString();
+            event.receiverClass = receiverClass;
+            event.combinationsTried = combinationsTried;
+            event.resolved = resolved;
+            event.commit();
+        }
+    }
+
+    /**
+     * Begins a {@link RelinkEvent}.
+     *
+     * @return Begun event, or {@code null} if events are not available.
+     */
+    public static RelinkEvent beginRelink() {
+        if (!AVAILABLE)
+            return null;
+
+        RelinkEvent event = new RelinkEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends and commits the {@code event} if it should be committed.
+     *
+     * @param event         Event to end, may be {@code null}.
+     * @param name          Name of the linked method.
+     * @param type          Type of the call site.
+     * @param receiverClass Class of the receiver which the call site was linked to.
+     */
+    public static void endRelink(RelinkEvent event, String name, MethodType type,
+                                 Class<?> receiverClass) {
+        if (event == null)
+            return;
+
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.methodName = name;
+            event.methodType = type.toString();
+            event.receiverClass = receiverClass;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Search of a target method by {@link com.github.jonathanxd.koresexperiments.DynamicMethodInvoker#resolveMethodHandleDynamic(java.lang.invoke.MethodHandles.Lookup,
+ * Object, String, java.lang.invoke.MethodType, int, Class[]) dynamic resolution}. Resolutions
+ * served from cache are not recorded.
+ *
+ * Do not reference this class directly, use {@link KoresEvents}.
+ */
+@Name("com.github.jonathanxd.koresexperiments.Resolution")
+@Label("Dynamic Resolution")
+@Category("Kores Experiments")
+@Description("Search of the target method of a dynamic invocation based on argument types")
+public final class ResolutionEvent extends Event {
+
+    @Label("Method Name")
+    String methodName;
+
+    @Label("Method Type")
+    String methodType;
+
+    @Label("Receiver Class")
+    Class<?> receiverClass;
+
+    @Label("Combinations Tried")
+    @Description("Amount of argument type combinations tried until the target method was found")
+    int combinationsTried;
+
+    @Label("Resolved")
+    boolean resolved;
+}
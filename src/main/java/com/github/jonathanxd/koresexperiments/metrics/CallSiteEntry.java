@@ -0,0 +1,212 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.metrics;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Registered call site, see {@link CallSiteRegistry}.
+ */
+public final class CallSiteEntry {
+    private final String experiment;
+    private final String name;
+    private final MethodType type;
+    private final SiteReference site;
+    private volatile String state;
+    private volatile SiteProfile profile;
+    private MethodHandle target;
+
+    CallSiteEntry(String experiment, String name, MethodType type, CallSite site, String state,
+                  ReferenceQueue<CallSite> queue) {
+        this.experiment = experiment;
+        this.name = name;
+        this.type = type;
+        this.site = new SiteReference(site, queue, this);
+        this.state = state;
+    }
+
+    /**
+     * Gets the name of the experiment that bootstrapped the call site.
+     *
+     * @return Name of the experiment that bootstrapped the call site.
+     */
+    public String getExperiment() {
+        return this.experiment;
+    }
+
+    /**
+     * Gets the name of the method linked by the call site.
+     *
+     * @return Name of the method linked by the call site.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the type of the call site.
+     *
+     * @return Type of the call site.
+     */
+    public MethodType getType() {
+        return this.type;
+    }
+
+    /**
+     * Gets the call site, or {@code null} if it was already collected.
+     *
+     * @return Call site, or {@code null} if it was already collected.
+     */
+    public CallSite getCallSite() {
+        return this.site.get();
+    }
+
+    /**
+     * Gets the current state of the call site.
+     *
+     * @return Current state of the call site.
+     */
+    public String getState() {
+        return this.state;
+    }
+
+    /**
+     * Sets the current state of the call site.
+     *
+     * @param state New state of the call site.
+     */
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    /**
+     * Changes the target of the call site. If the call site is being {@link CallSiteProfiler
+     * profiled}, the new target is wrapped with the profiling handle.
+     *
+     * @param target New target of the call site.
+     */
+    public synchronized void setTarget(MethodHandle target) {
+        CallSite site = this.getCallSite();
+
+        if (site == null)
+            return;
+
+        SiteProfile profile = this.profile;
+
+        if (profile != null) {
+            this.target = target;
+            site.setTarget(profile.wrap(target));
+        } else {
+            site.setTarget(target);
+        }
+    }
+
+    /**
+     * Gets the current target of the call site, without the profiling wrapper if the call site is
+     * being {@link CallSiteProfiler profiled}.
+     *
+     * @return Current target of the call site, or {@code null} if it was already collected.
+     */
+    public synchronized MethodHandle getTarget() {
+        CallSite site = this.getCallSite();
+
+        if (site == null)
+            return null;
+
+        return this.profile != null ? this.target : site.getTarget();
+    }
+
+    /**
+     * Gets the current profile of the call site, or {@code null} if it is not being profiled.
+     *
+     * @return Current profile of the call site, or {@code null} if it is not being profiled.
+     */
+    public SiteProfileInfo getProfile() {
+        SiteProfile profile = this.profile;
+        return profile == null ? null : profile.toInfo();
+    }
+
+    synchronized boolean startProfiling(int sampleInterval) {
+        CallSite site = this.getCallSite();
+
+        if (site == null || site instanceof ConstantCallSite || this.profile != null)
+            return false;
+
+        SiteProfile profile = new SiteProfile(this, sampleInterval);
+        this.target = site.getTarget();
+        this.profile = profile;
+        site.setTarget(profile.wrap(this.target));
+        return true;
+    }
+
+    synchronized SiteProfileInfo stopProfiling() {
+        SiteProfile profile = this.profile;
+        CallSite site = this.getCallSite();
+
+        if (profile == null)
+            return null;
+
+        if (site != null)
+            site.setTarget(this.target);
+
+        this.profile = null;
+        this.target = null;
+        return profile.toInfo();
+    }
+
+    /**
+     * Creates a snapshot of this entry.
+     *
+     * @return Snapshot of this entry.
+     */
+    public CallSiteInfo toInfo() {
+        return new CallSiteInfo(this.experiment, this.name, this.type.toString(), this.state);
+    }
+
+    /**
+     * Weak reference to the call site, enqueued in the {@link CallSiteRegistry} queue once the
+     * call site is collected.
+     */
+    static final class SiteReference extends WeakReference<CallSite> {
+        private final CallSiteEntry entry;
+
+        SiteReference(CallSite site, ReferenceQueue<CallSite> queue, CallSiteEntry entry) {
+            super(site, queue);
+            this.entry = entry;
+        }
+
+        CallSiteEntry getEntry() {
+            return this.entry;
+        }
+    }
+}
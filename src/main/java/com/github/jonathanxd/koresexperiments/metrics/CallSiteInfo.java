@@ -0,0 +1,89 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.metrics;
+
+/**
+ * Snapshot of a live call site.
+ */
+public final class CallSiteInfo {
+    private final String experiment;
+    private final String name;
+    private final String type;
+    private final String state;
+
+    public CallSiteInfo(String experiment, String name, String type, String state) {
+        this.experiment = experiment;
+        this.name = name;
+        this.type = type;
+        this.state = state;
+    }
+
+    /**
+     * Gets the name of the experiment that bootstrapped the call site.
+     *
+     * @return Name of the experiment that bootstrapped the call site.
+     */
+    public String getExperiment() {
+        return this.experiment;
+    }
+
+    /**
+     * Gets the name of the method linked by the call site.
+     *
+     * @return Name of the method linked by the call site.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the type of the call site.
+     *
+     * @return Type of the call site.
+     */
+    public String getType() {
+        return this.type;
+    }
+
+    /**
+     * Gets the state of the call site.
+     *
+     * @return State of the call site.
+     */
+    public String getState() {
+        return this.state;
+    }
+
+    @Override
+    public String toString() {
+        return "CallSiteInfo{experiment=" + this.getExperiment()
+                + ",name=" + this.getName()
+                + ",type=" + this.getType()
+                + ",state=" + this.getState() + "}";
+    }
+}
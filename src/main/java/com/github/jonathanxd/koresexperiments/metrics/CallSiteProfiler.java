@@ -0,0 +1,219 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.metrics;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MutableCallSite;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Opt-in profiler of call sites registered in {@link CallSiteRegistry}.
+ *
+ * When {@link #start() started}, the target of every tracked mutable call site (call sites
+ * bootstrapped while the registry is {@link CallSiteRegistry#setEnabled(boolean) enabled}, and
+ * every call site bootstrapped while the profiler is active) is wrapped through {@link
+ * CallSite#setTarget} with a handle that samples one of each {@code sampleInterval} invocations,
+ * recording the class of the receiver and estimating the amount of invocations. The sampling
+ * decision is taken by the invoking thread, so profiled call sites do not share a mutable counter
+ * between threads. When {@link #stop() stopped}, original targets are restored, so there is no
+ * cost while the profiler is not active.
+ *
+ * Every profiled invocation is the current call site of its thread while it runs, so invocations
+ * that go through the resolution slow path are counted exactly, sampled or not.
+ */
+public final class CallSiteProfiler {
+
+    /**
+     * Default interval of sampling, one of each {@code 64} invocations is sampled.
+     */
+    public static final int DEFAULT_SAMPLE_INTERVAL = 64;
+
+    /**
+     * Profiled call sites being invoked by each thread, the innermost first. Sites are only in
+     * the stack while they are invoked, so finished profiles are never retained.
+     */
+    private static final ThreadLocal<Deque<SiteProfile>> CURRENT = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Replaces the current call site once its slow path is recorded, so it is recorded once per
+     * invocation.
+     */
+    private static final SiteProfile RECORDED = new SiteProfile(null, 1);
+    private static volatile boolean active;
+    private static volatile int sampleInterval = DEFAULT_SAMPLE_INTERVAL;
+
+    private CallSiteProfiler() {
+    }
+
+    /**
+     * Starts profiling with {@link #DEFAULT_SAMPLE_INTERVAL}.
+     */
+    public static void start() {
+        CallSiteProfiler.start(DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Starts profiling all registered call sites, does nothing if the profiler is already
+     * active.
+     *
+     * @param sampleInterval Interval of sampling, must be a power of two, {@code 1} records every
+     *                       invocation.
+     */
+    public static synchronized void start(int sampleInterval) {
+        if (sampleInterval <= 0 || Integer.bitCount(sampleInterval) != 1)
+            throw new IllegalArgumentException("Sample interval must be a power of two. Interval: "
+                    + sampleInterval + ".");
+
+        if (active)
+            return;
+
+        CallSiteProfiler.sampleInterval = sampleInterval;
+        active = true;
+
+        List<MutableCallSite> changed = new ArrayList<>();
+
+        for (CallSiteEntry entry : CallSiteRegistry.entries()) {
+            if (entry.startProfiling(sampleInterval) && entry.getCallSite() instanceof MutableCallSite)
+                changed.add((MutableCallSite) entry.getCallSite());
+        }
+
+        MutableCallSite.syncAll(changed.toArray(new MutableCallSite[0]));
+    }
+
+    /**
+     * Stops profiling and restores original targets of all profiled call sites.
+     *
+     * @return Profiles collected since the profiler was started.
+     */
+    public static synchronized List<SiteProfileInfo> stop() {
+        List<SiteProfileInfo> profiles = new ArrayList<>();
+
+        if (!active)
+            return profiles;
+
+        active = false;
+
+        for (CallSiteEntry entry : CallSiteRegistry.entries()) {
+            SiteProfileInfo profile = entry.stopProfiling();
+
+            if (profile != null)
+                profiles.add(profile);
+        }
+
+        return profiles;
+    }
+
+    /**
+     * Returns whether the profiler is active.
+     *
+     * @return Whether the profiler is active.
+     */
+    public static boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Gets the current profiles of all profiled call sites.
+     *
+     * @return Current profiles of all profiled call sites.
+     */
+    public static List<SiteProfileInfo> report() {
+        List<SiteProfileInfo> profiles = new ArrayList<>();
+
+        for (CallSiteEntry entry : CallSiteRegistry.entries()) {
+            SiteProfileInfo profile = entry.getProfile();
+
+            if (profile != null)
+                profiles.add(profile);
+        }
+
+        return profiles;
+    }
+
+    /**
+     * Gets the {@code limit} most invoked call sites.
+     *
+     * @param limit Maximum amount of call sites to return.
+     * @return Most invoked call sites, ordered by invocations.
+     */
+    public static List<SiteProfileInfo> hottest(int limit) {
+        List<SiteProfileInfo> profiles = CallSiteProfiler.report();
+        profiles.sort(Comparator.comparingLong(SiteProfileInfo::getInvocations).reversed());
+        return profiles.subList(0, Math.min(limit, profiles.size()));
+    }
+
+    /**
+     * Gets the {@code limit} most invoked {@link SiteProfileInfo#isMegamorphic() megamorphic}
+     * call sites.
+     *
+     * @param limit Maximum amount of call sites to return.
+     * @return Most invoked megamorphic call sites, ordered by invocations.
+     */
+    public static List<SiteProfileInfo> megamorphic(int limit) {
+        List<SiteProfileInfo> profiles = CallSiteProfiler.report();
+        profiles.removeIf(profile -> !profile.isMegamorphic());
+        profiles.sort(Comparator.comparingLong(SiteProfileInfo::getInvocations).reversed());
+        return profiles.subList(0, Math.min(limit, profiles.size()));
+    }
+
+    /**
+     * Records that current invocation went through the resolution slow path. Invocations are
+     * attributed to the innermost profiled call site being invoked by the current thread, and are
+     * recorded once per invocation.
+     */
+    public static void recordSlowPath() {
+        if (!active)
+            return;
+
+        Deque<SiteProfile> current = CURRENT.get();
+        SiteProfile profile = current.peek();
+
+        if (profile != null && profile != RECORDED) {
+            current.pop();
+            current.push(RECORDED);
+            profile.recordSlowPath();
+        }
+    }
+
+    static void enter(SiteProfile profile) {
+        CURRENT.get().push(profile);
+    }
+
+    static void exit() {
+        CURRENT.get().pop();
+    }
+
+    static void onRegister(CallSiteEntry entry) {
+        if (active)
+            entry.startProfiling(sampleInterval);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.metrics;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodType;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in registry of call sites bootstrapped by experiments, used to observe call sites ({@link
+ * KoresMetrics#snapshot()}, {@link CallSiteProfiler}). Call sites are only tracked while the
+ * registry is {@link #setEnabled(boolean) enabled} (enabled by default if {@link
+ * #REGISTRY_PROPERTY_NAME} system property is set to {@code true}) or the {@link CallSiteProfiler}
+ * is active, call sites bootstrapped otherwise are not tracked.
+ *
+ * Call sites are weakly referenced, so registering a call site does not prevent the generated class
+ * which links to it from being unloaded, and entries of collected call sites are removed when the
+ * next call site is registered.
+ */
+public final class CallSiteRegistry {
+
+    /**
+     * Name of the property used to determine whether the registry is enabled at startup or not.
+     */
+    public static final String REGISTRY_PROPERTY_NAME = "kores_experiments.call_site_registry";
+
+    private static final Set<CallSiteEntry> ENTRIES = ConcurrentHashMap.newKeySet();
+    private static final ReferenceQueue<CallSite> COLLECTED = new ReferenceQueue<>();
+    private static volatile boolean enabled = Boolean.valueOf(System.getProperty(REGISTRY_PROPERTY_NAME, "false"));
+
+    private CallSiteRegistry() {
+    }
+
+    /**
+     * Returns whether call sites are tracked by the registry, regardless of the {@link
+     * CallSiteProfiler}.
+     *
+     * @return Whether call sites are tracked by the registry.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables tracking of call sites bootstrapped from now on. Disabling the registry
+     * does not forget call sites already tracked.
+     *
+     * @param enabled Whether call sites should be tracked.
+     */
+    public static void setEnabled(boolean enabled) {
+        CallSiteRegistry.enabled = enabled;
+    }
+
+    /**
+     * Creates the entry of a call site bootstrapped by {@code experiment}, and tracks it if the
+     * registry is enabled or the {@link CallSiteProfiler} is active. The entry is used to update
+     * the call site either way.
+     *
+     * @param experiment Name of the experiment that bootstrapped the call site.
+     * @param name       Name of the method linked by the call site.
+     * @param type       Type of the call site.
+     * @param site       Call site to register.
+     * @param state      Initial state of the call site.
+     * @return Entry of the call site, used to update the call site state.
+     */
+    public static CallSiteEntry register(String experiment,
+                                         String name,
+                                         MethodType type,
+                                         CallSite site,
+                                         String state) {
+        if (!enabled && !CallSiteProfiler.isActive())
+            return new CallSiteEntry(experiment, name, type, site, state, null);
+
+        CallSiteRegistry.expunge();
+
+        CallSiteEntry entry = new CallSiteEntry(experiment, name, type, site, state, COLLECTED);
+        ENTRIES.add(entry);
+        CallSiteProfiler.onRegister(entry);
+        return entry;
+    }
+
+    /**
+     * Gets all tracked entries of call sites that are still alive.
+     *
+     * @return Entries of live call sites.
+     */
+    public static List<CallSiteEntry> entries() {
+        CallSiteRegistry.expunge();
+
+        List<CallSiteEntry> entries = new ArrayList<>();
+
+        for (CallSiteEntry entry : ENTRIES) {
+            if (entry.getCallSite() != null)
+                entries.add(entry);
+        }
+
+        return entries;
+    }
+
+    /**
+     * Gets information about all call sites that are still alive.
+     *
+     * @return Information about live call sites.
+     */
+    public static List<CallSiteInfo> list() {
+        List<CallSiteInfo> infos = new ArrayList<>();
+
+        for (CallSiteEntry entry : CallSiteRegistry.entries()) {
+            infos.add(entry.toInfo());
+        }
+
+        return Collections.unmodifiableList(infos);
+    }
+
+    /**
+     * Removes entries of collected call sites.
+     */
+    private static void expunge() {
+        Reference<? extends CallSite> reference;
+
+        while ((reference = COLLECTED.poll()) != null) {
+            ENTRIES.remove(((CallSiteEntry.SiteReference) reference).getEntry());
+        }
+    }
+}
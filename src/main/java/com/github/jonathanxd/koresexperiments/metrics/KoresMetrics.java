@@ -0,0 +1,262 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.metrics;
+
+import com.github.jonathanxd.iutils.exception.RethrowException;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Runtime counters of class generation, call site linking and method resolution.
+ *
+ * All counters are {@link LongAdder striped}, so recording from the dispatch hot path does not
+ * contend on a single memory location. Use {@link #snapshot()} to read current values
+ * programmatically or {@link #registerMBean()} to expose them through JMX (this is done
+ * automatically if {@link #JMX_PROPERTY_NAME} system property is set to {@code true}).
+ */
+public final class KoresMetrics {
+
+    /**
+     * Name of the property used to determine whether to register the metrics MBean at startup or
+     * not.
+     */
+    public static final String JMX_PROPERTY_NAME = "kores_experiments.jmx";
+
+    /**
+     * Name of the metrics MBean.
+     */
+    public static final String OBJECT_NAME = "com.github.jonathanxd.koresexperiments:type=Metrics";
+
+    private static final ConcurrentMap<String, LongAdder> CLASSES_GENERATED = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, LongAdder> BOOTSTRAPS = new ConcurrentHashMap<>();
+    private static final LongAdder BYTES_GENERATED = new LongAdder();
+    private static final LongAdder CODEGEN_NANOS = new LongAdder();
+    private static final LongAdder RELINKS = new LongAdder();
+    private static final LongAdder RESOLUTION_HITS = new LongAdder();
+    private static final LongAdder RESOLUTION_MISSES = new LongAdder();
+    private static final LongAdder RESOLUTION_FAILURE_HITS = new LongAdder();
+    private static final LongAdder MEMO_HITS = new LongAdder();
+    private static final LongAdder MEMO_MISSES = new LongAdder();
+    private static final LongAdder MEMO_EVICTIONS = new LongAdder();
+
+    static {
+        if (Boolean.valueOf(System.getProperty(JMX_PROPERTY_NAME, "false")))
+            KoresMetrics.registerMBean();
+    }
+
+    private KoresMetrics() {
+    }
+
+    /**
+     * Records generation of {@code classes} classes with {@code bytes} total size by {@code
+     * module}, which took {@code nanos} nanoseconds to be processed.
+     *
+     * @param module  Name of the module (or experiment) that generated the classes.
+     * @param classes Amount of generated classes.
+     * @param bytes   Size of all generated classes.
+     * @param nanos   Time spent generating the bytecode.
+     */
+    public static void recordGeneration(String module, int classes, long bytes, long nanos) {
+        KoresMetrics.adder(CLASSES_GENERATED, module).add(classes);
+        BYTES_GENERATED.add(bytes);
+        CODEGEN_NANOS.add(nanos);
+    }
+
+    /**
+     * Records a bootstrap of a call site by {@code experiment}.
+     *
+     * @param experiment Name of the experiment that bootstrapped the call site.
+     */
+    public static void recordBootstrap(String experiment) {
+        KoresMetrics.adder(BOOTSTRAPS, experiment).increment();
+    }
+
+    /**
+     * Records a change of target of an already bootstrapped call site.
+     */
+    public static void recordRelink() {
+        RELINKS.increment();
+    }
+
+    /**
+     * Records a dynamic resolution that was served from cache.
+     */
+    public static void recordResolutionHit() {
+        RESOLUTION_HITS.increment();
+    }
+
+    /**
+     * Records a dynamic resolution that was not cached and had to search for the target method.
+     */
+    public static void recordResolutionMiss() {
+        RESOLUTION_MISSES.increment();
+    }
+
+    /**
+     * Records a failed resolution that was signaled from cache instead of searching for the target
+     * method again.
+     */
+    public static void recordResolutionFailureHit() {
+        RESOLUTION_FAILURE_HITS.increment();
+    }
+
+    /**
+     * Records an invocation served from a memoization cache.
+     */
+    public static void recordMemoHit() {
+        MEMO_HITS.increment();
+    }
+
+    /**
+     * Records an invocation that was not memoized and had to invoke the target.
+     */
+    public static void recordMemoMiss() {
+        MEMO_MISSES.increment();
+    }
+
+    /**
+     * Records the eviction of a memoized result, either because the cache was full or because the
+     * result expired.
+     */
+    public static void recordMemoEviction() {
+        MEMO_EVICTIONS.increment();
+    }
+
+    /**
+     * Creates a snapshot of current values of all counters and of all live call sites.
+     *
+     * @return Snapshot of current metrics.
+     */
+    public static MetricsSnapshot snapshot() {
+        return KoresMetrics.snapshot(CallSiteRegistry.list());
+    }
+
+    /**
+     * Creates a snapshot of current values of all counters, without call sites.
+     *
+     * @return Snapshot of current counters.
+     */
+    static MetricsSnapshot counters() {
+        return KoresMetrics.snapshot(Collections.emptyList());
+    }
+
+    private static MetricsSnapshot snapshot(List<CallSiteInfo> callSites) {
+        return new MetricsSnapshot(
+                KoresMetrics.sum(CLASSES_GENERATED),
+                BYTES_GENERATED.sum(),
+                CODEGEN_NANOS.sum(),
+                KoresMetrics.sum(BOOTSTRAPS),
+                RELINKS.sum(),
+                RESOLUTION_HITS.sum(),
+                RESOLUTION_MISSES.sum(),
+                RESOLUTION_FAILURE_HITS.sum(),
+                MEMO_HITS.sum(),
+                MEMO_MISSES.sum(),
+                MEMO_EVICTIONS.sum(),
+                callSites
+        );
+    }
+
+    /**
+     * Resets all counters to zero. Call sites are not affected.
+     */
+    public static void reset() {
+        CLASSES_GENERATED.clear();
+        BOOTSTRAPS.clear();
+        BYTES_GENERATED.reset();
+        CODEGEN_NANOS.reset();
+        RELINKS.reset();
+        RESOLUTION_HITS.reset();
+        RESOLUTION_MISSES.reset();
+        RESOLUTION_FAILURE_HITS.reset();
+        MEMO_HITS.reset();
+        MEMO_MISSES.reset();
+        MEMO_EVICTIONS.reset();
+    }
+
+    /**
+     * Registers the metrics MBean in the platform {@link MBeanServer} under {@link #OBJECT_NAME},
+     * does nothing if it is already registered.
+     */
+    public static synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+
+            if (!server.isRegistered(name))
+                server.registerMBean(new KoresMetricsBean(), name);
+        } catch (Exception e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
+    /**
+     * Unregisters the metrics MBean from the platform {@link MBeanServer}, does nothing if it is
+     * not registered.
+     */
+    public static synchronized void unregisterMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+        } catch (Exception e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
+    private static LongAdder adder(ConcurrentMap<String, LongAdder> map, String key) {
+        LongAdder adder = map.get(key);
+
+        if (adder == null)
+            adder = map.computeIfAbsent(key, k -> new LongAdder());
+
+        return adder;
+    }
+
+    private static Map<String, Long> sum(Map<String, LongAdder> map) {
+        Map<String, Long> sums = new HashMap<>();
+
+        for (Map.Entry<String, LongAdder> entry : map.entrySet()) {
+            sums.put(entry.getKey(), entry.getValue().sum());
+        }
+
+        return Collections.unmodifiableMap(sums);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link KoresMetricsMXBean} that reads current counters on each attribute
+ * access.
+ */
+final class KoresMetricsBean implements KoresMetricsMXBean {
+
+    @Override
+    public Map<String, Long> getClassesGenerated() {
+        return KoresMetrics.counters().getClassesGenerated();
+    }
+
+    @Override
+    public long getBytesGenerated() {
+        return KoresMetrics.counters().getBytesGenerated();
+    }
+
+    @Override
+    public long getCodegenNanos() {
+        return KoresMetrics.counters().getCodegenNanos();
+    }
+
+    @Override
+    public Map<String, Long> getBootstraps() {
+        return KoresMetrics.counters().getBootstraps();
+    }
+
+    @Override
+    public long getRelinks() {
+        return KoresMetrics.counters().getRelinks();
+    }
+
+    @Override
+    public long getResolutionHits() {
+        return KoresMetrics.counters().getResolutionHits();
+    }
+
+    @Override
+    public long getResolutionMisses() {
+        return KoresMetrics.counters().getResolutionMisses();
+    }
+
+    @Override
+    public double getResolutionHitRate() {
+        return KoresMetrics.counters().getResolutionHitRate();
+    }
+
+    @Override
+    public long getResolutionFailureHits() {
+        return KoresMetrics.counters().getResolutionFailureHits();
+    }
+
+    @Override
+    public long getMemoHits() {
+        return KoresMetrics.counters().getMemoHits();
+    }
+
+    @Override
+    public long getMemoMisses() {
+        return KoresMetrics.counters().getMemoMisses();
+    }
+
+    @Override
+    public long getMemoEvictions() {
+        return KoresMetrics.counters().getMemoEvictions();
+    }
+
+    @Override
+    public double getMemoHitRate() {
+        return KoresMetrics.counters().getMemoHitRate();
+    }
+
+    @Override
+    public List<CallSiteInfo> getCallSites() {
+        return CallSiteRegistry.list();
+    }
+
+    @Override
+    public void reset() {
+        KoresMetrics.reset();
+    }
+}
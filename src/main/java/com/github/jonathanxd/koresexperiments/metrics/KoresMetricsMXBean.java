@@ -0,0 +1,112 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JMX view of {@link KoresMetrics}.
+ */
+public interface KoresMetricsMXBean {
+
+    /**
+     * @see MetricsSnapshot#getClassesGenerated()
+     */
+    Map<String, Long> getClassesGenerated();
+
+    /**
+     * @see MetricsSnapshot#getBytesGenerated()
+     */
+    long getBytesGenerated();
+
+    /**
+     * @see MetricsSnapshot#getCodegenNanos()
+     */
+    long getCodegenNanos();
+
+    /**
+     * @see MetricsSnapshot#getBootstraps()
+     */
+    Map<String, Long> getBootstraps();
+
+    /**
+     * @see MetricsSnapshot#getRelinks()
+     */
+    long getRelinks();
+
+    /**
+     * @see MetricsSnapshot#getResolutionHits()
+     */
+    long getResolutionHits();
+
+    /**
+     * @see MetricsSnapshot#getResolutionMisses()
+     */
+    long getResolutionMisses();
+
+    /**
+     * @see MetricsSnapshot#getResolutionHitRate()
+     */
+    double getResolutionHitRate();
+
+    /**
+     * @see MetricsSnapshot#getResolutionFailureHits()
+     */
+    long getResolutionFailureHits();
+
+    /**
+     * @see MetricsSnapshot#getMemoHits()
+     */
+    long getMemoHits();
+
+    /**
+     * @see MetricsSnapshot#getMemoMisses()
+     */
+    long getMemoMisses();
+
+    /**
+     * @see MetricsSnapshot#getMemoEvictions()
+     */
+    long getMemoEvictions();
+
+    /**
+     * @see MetricsSnapshot#getMemoHitRate()
+     */
+    double getMemoHitRate();
+
+    /**
+     * @see MetricsSnapshot#getCallSites()
+     */
+    List<CallSiteInfo> getCallSites();
+
+    /**
+     * @see KoresMetrics#reset()
+     */
+    void reset();
+}
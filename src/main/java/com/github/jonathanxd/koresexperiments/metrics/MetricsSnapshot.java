@@ -0,0 +1,222 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of {@link KoresMetrics}.
+ */
+public final class MetricsSnapshot {
+    private final Map<String, Long> classesGenerated;
+    private final long bytesGenerated;
+    private final long codegenNanos;
+    private final Map<String, Long> bootstraps;
+    private final long relinks;
+    private final long resolutionHits;
+    private final long resolutionMisses;
+    private final long resolutionFailureHits;
+    private final long memoHits;
+    private final long memoMisses;
+    private final long memoEvictions;
+    private final List<CallSiteInfo> callSites;
+
+    MetricsSnapshot(Map<String, Long> classesGenerated,
+                    long bytesGenerated,
+                    long codegenNanos,
+                    Map<String, Long> bootstraps,
+                    long relinks,
+                    long resolutionHits,
+                    long resolutionMisses,
+                    long resolutionFailureHits,
+                    long memoHits,
+                    long memoMisses,
+                    long memoEvictions,
+                    List<CallSiteInfo> callSites) {
+        this.classesGenerated = classesGenerated;
+        this.bytesGenerated = bytesGenerated;
+        this.codegenNanos = codegenNanos;
+        this.bootstraps = bootstraps;
+        this.relinks = relinks;
+        this.resolutionHits = resolutionHits;
+        this.resolutionMisses = resolutionMisses;
+        this.resolutionFailureHits = resolutionFailureHits;
+        this.memoHits = memoHits;
+        this.memoMisses = memoMisses;
+        this.memoEvictions = memoEvictions;
+        this.callSites = callSites;
+    }
+
+    /**
+     * Gets the amount of generated classes per module (or experiment).
+     *
+     * @return Amount of generated classes per module.
+     */
+    public Map<String, Long> getClassesGenerated() {
+        return this.classesGenerated;
+    }
+
+    /**
+     * Gets the size of all generated classes.
+     *
+     * @return Size of all generated classes.
+     */
+    public long getBytesGenerated() {
+        return this.bytesGenerated;
+    }
+
+    /**
+     * Gets the time spent generating bytecode, in nanoseconds.
+     *
+     * @return Time spent generating bytecode, in nanoseconds.
+     */
+    public long getCodegenNanos() {
+        return this.codegenNanos;
+    }
+
+    /**
+     * Gets the amount of bootstrapped call sites per experiment.
+     *
+     * @return Amount of bootstrapped call sites per experiment.
+     */
+    public Map<String, Long> getBootstraps() {
+        return this.bootstraps;
+    }
+
+    /**
+     * Gets the amount of times that the target of a bootstrapped call site was changed.
+     *
+     * @return Amount of relinks.
+     */
+    public long getRelinks() {
+        return this.relinks;
+    }
+
+    /**
+     * Gets the amount of dynamic resolutions served from cache.
+     *
+     * @return Amount of dynamic resolutions served from cache.
+     */
+    public long getResolutionHits() {
+        return this.resolutionHits;
+    }
+
+    /**
+     * Gets the amount of dynamic resolutions that had to search for the target method.
+     *
+     * @return Amount of dynamic resolutions that had to search for the target method.
+     */
+    public long getResolutionMisses() {
+        return this.resolutionMisses;
+    }
+
+    /**
+     * Gets the rate of dynamic resolutions served from cache, or {@code 0} if no resolution
+     * happened.
+     *
+     * @return Rate of dynamic resolutions served from cache.
+     */
+    public double getResolutionHitRate() {
+        long total = this.resolutionHits + this.resolutionMisses;
+        return total == 0 ? 0 : (double) this.resolutionHits / total;
+    }
+
+    /**
+     * Gets the amount of failed resolutions signaled from cache, without searching for the target
+     * method again.
+     *
+     * @return Amount of failed resolutions signaled from cache.
+     */
+    public long getResolutionFailureHits() {
+        return this.resolutionFailureHits;
+    }
+
+    /**
+     * Gets the amount of invocations served from memoization caches.
+     *
+     * @return Amount of invocations served from memoization caches.
+     */
+    public long getMemoHits() {
+        return this.memoHits;
+    }
+
+    /**
+     * Gets the amount of memoized invocations that had to invoke the target.
+     *
+     * @return Amount of memoized invocations that had to invoke the target.
+     */
+    public long getMemoMisses() {
+        return this.memoMisses;
+    }
+
+    /**
+     * Gets the amount of memoized results evicted because caches were full or results expired.
+     *
+     * @return Amount of evicted memoized results.
+     */
+    public long getMemoEvictions() {
+        return this.memoEvictions;
+    }
+
+    /**
+     * Gets the rate of memoized invocations served from cache, or {@code 0} if no memoized
+     * invocation happened.
+     *
+     * @return Rate of memoized invocations served from cache.
+     */
+    public double getMemoHitRate() {
+        long total = this.memoHits + this.memoMisses;
+        return total == 0 ? 0 : (double) this.memoHits / total;
+    }
+
+    /**
+     * Gets information about all live call sites.
+     *
+     * @return Information about all live call sites.
+     */
+    public List<CallSiteInfo> getCallSites() {
+        return this.callSites;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsSnapshot{classesGenerated=" + this.getClassesGenerated()
+                + ",bytesGenerated=" + this.getBytesGenerated()
+                + ",codegenNanos=" + this.getCodegenNanos()
+                + ",bootstraps=" + this.getBootstraps()
+                + ",relinks=" + this.getRelinks()
+                + ",resolutionHits=" + this.getResolutionHits()
+                + ",resolutionMisses=" + this.getResolutionMisses()
+                + ",resolutionFailureHits=" + this.getResolutionFailureHits()
+                + ",memoHits=" + this.getMemoHits()
+                + ",memoMisses=" + this.getMemoMisses()
+                + ",memoEvictions=" + this.getMemoEvictions()
+                + ",callSites=" + this.getCallSites().size() + "}";
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.metrics;
+
+import com.github.jonathanxd.iutils.exception.RethrowException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of a profiled call site, see {@link CallSiteProfiler}.
+ *
+ * Every profiled invocation enters the site for the current thread (and leaves it when the
+ * invocation completes, normally or not), so slow paths are attributed to the invocation that
+ * took them and counted exactly. Only one of each {@code sampleInterval} invocations, chosen at
+ * random by the invoking thread, records the receiver class, and invocations are estimated from
+ * these samples (each sample counts as {@code sampleInterval} invocations).
+ */
+final class SiteProfile {
+    private static final MethodHandle RECORD;
+    private static final MethodHandle EXIT;
+    private static final MethodHandle EXIT_EXCEPTIONALLY;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+            RECORD = lookup.findVirtual(SiteProfile.class, "record",
+                    MethodType.methodType(Void.TYPE, Object.class));
+            EXIT = lookup.findStatic(CallSiteProfiler.class, "exit", MethodType.methodType(Void.TYPE));
+            EXIT_EXCEPTIONALLY = lookup.findStatic(SiteProfile.class, "exitExceptionally",
+                    MethodType.methodType(Throwable.class, Throwable.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw RethrowException.rethrow(e);
+        }
+    }
+
+    private final CallSiteEntry entry;
+    private final int sampleInterval;
+    private final int sampleMask;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder slowPath = new LongAdder();
+    private final ConcurrentMap<Class<?>, LongAdder> receivers = new ConcurrentHashMap<>();
+
+    SiteProfile(CallSiteEntry entry, int sampleInterval) {
+        this.entry = entry;
+        this.sampleInterval = sampleInterval;
+        this.sampleMask = sampleInterval - 1;
+    }
+
+    /**
+     * Wraps {@code target} with a handle that enters this site and records the invocation before
+     * invoking {@code target}, and leaves this site after {@code target} completes.
+     *
+     * @param target Target to wrap.
+     * @return Wrapped target.
+     */
+    MethodHandle wrap(MethodHandle target) {
+        MethodType type = target.type();
+        Class<?> returnType = type.returnType();
+        MethodHandle record = RECORD.bindTo(this);
+
+        if (type.parameterCount() == 0)
+            record = MethodHandles.insertArguments(record, 0, (Object) null);
+        else
+            record = record.asType(MethodType.methodType(Void.TYPE, type.parameterType(0)));
+
+        MethodHandle rethrow = MethodHandles.filterReturnValue(EXIT_EXCEPTIONALLY,
+                MethodHandles.throwException(returnType, Throwable.class));
+        MethodHandle guarded = MethodHandles.catchException(MethodHandles.foldArguments(target, record),
+                Throwable.class, MethodHandles.dropArguments(rethrow, 1, type.parameterList()));
+        MethodHandle exit = returnType == Void.TYPE
+                ? EXIT
+                : MethodHandles.foldArguments(MethodHandles.identity(returnType), EXIT);
+
+        return MethodHandles.filterReturnValue(guarded, exit);
+    }
+
+    private static Throwable exitExceptionally(Throwable throwable) {
+        CallSiteProfiler.exit();
+        return throwable;
+    }
+
+    private void record(Object receiver) {
+        CallSiteProfiler.enter(this);
+
+        if ((ThreadLocalRandom.current().nextInt() & this.sampleMask) != 0)
+            return;
+
+        this.invocations.add(this.sampleInterval);
+
+        if (receiver != null) {
+            LongAdder adder = this.receivers.get(receiver.getClass());
+
+            if (adder == null)
+                adder = this.receivers.computeIfAbsent(receiver.getClass(), k -> new LongAdder());
+
+            adder.increment();
+        }
+    }
+
+    void recordSlowPath() {
+        this.slowPath.increment();
+    }
+
+    SiteProfileInfo toInfo() {
+        Map<String, Long> receivers = new HashMap<>();
+
+        for (Map.Entry<Class<?>, LongAdder> receiver : this.receivers.entrySet()) {
+            receivers.put(receiver.getKey().getName(), receiver.getValue().sum());
+        }
+
+        return new SiteProfileInfo(this.entry.toInfo(), this.invocations.sum(), this.slowPath.sum(),
+                receivers);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Snapshot of the profile of a call site, see {@link CallSiteProfiler}.
+ */
+public final class SiteProfileInfo {
+
+    /**
+     * Amount of distinct receiver classes from which a call site is considered megamorphic.
+     */
+    public static final int MEGAMORPHIC_THRESHOLD = 3;
+
+    private final CallSiteInfo callSite;
+    private final long invocations;
+    private final long slowPathInvocations;
+    private final Map<String, Long> receiverClasses;
+
+    SiteProfileInfo(CallSiteInfo callSite, long invocations, long slowPathInvocations,
+                    Map<String, Long> receiverClasses) {
+        this.callSite = callSite;
+        this.invocations = invocations;
+        this.slowPathInvocations = slowPathInvocations;
+        this.receiverClasses = Collections.unmodifiableMap(receiverClasses);
+    }
+
+    /**
+     * Gets the profiled call site.
+     *
+     * @return Profiled call site.
+     */
+    public CallSiteInfo getCallSite() {
+        return this.callSite;
+    }
+
+    /**
+     * Gets the amount of invocations of the call site while it was profiled, estimated from the
+     * sampled invocations (exact with a sample interval of {@code 1}).
+     *
+     * @return Amount of invocations of the call site.
+     */
+    public long getInvocations() {
+        return this.invocations;
+    }
+
+    /**
+     * Gets the amount of invocations which went through the resolution slow path (uncached
+     * resolution or relinking), counted for every profiled invocation, sampled or not.
+     *
+     * @return Amount of invocations through the resolution slow path.
+     */
+    public long getSlowPathInvocations() {
+        return this.slowPathInvocations;
+    }
+
+    /**
+     * Gets the share of invocations which went through the resolution slow path.
+     *
+     * @return Share of invocations through the resolution slow path.
+     */
+    public double getSlowPathShare() {
+        return this.invocations == 0 ? 0 : Math.min(1.0, (double) this.slowPathInvocations / this.invocations);
+    }
+
+    /**
+     * Gets the sampled histogram of receiver classes (class name to amount of samples).
+     *
+     * @return Sampled histogram of receiver classes.
+     */
+    public Map<String, Long> getReceiverClasses() {
+        return this.receiverClasses;
+    }
+
+    /**
+     * Returns whether at least {@link #MEGAMORPHIC_THRESHOLD} distinct receiver classes were
+     * sampled.
+     *
+     * @return Whether the call site is megamorphic.
+     */
+    public boolean isMegamorphic() {
+        return this.receiverClasses.size() >= MEGAMORPHIC_THRESHOLD;
+    }
+
+    @Override
+    public String toString() {
+        return "SiteProfileInfo{callSite=" + this.getCallSite()
+                + ",invocations=" + this.getInvocations()
+                + ",slowPathShare=" + this.getSlowPathShare()
+                + ",receiverClasses=" + this.getReceiverClasses() + "}";
+    }
+}
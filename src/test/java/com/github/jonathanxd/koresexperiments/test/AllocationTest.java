@@ -0,0 +1,207 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.DynamicDispatch;
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.LateBinding;
+import com.github.jonathanxd.koresexperiments.annotation.Dynamic;
+import com.github.jonathanxd.koresexperiments.annotation.Experiment;
+import com.github.jonathanxd.koresexperiments.annotation.Static;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Asserts that warmed up invocations stay within the allocation budget of each experiment.
+ *
+ * Budgets are expressed in bytes per invocation, a zero budget means that the steady-state
+ * invocation must not allocate at all. Budgets of experiments that still allocate in the hot path
+ * are upper bounds of their current behavior and must only decrease.
+ */
+public class AllocationTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 5_000_000;
+
+    /**
+     * Tolerance for one-off allocations (lazy initialization, JIT transitions) over all
+     * iterations, any per-invocation allocation is way above this.
+     */
+    private static final long SLACK = 16 * 1024;
+
+    private static final long LATE_BINDING_BUDGET = 0;
+    private static final long DYNAMIC_DISPATCH_BUDGET = 0;
+    private static final long DYNAMIC_DISPATCH_STATIC_BUDGET = 0;
+
+    /**
+     * The generated method of {@link Dynamic} call sites creates the array of argument types of
+     * each invocation: 24 bytes for one argument with compressed class pointers, 32 bytes
+     * without. The resolved handle itself is served from cache without allocating.
+     */
+    private static final long DYNAMIC_DISPATCH_DYNAMIC_BUDGET = 32;
+
+    @Test
+    public void lateBindingAllocation() {
+        Base base = KoresExperimentsIndyHelper.create(Base.class, LateBinding.EXPERIMENT);
+        BaseWithInt withInt = KoresExperimentsIndyHelper.create(BaseWithInt.class, LateBinding.EXPERIMENT);
+        MyObject object = new MyObject();
+
+        assertBudget("LateBinding", LATE_BINDING_BUDGET, () -> base.hello(object));
+        assertBudget("LateBinding (int)", LATE_BINDING_BUDGET, () -> withInt.hello(object, 9));
+    }
+
+    @Test
+    public void dynamicDispatchAllocation() {
+        Base base = KoresExperimentsIndyHelper.create(Base.class, DynamicDispatch.EXPERIMENT);
+        BaseWithInt withInt = KoresExperimentsIndyHelper.create(BaseWithInt.class, DynamicDispatch.EXPERIMENT);
+        MyObject object = new MyObject();
+
+        assertBudget("DynamicDispatch", DYNAMIC_DISPATCH_BUDGET, () -> base.hello(object));
+        assertBudget("DynamicDispatch (int)", DYNAMIC_DISPATCH_BUDGET, () -> withInt.hello(object, 9));
+    }
+
+    @Test
+    public void wideSignatureAllocation() {
+        WideBase late = KoresExperimentsIndyHelper.create(WideBase.class, LateBinding.EXPERIMENT);
+        WideBase dispatch = KoresExperimentsIndyHelper.create(WideBase.class, DynamicDispatch.EXPERIMENT);
+        MyObject object = new MyObject();
+        String s = "s";
+
+        assertBudget("LateBinding (12 arguments)", LATE_BINDING_BUDGET,
+                () -> late.hello(object, s, s, s, s, s, s, s, s, s, s, s, s));
+        assertBudget("DynamicDispatch (12 arguments)", DYNAMIC_DISPATCH_BUDGET,
+                () -> dispatch.hello(object, s, s, s, s, s, s, s, s, s, s, s, s));
+    }
+
+    @Test
+    public void dynamicDispatchStaticAllocation() {
+        StaticBase base = KoresExperimentsIndyHelper.createFromInterface(StaticBase.class);
+        MyObject object = new MyObject();
+
+        assertBudget("DynamicDispatch @Static", DYNAMIC_DISPATCH_STATIC_BUDGET, () -> base.staticHello(object));
+    }
+
+    @Test
+    public void dynamicDispatchDynamicAllocation() {
+        DynamicBase base = KoresExperimentsIndyHelper.createFromInterface(DynamicBase.class);
+        MyObject object = new MyObject();
+
+        assertBudget("DynamicDispatch @Dynamic", DYNAMIC_DISPATCH_DYNAMIC_BUDGET, () -> base.hello(object, "man"));
+    }
+
+    private static void assertBudget(String name, long budget, Invocation invocation) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean,
+                "Thread allocation counters are not available.");
+
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+
+        Assumptions.assumeTrue(threadBean.isThreadAllocatedMemorySupported(),
+                "Thread allocation counters are not supported.");
+
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        long threadId = Thread.currentThread().getId();
+        int sink = 0;
+
+        for (int i = 0; i < WARMUP; i++) {
+            sink += invocation.invoke().length();
+        }
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += invocation.invoke().length();
+        }
+
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        Assertions.assertTrue(sink > 0);
+        Assertions.assertTrue(allocated <= budget * ITERATIONS + SLACK,
+                name + " allocated " + ((double) allocated / ITERATIONS) + " bytes per invocation"
+                        + ", budget: " + budget + " bytes per invocation.");
+    }
+
+    @FunctionalInterface
+    private interface Invocation {
+        String invoke();
+    }
+
+    public interface Base {
+        String hello(Object o);
+    }
+
+    public interface BaseWithInt {
+        String hello(Object o, int n);
+    }
+
+    public interface WideBase {
+        String hello(Object o, String a, String b, String c, String d, String e, String f,
+                     String g, String h, String i, String j, String k, String l);
+    }
+
+    @Experiment(DynamicDispatch.class)
+    public interface StaticBase {
+        @Static
+        String staticHello(Object o);
+    }
+
+    @Experiment(DynamicDispatch.class)
+    public interface DynamicBase {
+        @Dynamic
+        String hello(Object o, Object s);
+    }
+
+    public static class MyObject {
+        public static String staticHello() {
+            return "Hello static";
+        }
+
+        public String hello() {
+            return "Hello man";
+        }
+
+        public String hello(int n) {
+            return n > 0 ? "Hello positive" : "Hello";
+        }
+
+        public String hello(String s) {
+            return s;
+        }
+
+        public String hello(String a, String b, String c, String d, String e, String f,
+                            String g, String h, String i, String j, String k, String l) {
+            return l;
+        }
+    }
+}
@@ -30,6 +30,8 @@ package com.github.jonathanxd.koresexperiments.test;
 import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
 import com.github.jonathanxd.koresexperiments.DynamicDispatch;
 import com.github.jonathanxd.koresexperiments.LateBinding;
+import com.github.jonathanxd.koresexperiments.annotation.Dynamic;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
 import com.github.jonathanxd.iutils.object.Either;
 import com.github.jonathanxd.iutils.object.Try;
 
@@ -86,6 +88,33 @@ public class BindAndDispatchExperimentTest {
         Assertions.assertTrue(tryEx.getLeft() instanceof NoSuchMethodException);
     }
 
+    @Test
+    public void failedResolutionCacheTest() {
+        BaseWithInt base = KoresExperimentsIndyHelper.create(BaseWithInt.class, DynamicDispatch.EXPERIMENT);
+        DynBaseWithInt dyn = KoresExperimentsIndyHelper.create(DynBaseWithInt.class, DynamicDispatch.EXPERIMENT);
+        long failureHits = KoresMetrics.snapshot().getResolutionFailureHits();
+
+        Exception first = Try.TryEx(() -> base.hello(new MyObject2(), 2)).getLeft();
+        Exception second = Try.TryEx(() -> base.hello(new MyObject2(), 3)).getLeft();
+        Exception firstDyn = Try.TryEx(() -> dyn.hello(new MyObject2(), "a")).getLeft();
+        Exception secondDyn = Try.TryEx(() -> dyn.hello(new MyObject2(), "b")).getLeft();
+
+        Assertions.assertTrue(first instanceof NoSuchMethodException);
+        BindAndDispatchExperimentTest.assertCachedFailure(first, second);
+        Assertions.assertTrue(firstDyn instanceof NoSuchMethodException);
+        BindAndDispatchExperimentTest.assertCachedFailure(firstDyn, secondDyn);
+        Assertions.assertTrue(KoresMetrics.snapshot().getResolutionFailureHits() >= failureHits + 2);
+        Assertions.assertEquals("Hello 9 times.", base.hello(new MyObjectWInt(), 9));
+    }
+
+    private static void assertCachedFailure(Exception first, Exception cached) {
+        Assertions.assertTrue(cached instanceof NoSuchMethodException);
+        Assertions.assertNotSame(first, cached, "Callers must not share the exception of a cached failure");
+        Assertions.assertEquals(first.getMessage(), cached.getMessage());
+        Assertions.assertEquals(0, cached.getStackTrace().length, "Cached failures must not fill the stack trace");
+        Assertions.assertEquals(0, cached.getSuppressed().length);
+    }
+
     public interface Base {
         String hello(Object o);
     }
@@ -94,6 +123,11 @@ public class BindAndDispatchExperimentTest {
         String hello(Object o, int n);
     }
 
+    public interface DynBaseWithInt {
+        @Dynamic
+        String hello(Object o, Object s);
+    }
+
     public class MyObject2 {
         public String hello() {
             return "Hello man2";
@@ -0,0 +1,159 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BoundViewTest {
+
+    @Test
+    public void boundViewTest() {
+        Named mary = KoresExperimentsIndyHelper.bind(new Person("Mary"), Named.class);
+        Named tom = KoresExperimentsIndyHelper.bind(new Cat("Tom"), Named.class);
+
+        Assertions.assertEquals("Mary", mary.getName());
+        Assertions.assertEquals("Hello Mary", mary.greet("Hello"));
+        Assertions.assertEquals(4, mary.length());
+        Assertions.assertEquals("Tom", tom.getName());
+        Assertions.assertEquals("Meow Tom", tom.greet("Meow"));
+
+        mary.rename("Maria");
+        Assertions.assertEquals("Maria", mary.getName());
+
+        Assertions.assertSame(mary.getClass(), KoresExperimentsIndyHelper.bind(new Person("John"), Named.class).getClass());
+        Assertions.assertNotSame(mary.getClass(), tom.getClass());
+    }
+
+    @Test
+    public void nonPublicReceiverTest() {
+        Named hidden = KoresExperimentsIndyHelper.bind(new HiddenPerson("Hidden"), Named.class);
+
+        Assertions.assertEquals("Hidden", hidden.getName());
+        Assertions.assertEquals("Hi Hidden", hidden.greet("Hi"));
+    }
+
+    @Test
+    public void nonPublicImplementationTest() {
+        Named named = KoresExperimentsIndyHelper.bind(new NamedImpl("Impl"), Named.class);
+
+        Assertions.assertEquals("Impl", named.getName());
+        Assertions.assertEquals("Hey Impl", named.greet("Hey"));
+        Assertions.assertEquals(4, named.length());
+
+        named.rename("Other");
+        Assertions.assertEquals("Other", named.getName());
+    }
+
+    @Test
+    public void missingMethodTest() {
+        Assertions.assertThrows(BootstrapMethodError.class,
+                () -> KoresExperimentsIndyHelper.bind(new Object(), Named.class).getName());
+    }
+
+    public interface Named {
+        String getName();
+
+        String greet(String greeting);
+
+        int length();
+
+        void rename(String name);
+    }
+
+    public static class Person {
+        private String name;
+
+        public Person(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public String greet(String greeting) {
+            return greeting + " " + this.name;
+        }
+
+        public int length() {
+            return this.name.length();
+        }
+
+        public void rename(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Cat extends Person {
+        public Cat(String name) {
+            super(name);
+        }
+
+        @Override
+        public String greet(String greeting) {
+            return greeting + " " + this.getName();
+        }
+    }
+
+    private static class HiddenPerson extends Person {
+        HiddenPerson(String name) {
+            super(name);
+        }
+    }
+
+    private static final class NamedImpl implements Named {
+        private String name;
+
+        NamedImpl(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public String greet(String greeting) {
+            return greeting + " " + this.name;
+        }
+
+        @Override
+        public int length() {
+            return this.name.length();
+        }
+
+        @Override
+        public void rename(String name) {
+            this.name = name;
+        }
+    }
+}
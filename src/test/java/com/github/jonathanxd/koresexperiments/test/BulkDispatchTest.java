@@ -0,0 +1,138 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.BulkDispatch;
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.annotation.Experiment;
+import com.github.jonathanxd.koresexperiments.annotation.Parallel;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BulkDispatchTest {
+
+    @Test
+    public void bulkDispatchTest() {
+        Names names = KoresExperimentsIndyHelper.createFromInterface(Names.class);
+        Object[] receivers = {new Person("Mary"), new Cat("Tom"), new Person("John"), new Cat("Garfield")};
+
+        Assertions.assertArrayEquals(new String[]{"Mary", "Tom", "John", "Garfield"}, names.getName(receivers));
+        Assertions.assertEquals(Arrays.asList("Mary", "Tom", "John", "Garfield"), names.getName(Arrays.asList(receivers)));
+        Assertions.assertArrayEquals(new int[]{4, 3, 4, 8}, names.length(receivers));
+        Assertions.assertArrayEquals(new String[]{"Hello Mary", "Hello Tom", "Hello John", "Hello Garfield"},
+                names.greet(receivers, "Hello"));
+
+        names.rename(Arrays.asList(receivers), "X");
+        Assertions.assertArrayEquals(new String[]{"X", "X", "X", "X"}, names.getName(receivers));
+    }
+
+    @Test
+    public void nullReceiverTest() {
+        Names names = KoresExperimentsIndyHelper.createFromInterface(Names.class);
+        Person person = new Person("Mary");
+        Object[] receivers = {person, null, new Cat("Tom")};
+
+        IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> names.rename(Arrays.asList(receivers), "X"));
+
+        Assertions.assertEquals("Receiver at index 1 is null.", exception.getMessage());
+        Assertions.assertEquals("Mary", person.getName(), "No receiver must be invoked");
+    }
+
+    @Test
+    public void parallelBulkDispatchTest() {
+        Names names = KoresExperimentsIndyHelper.createFromInterface(Names.class);
+        List<Object> receivers = new ArrayList<>();
+        List<Object> expected = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            String name = "R" + i;
+            receivers.add(i % 3 == 0 ? new Cat(name) : new Person(name));
+            expected.add(name);
+        }
+
+        Assertions.assertEquals(expected, names.parallelGetName(receivers));
+    }
+
+    @Experiment(BulkDispatch.class)
+    public interface Names {
+        String[] getName(Object[] receivers);
+
+        List<Object> getName(Iterable<?> receivers);
+
+        int[] length(Object[] receivers);
+
+        String[] greet(Object[] receivers, String greeting);
+
+        void rename(Iterable<?> receivers, String name);
+
+        @Parallel(threshold = 1000)
+        List<Object> parallelGetName(List<?> receivers);
+    }
+
+    public static abstract class Named {
+        private String name;
+
+        Named(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public void rename(String name) {
+            this.name = name;
+        }
+
+        public int length() {
+            return this.name.length();
+        }
+
+        public String greet(String greeting) {
+            return greeting + " " + this.name;
+        }
+    }
+
+    public static class Person extends Named {
+        public Person(String name) {
+            super(name);
+        }
+    }
+
+    public static class Cat extends Named {
+        public Cat(String name) {
+            super(name);
+        }
+    }
+}
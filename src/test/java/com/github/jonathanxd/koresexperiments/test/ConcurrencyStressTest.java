@@ -0,0 +1,240 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.DynamicDispatch;
+import com.github.jonathanxd.koresexperiments.DynamicMethodInvoker;
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.LateBinding;
+import com.github.jonathanxd.koresexperiments.annotation.Dynamic;
+import com.github.jonathanxd.koresexperiments.annotation.Experiment;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteEntry;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteProfiler;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteRegistry;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stress tests of call sites invoked by many threads at the same time, both before they are
+ * linked and while they are relinked.
+ */
+public class ConcurrencyStressTest {
+
+    private static final int THREADS = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int ROUNDS = 20;
+
+    @Test
+    public void concurrentFirstCallLateBinding() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Base base = KoresExperimentsIndyHelper.create(Base.class, LateBinding.EXPERIMENT);
+            MyObject object = new MyObject();
+
+            runConcurrently(() -> Assertions.assertEquals("Hello man", base.hello(object)));
+        }
+    }
+
+    @Test
+    public void concurrentFirstCallDynamicDispatch() throws Exception {
+        long first = generatedInvokers();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            Base base = KoresExperimentsIndyHelper.create(Base.class, DynamicDispatch.EXPERIMENT);
+            MyObject object = new MyObject();
+
+            runConcurrently(() -> Assertions.assertEquals("Hello man", base.hello(object)));
+        }
+
+        long generated = generatedInvokers() - first;
+
+        // Racing bootstraps wait for the generation in progress, later bootstraps reuse the invoker
+        // (which may have been generated by another test)
+        Assertions.assertTrue(generated <= 1,
+                "Generated " + generated + " invokers for " + ROUNDS + " rounds of " + THREADS + " threads.");
+    }
+
+    @Test
+    public void concurrentGeneration() throws Exception {
+        MethodType type = MethodType.methodType(String.class, MyObject.class);
+        Queue<MethodHandle> invokers = new ConcurrentLinkedQueue<>();
+        long before = generatedInvokers();
+
+        // Virtual invocation, without dynamic argument types
+        runConcurrently(() -> invokers.add(DynamicMethodInvoker.generateAndGetMethodHandle("concurrentHello", type,
+                0, 0)));
+
+        Assertions.assertEquals(1, generatedInvokers() - before, "Invoker must be generated exactly once.");
+        Assertions.assertEquals(THREADS, invokers.size());
+        Assertions.assertTrue(invokers.stream().allMatch(invoker -> invoker == invokers.peek()));
+    }
+
+    @Test
+    public void concurrentMissSameClass() throws Exception {
+        CallSiteRegistry.setEnabled(true);
+
+        // Keeps the call sites reachable until they are checked
+        List<Guarded> instances = new ArrayList<>();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            Guarded guarded = KoresExperimentsIndyHelper.create(Guarded.class, DynamicDispatch.EXPERIMENT);
+            MyObject object = new MyObject();
+
+            instances.add(guarded);
+
+            runConcurrently(() -> Assertions.assertEquals("Guarded man", guarded.guardedHello(object)));
+        }
+
+        // Every site saw only one receiver class, so each one must have exactly one class guard
+        List<String> states = new ArrayList<>();
+
+        for (CallSiteEntry entry : CallSiteRegistry.entries()) {
+            if (entry.getName().equals("guardedHello"))
+                states.add(entry.getState());
+        }
+
+        Assertions.assertEquals(instances.size(), states.size());
+        Assertions.assertTrue(states.stream().allMatch(state -> state.equals("linked to 1 receiver classes")),
+                "Guard depth must be 1: " + states);
+    }
+
+    @Test
+    public void invokeWhileRelinking() throws Exception {
+        Base dispatch = KoresExperimentsIndyHelper.create(Base.class, DynamicDispatch.EXPERIMENT);
+        Base late = KoresExperimentsIndyHelper.create(Base.class, LateBinding.EXPERIMENT);
+        DynBase dynamic = KoresExperimentsIndyHelper.createFromInterface(DynBase.class);
+        MyObject object = new MyObject();
+        MyObject2 object2 = new MyObject2();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        Thread relinker = new Thread(() -> {
+            while (running.get()) {
+                CallSiteProfiler.start();
+                CallSiteProfiler.stop();
+            }
+        });
+
+        relinker.start();
+
+        try {
+            runConcurrently(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    Assertions.assertEquals("Hello man", dispatch.hello(object));
+                    Assertions.assertEquals("Hello man2", dispatch.hello(object2));
+                    Assertions.assertEquals("Hello man", late.hello(object));
+                    Assertions.assertEquals("man", dynamic.hello(object, "man"));
+                }
+            });
+        } finally {
+            running.set(false);
+            relinker.join();
+            CallSiteProfiler.stop();
+        }
+    }
+
+    private static long generatedInvokers() {
+        Long count = KoresMetrics.snapshot().getClassesGenerated()
+                .get(DynamicMethodInvoker.EXPERIMENT.getName());
+        return count == null ? 0 : count;
+    }
+
+    private static void runConcurrently(Runnable task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            });
+
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        if (!failures.isEmpty()) {
+            AssertionError error = new AssertionError(failures.size() + " of " + THREADS + " threads failed.");
+            failures.forEach(error::addSuppressed);
+            throw error;
+        }
+    }
+
+    public interface Guarded {
+        String guardedHello(Object o);
+    }
+
+    public interface Base {
+        String hello(Object o);
+    }
+
+    @Experiment(DynamicDispatch.class)
+    public interface DynBase {
+        @Dynamic
+        String hello(Object o, Object s);
+    }
+
+    public static class MyObject {
+        public String hello() {
+            return "Hello man";
+        }
+
+        public String hello(String s) {
+            return s;
+        }
+
+        public String guardedHello() {
+            return "Guarded man";
+        }
+    }
+
+    public static class MyObject2 {
+        public String hello() {
+            return "Hello man2";
+        }
+    }
+}
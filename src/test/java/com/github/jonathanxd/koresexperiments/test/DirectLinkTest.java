@@ -0,0 +1,135 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.DynamicDispatch;
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.annotation.Dynamic;
+import com.github.jonathanxd.koresexperiments.annotation.Experiment;
+import com.github.jonathanxd.koresexperiments.annotation.Static;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class DirectLinkTest {
+
+    @Test
+    public void directLinkTest() {
+        Typed typed = KoresExperimentsIndyHelper.createFromInterface(Typed.class);
+        long bootstraps = DirectLinkTest.bootstraps();
+
+        Assertions.assertEquals("F", typed.getName(new FinalPerson("F")));
+        Assertions.assertEquals("Final", typed.kind(new FinalPerson("F")));
+        Assertions.assertEquals(bootstraps, DirectLinkTest.bootstraps(), "Directly linked methods must not bootstrap");
+
+        Assertions.assertEquals("Mary", typed.getName(new Person("Mary")));
+        Assertions.assertEquals("Dr. John", typed.getName(new Doctor("John")));
+        Assertions.assertEquals(bootstraps + 1, DirectLinkTest.bootstraps(), "Non-final receiver types must bootstrap");
+
+        Assertions.assertEquals("F", typed.getName((Named) new FinalPerson("F")));
+        Assertions.assertEquals(bootstraps + 2, DirectLinkTest.bootstraps(), "Interface receiver types must bootstrap");
+
+        Assertions.assertEquals("Hello F", typed.greet(new FinalPerson("F"), "Hello"));
+        Assertions.assertEquals(bootstraps + 3, DirectLinkTest.bootstraps(), "Covariant return types must bootstrap");
+
+        Assertions.assertEquals("String", typed.describe(new Person("Mary"), "s"));
+        Assertions.assertEquals(bootstraps + 4, DirectLinkTest.bootstraps());
+    }
+
+    private static long bootstraps() {
+        return KoresMetrics.snapshot().getBootstraps().getOrDefault(DynamicDispatch.EXPERIMENT.getName(), 0L);
+    }
+
+    @Experiment(DynamicDispatch.class)
+    public interface Typed {
+        String getName(FinalPerson receiver);
+
+        String getName(Person receiver);
+
+        String getName(Named receiver);
+
+        Object greet(FinalPerson receiver, String greeting);
+
+        @Static
+        String kind(FinalPerson receiver);
+
+        @Dynamic
+        String describe(Person receiver, Object o);
+    }
+
+    public interface Named {
+        String getName();
+    }
+
+    public static class Person implements Named {
+        private final String name;
+
+        public Person(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        public String greet(String greeting) {
+            return greeting + " " + this.name;
+        }
+
+        public String describe(Object o) {
+            return "Object";
+        }
+
+        public String describe(String s) {
+            return "String";
+        }
+    }
+
+    public static class Doctor extends Person {
+        public Doctor(String name) {
+            super(name);
+        }
+
+        @Override
+        public String getName() {
+            return "Dr. " + super.getName();
+        }
+    }
+
+    public static final class FinalPerson extends Person {
+        public FinalPerson(String name) {
+            super(name);
+        }
+
+        public static String kind() {
+            return "Final";
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.DispatchProfile;
+import com.github.jonathanxd.koresexperiments.DynamicDispatch;
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.LateBinding;
+import com.github.jonathanxd.koresexperiments.annotation.Dynamic;
+import com.github.jonathanxd.koresexperiments.annotation.Experiment;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+import com.github.jonathanxd.koresexperiments.metrics.MetricsSnapshot;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class DispatchProfileTest {
+
+    @Test
+    public void recordAndReplayTest() throws IOException {
+        Path file = Files.createTempFile("dispatch", ".profile");
+
+        try {
+            Greeter recorded = KoresExperimentsIndyHelper.createFromInterface(Greeter.class);
+
+            DispatchProfile.startRecording();
+            this.greet(recorded);
+            Assertions.assertTrue(DispatchProfile.stopRecording(file) >= 3);
+
+            Assertions.assertTrue(DispatchProfile.replay(file) >= 3);
+
+            Greeter replayed = KoresExperimentsIndyHelper.createFromInterface(Greeter.class);
+            DispatchProfile.awaitReplay();
+
+            MetricsSnapshot before = KoresMetrics.snapshot();
+            this.greet(replayed);
+            MetricsSnapshot after = KoresMetrics.snapshot();
+
+            Assertions.assertEquals(before.getBootstraps(), after.getBootstraps(), "Replayed sites must not bootstrap again");
+            Assertions.assertEquals(before.getRelinks(), after.getRelinks(), "Replayed sites must not relink");
+        } finally {
+            DispatchProfile.stopReplay();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void notProfileTest() throws IOException {
+        Path file = Files.createTempFile("dispatch", ".profile");
+
+        try {
+            Files.write(file, new byte[]{1, 2, 3, 4, 5});
+            Assertions.assertThrows(IOException.class, () -> DispatchProfile.replay(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void greet(Greeter greeter) {
+        Assertions.assertEquals("Hello Mary", greeter.greet(new Person("Mary"), "Hello"));
+        Assertions.assertEquals("Hello Dr. John", greeter.greet(new Doctor("John"), "Hello"));
+        Assertions.assertEquals("Hi Mary", greeter.dynGreet(new Person("Mary"), "Hi"));
+        Assertions.assertEquals("Mary", greeter.lateName(new Person("Mary")));
+    }
+
+    public interface Greeter {
+        @Experiment(DynamicDispatch.class)
+        String greet(Object receiver, String greeting);
+
+        @Dynamic
+        @Experiment(DynamicDispatch.class)
+        String dynGreet(Object receiver, String greeting);
+
+        @Experiment(LateBinding.class)
+        String lateName(Object receiver);
+    }
+
+    public static class Person {
+        private final String name;
+
+        public Person(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public String lateName() {
+            return this.name;
+        }
+
+        public String greet(String greeting) {
+            return greeting + " " + this.getName();
+        }
+
+        public String dynGreet(String greeting) {
+            return greeting + " " + this.getName();
+        }
+    }
+
+    public static class Doctor extends Person {
+        public Doctor(String name) {
+            super(name);
+        }
+
+        @Override
+        public String getName() {
+            return "Dr. " + super.getName();
+        }
+    }
+}
@@ -58,6 +58,71 @@ public class DynamicDispatchTest {
 
     }
 
+    @Test
+    public void primitiveTest() {
+        Numbers base = KoresExperimentsIndyHelper.createFromInterface(Numbers.class);
+        WideningNumbers widening = new WideningNumbers();
+        ExactNumbers exact = new ExactNumbers();
+
+        Assertions.assertEquals("long 5", base.number(widening, 5));
+        Assertions.assertEquals("int 5", base.number(exact, 5));
+        Assertions.assertEquals("int 3", base.number(exact, (byte) 3));
+        Assertions.assertEquals("Object true", base.number(widening, true));
+        Assertions.assertEquals("double 1.0 a", base.mix(widening, 1, "a"));
+        Assertions.assertEquals("Integer 1 a", base.mix(exact, 1, "a"));
+    }
+
+    @Experiment(DynamicDispatch.class)
+    public interface Numbers {
+        @Dynamic
+        String number(Object receiver, int n);
+
+        @Dynamic
+        String number(Object receiver, byte n);
+
+        @Dynamic
+        String number(Object receiver, boolean n);
+
+        @Dynamic
+        String mix(Object receiver, int n, Object o);
+    }
+
+    public static class WideningNumbers {
+        public String number(Integer n) {
+            return "Integer " + n;
+        }
+
+        public String number(long n) {
+            return "long " + n;
+        }
+
+        public String number(Object n) {
+            return "Object " + n;
+        }
+
+        public String mix(Integer n, String s) {
+            return "Integer " + n + " " + s;
+        }
+
+        public String mix(double n, String s) {
+            return "double " + n + " " + s;
+        }
+    }
+
+    public static class ExactNumbers {
+        public String number(long n) {
+            return "long " + n;
+        }
+
+        public String number(int n) {
+            return "int " + n;
+        }
+
+        public String mix(Integer n, String s) {
+            return "Integer " + n + " " + s;
+        }
+    }
+
     @Experiment(DynamicDispatch.class)
     public interface Stringifier {
         @Dynamic
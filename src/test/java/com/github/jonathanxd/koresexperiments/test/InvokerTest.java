@@ -0,0 +1,170 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.Invoker;
+import com.github.jonathanxd.koresexperiments.Invokers;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodType;
+
+public class InvokerTest {
+
+    @Test
+    public void byNameTest() throws Throwable {
+        Person person = new Person("Mary");
+
+        Assertions.assertEquals("Mary", Invokers.invoke(person, "getName"));
+        Assertions.assertEquals("Hello Mary", Invokers.invoke(person, "greet", "Hello"));
+        Assertions.assertEquals("Object", Invokers.invoke(person, "describe", 1L));
+        Assertions.assertEquals("String", Invokers.invoke(person, "describe", "s"));
+        Assertions.assertEquals(5, Invokers.invoke(person, "add", 2, 3));
+        Assertions.assertNull(Invokers.invoke(person, "setName", "John"));
+        Assertions.assertEquals("John", Invokers.invoke(person, "getName"));
+        Assertions.assertEquals("Secret", Invokers.invoke(Person.hidden(), "getName"));
+        Assertions.assertThrows(NoSuchMethodException.class, () -> Invokers.invoke(person, "fly"));
+        Assertions.assertThrows(NoSuchMethodException.class, () -> Invokers.invoke(person, "greet", 1));
+
+        Throwable absent = Assertions.assertThrows(NoSuchMethodException.class, () -> Invokers.invoke(person, "fly", 1));
+        Throwable cached = Assertions.assertThrows(NoSuchMethodException.class, () -> Invokers.invoke(person, "fly", 2));
+        Assertions.assertNotSame(absent, cached);
+        Assertions.assertEquals(absent.getMessage(), cached.getMessage());
+    }
+
+    @Test
+    public void nullArgumentTest() throws Throwable {
+        Person person = new Person("Mary");
+
+        Assertions.assertNull(Invokers.invoke(person, "setName", (Object) null));
+        Assertions.assertNull(Invokers.invoke(person, "getName"));
+        Assertions.assertEquals("String", Invokers.invoke(person, "describe", (Object) null));
+        Assertions.assertThrows(NoSuchMethodException.class, () -> Invokers.invoke(person, "add", null, 1));
+
+        // The same invocation with non-null arguments is resolved independently
+        Assertions.assertNull(Invokers.invoke(person, "setName", "John"));
+        Assertions.assertEquals("John", Invokers.invoke(person, "getName"));
+        Assertions.assertEquals(3, Invokers.invoke(person, "add", 1, 2));
+    }
+
+    @Test
+    public void boxedOverloadTest() throws Throwable {
+        Counter counter = new Counter();
+
+        // The exact set(Integer) is applicable without unboxing, so it wins over set(int)
+        Assertions.assertEquals("Integer", Invokers.invoke(counter, "set", 1));
+        Assertions.assertEquals("Integer", Invokers.invoke(counter, "set", 2));
+        // add(int) only accepts an Integer by unboxing it
+        Assertions.assertEquals("int", Invokers.invoke(counter, "add", 1));
+    }
+
+    @Test
+    public void invokerTest() throws Throwable {
+        Invoker greet = Invokers.invoker("greet", MethodType.methodType(String.class, String.class));
+        Invoker add = Invokers.invoker("add", MethodType.methodType(int.class, int.class, int.class));
+
+        Assertions.assertEquals("Hello Mary", greet.invoke(new Person("Mary"), "Hello"));
+        Assertions.assertEquals("Hi John", greet.invoke(new Person("John"), "Hi"));
+        Assertions.assertEquals(7, add.invoke(new Person("Mary"), 3, 4));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> add.invoke(new Person("Mary"), 3));
+    }
+
+    @Test
+    public void dynamicInvokerTest() throws Throwable {
+        Invoker describe = Invokers.dynamicInvoker("describe", MethodType.methodType(String.class, Object.class));
+        Person person = new Person("Mary");
+
+        Assertions.assertTrue(describe.isDynamic());
+        Assertions.assertEquals("String", describe.invoke(person, "s"));
+        Assertions.assertEquals("Object", describe.invoke(person, 1));
+        Assertions.assertEquals("Object", describe.invoke(person, (Object) null));
+    }
+
+    public interface Named {
+        String getName();
+    }
+
+    public static class Person implements Named {
+        private String name;
+
+        public Person(String name) {
+            this.name = name;
+        }
+
+        static Named hidden() {
+            return new Secret();
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String greet(String greeting) {
+            return greeting + " " + this.name;
+        }
+
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        public String describe(Object o) {
+            return "Object";
+        }
+
+        public String describe(String s) {
+            return "String";
+        }
+    }
+
+    public static class Counter {
+        public String set(int value) {
+            return "int";
+        }
+
+        public String set(Integer value) {
+            return "Integer";
+        }
+
+        public String add(int value) {
+            return "int";
+        }
+    }
+
+    private static final class Secret implements Named {
+        @Override
+        public String getName() {
+            return "Secret";
+        }
+    }
+}
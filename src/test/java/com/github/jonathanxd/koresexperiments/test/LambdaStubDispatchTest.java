@@ -0,0 +1,142 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.LambdaStubDispatch;
+import com.github.jonathanxd.koresexperiments.annotation.Experiment;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LambdaStubDispatchTest {
+
+    @Test
+    public void lambdaStubDispatchTest() {
+        Dispatcher dispatcher = KoresExperimentsIndyHelper.createFromInterface(Dispatcher.class);
+        Person person = new Person("Mary");
+        Cat cat = new Cat("Tom");
+
+        Assertions.assertEquals("Mary", dispatcher.getName(person));
+        Assertions.assertEquals("Tom", dispatcher.getName(cat));
+        Assertions.assertEquals("Hello Mary", dispatcher.greet(person, "Hello"));
+        Assertions.assertEquals(4, dispatcher.length(person));
+        Assertions.assertEquals(3, dispatcher.length(cat));
+        Assertions.assertEquals("Hidden", dispatcher.getName(new Person("Hidden") {
+        }));
+    }
+
+    @Test
+    public void stubCacheTest() {
+        Dispatcher first = KoresExperimentsIndyHelper.createFromInterface(Dispatcher.class);
+        Dispatcher second = KoresExperimentsIndyHelper.createFromInterface(Dispatcher.class);
+        Person person = new Person("Mary");
+
+        first.getName(person);
+        long generated = LambdaStubDispatchTest.generated();
+
+        // Stub of Person was already spun for this signature
+        Assertions.assertEquals("Mary", second.getName(person));
+        Assertions.assertEquals(generated, LambdaStubDispatchTest.generated());
+    }
+
+    @Test
+    public void sharedInterfaceTest() {
+        Dispatcher dispatcher = KoresExperimentsIndyHelper.createFromInterface(Dispatcher.class);
+
+        Assertions.assertEquals("Hi Mary", dispatcher.greet(new Person("Mary"), "Hi"));
+        long generated = LambdaStubDispatchTest.generated();
+
+        // Functional interface and lookup holder of this signature and class loader are reused,
+        // only the lambda is spun for Dog
+        Assertions.assertEquals("Hello Rex", dispatcher.greet(new Dog("Rex"), "Hello"));
+        Assertions.assertEquals(generated, LambdaStubDispatchTest.generated());
+    }
+
+    private static long generated() {
+        return KoresMetrics.snapshot().getClassesGenerated().getOrDefault(LambdaStubDispatch.EXPERIMENT.getName(), 0L);
+    }
+
+    @Experiment(LambdaStubDispatch.class)
+    public interface Dispatcher {
+        String getName(Object receiver);
+
+        String greet(Object receiver, String greeting);
+
+        int length(Object receiver);
+    }
+
+    public static class Person {
+        private final String name;
+
+        public Person(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public String greet(String greeting) {
+            return greeting + " " + this.name;
+        }
+
+        public int length() {
+            return this.name.length();
+        }
+    }
+
+    public static class Dog {
+        private final String name;
+
+        public Dog(String name) {
+            this.name = name;
+        }
+
+        public String greet(String greeting) {
+            return greeting + " " + this.name;
+        }
+    }
+
+    public static class Cat {
+        private final String name;
+
+        public Cat(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public int length() {
+            return this.name.length();
+        }
+    }
+}
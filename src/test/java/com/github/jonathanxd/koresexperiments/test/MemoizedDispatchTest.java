@@ -0,0 +1,150 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.MemoizedDispatch;
+import com.github.jonathanxd.koresexperiments.annotation.Experiment;
+import com.github.jonathanxd.koresexperiments.annotation.Memoize;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+import com.github.jonathanxd.koresexperiments.metrics.MetricsSnapshot;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class MemoizedDispatchTest {
+
+    @Test
+    public void memoizeTest() {
+        Formatter formatter = KoresExperimentsIndyHelper.createFromInterface(Formatter.class);
+        Expensive a = new Expensive();
+        Expensive b = new Expensive();
+        MetricsSnapshot before = KoresMetrics.snapshot();
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals("a:1", formatter.format(a, "a", 1));
+            Assertions.assertEquals(42L, formatter.square(a, 42L) / 42L);
+        }
+
+        Assertions.assertEquals(1, a.calls("format"));
+        Assertions.assertEquals(1, a.calls("square"));
+
+        // Different receiver or arguments are different keys
+        Assertions.assertEquals("a:1", formatter.format(b, "a", 1));
+        Assertions.assertEquals("a:2", formatter.format(a, "a", 2));
+        Assertions.assertEquals(1, b.calls("format"));
+        Assertions.assertEquals(2, a.calls("format"));
+
+        MetricsSnapshot after = KoresMetrics.snapshot();
+        Assertions.assertTrue(after.getMemoHits() - before.getMemoHits() >= 18);
+        Assertions.assertTrue(after.getMemoMisses() - before.getMemoMisses() >= 4);
+    }
+
+    @Test
+    public void evictionTest() {
+        Formatter formatter = KoresExperimentsIndyHelper.createFromInterface(Formatter.class);
+        Expensive e = new Expensive();
+
+        for (int i = 0; i < 10; i++) {
+            formatter.small(e, i);
+        }
+
+        Assertions.assertEquals(10, e.calls("small"));
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(i, (int) formatter.small(e, i));
+        }
+
+        // Max entries is 2, so at least 8 results were evicted
+        Assertions.assertTrue(e.calls("small") >= 18);
+    }
+
+    @Test
+    public void expirationTest() throws InterruptedException {
+        Formatter formatter = KoresExperimentsIndyHelper.createFromInterface(Formatter.class);
+        Expensive e = new Expensive();
+
+        formatter.expiring(e, 1.5);
+        formatter.expiring(e, 1.5);
+        Assertions.assertEquals(1, e.calls("expiring"));
+
+        Thread.sleep(100);
+
+        formatter.expiring(e, 1.5);
+        Assertions.assertEquals(2, e.calls("expiring"));
+    }
+
+    @Experiment(MemoizedDispatch.class)
+    public interface Formatter {
+        String format(Object receiver, String s, int i);
+
+        long square(Object receiver, long l);
+
+        @Memoize(maxEntries = 2)
+        Integer small(Object receiver, int i);
+
+        @Memoize(expireAfter = 50, unit = TimeUnit.MILLISECONDS)
+        double expiring(Object receiver, double d);
+    }
+
+    public static class Expensive {
+        private final Map<String, Integer> calls = new HashMap<>();
+
+        int calls(String name) {
+            return this.calls.getOrDefault(name, 0);
+        }
+
+        private void call(String name) {
+            this.calls.merge(name, 1, Integer::sum);
+        }
+
+        public String format(String s, int i) {
+            this.call("format");
+            return s + ":" + i;
+        }
+
+        public long square(long l) {
+            this.call("square");
+            return l * l;
+        }
+
+        public Integer small(int i) {
+            this.call("small");
+            return i;
+        }
+
+        public double expiring(double d) {
+            this.call("expiring");
+            return d * 2;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.DynamicDispatch;
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.LateBinding;
+import com.github.jonathanxd.koresexperiments.annotation.Dynamic;
+import com.github.jonathanxd.koresexperiments.annotation.Experiment;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteInfo;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteProfiler;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteRegistry;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+import com.github.jonathanxd.koresexperiments.metrics.MetricsSnapshot;
+import com.github.jonathanxd.koresexperiments.metrics.SiteProfileInfo;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class MetricsTest {
+
+    @Test
+    public void metricsTest() {
+        CallSiteRegistry.setEnabled(true);
+
+        MetricsSnapshot before = KoresMetrics.snapshot();
+
+        Base dispatch = KoresExperimentsIndyHelper.create(Base.class, DynamicDispatch.EXPERIMENT);
+        Base late = KoresExperimentsIndyHelper.create(Base.class, LateBinding.EXPERIMENT);
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals("Hello 1", dispatch.hello(new MyObject(), 1));
+            Assertions.assertEquals("Hello 1", late.hello(new MyObject(), 1));
+        }
+
+        MetricsSnapshot after = KoresMetrics.snapshot();
+
+        Assertions.assertTrue(count(after, "indy_helper") - count(before, "indy_helper") >= 2);
+        Assertions.assertTrue(after.getBytesGenerated() > before.getBytesGenerated());
+        Assertions.assertTrue(after.getCodegenNanos() > before.getCodegenNanos());
+        Assertions.assertTrue(after.getBootstraps().get("DynamicDispatch") >= 1);
+        Assertions.assertTrue(after.getBootstraps().get("LateBinding") >= 1);
+        Assertions.assertTrue(after.getRelinks() > before.getRelinks());
+
+        boolean linked = false;
+
+        for (CallSiteInfo callSite : after.getCallSites()) {
+            if (callSite.getExperiment().equals("LateBinding")
+                    && callSite.getState().equals("linked to " + MyObject.class.getName()))
+                linked = true;
+        }
+
+        Assertions.assertTrue(linked);
+    }
+
+    @Test
+    public void resolutionCacheTest() {
+        DynBase base = KoresExperimentsIndyHelper.createFromInterface(DynBase.class);
+        MetricsSnapshot before = KoresMetrics.snapshot();
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals("Hello 1", base.hello(new MyObject(), 1));
+        }
+
+        MetricsSnapshot after = KoresMetrics.snapshot();
+
+        Assertions.assertTrue(after.getResolutionMisses() - before.getResolutionMisses() >= 1);
+        Assertions.assertTrue(after.getResolutionHits() - before.getResolutionHits() >= 9);
+    }
+
+    @Test
+    public void profilerTest() {
+        CallSiteRegistry.setEnabled(true);
+
+        Base base = KoresExperimentsIndyHelper.create(Base.class, DynamicDispatch.EXPERIMENT);
+        Assertions.assertEquals("Hello 1", base.hello(new MyObject(), 1));
+
+        List<SiteProfileInfo> profiles;
+        CallSiteProfiler.start(1);
+
+        try {
+            for (int i = 0; i < 100; i++) {
+                Assertions.assertEquals("Hello 1", base.hello(new MyObject(), 1));
+                Assertions.assertEquals("Hi 1", base.hello(new MyObject2(), 1));
+                Assertions.assertEquals("Hey 1", base.hello(new MyObject3(), 1));
+            }
+
+            Assertions.assertFalse(CallSiteProfiler.megamorphic(10).isEmpty());
+        } finally {
+            profiles = CallSiteProfiler.stop();
+        }
+
+        SiteProfileInfo profile = profiles.stream()
+                .filter(p -> p.getInvocations() == 300)
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+
+        Assertions.assertTrue(profile.isMegamorphic());
+        Assertions.assertEquals(100L, (long) profile.getReceiverClasses().get(MyObject2.class.getName()));
+        Assertions.assertTrue(profile.getSlowPathShare() > 0);
+        Assertions.assertTrue(CallSiteProfiler.report().isEmpty());
+        Assertions.assertEquals("Hello 1", base.hello(new MyObject(), 1));
+    }
+
+    private static long count(MetricsSnapshot snapshot, String module) {
+        Long count = snapshot.getClassesGenerated().get(module);
+        return count == null ? 0 : count;
+    }
+
+    public interface Base {
+        String hello(Object o, int n);
+    }
+
+    @Experiment(DynamicDispatch.class)
+    public interface DynBase {
+        @Dynamic
+        String hello(Object o, Integer n);
+    }
+
+    public static class MyObject2 {
+        public String hello(int n) {
+            return "Hi " + n;
+        }
+    }
+
+    public static class MyObject3 {
+        public String hello(int n) {
+            return "Hey " + n;
+        }
+    }
+
+    public static class MyObject {
+        public String hello(int n) {
+            return "Hello " + n;
+        }
+
+        public String hello(Integer n) {
+            return "Hello " + n;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.MultipleDispatch;
+import com.github.jonathanxd.koresexperiments.test.DynamicDispatchTest.EntityImpl;
+import com.github.jonathanxd.koresexperiments.test.DynamicDispatchTest.MyStringifier;
+import com.github.jonathanxd.koresexperiments.test.DynamicDispatchTest.Person;
+import com.github.jonathanxd.koresexperiments.test.DynamicDispatchTest.PersonImpl;
+import com.github.jonathanxd.koresexperiments.test.DynamicDispatchTest.Entity;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MultipleDispatchTest {
+
+    @Test
+    public void multipleDispatchTest() {
+        Stringifier base = KoresExperimentsIndyHelper.create(Stringifier.class, MultipleDispatch.EXPERIMENT);
+
+        Person p = new PersonImpl("Mary", 30);
+        Entity e = new EntityImpl("en");
+        MyStringifier stringifier = new MyStringifier();
+        Assertions.assertEquals("Hello", base.stringify(stringifier, "Hello"));
+        Assertions.assertEquals("Person{name=Mary,arg=30}", base.stringify(stringifier, p));
+        Assertions.assertEquals("Object[1]", base.stringify(stringifier, 1));
+        Assertions.assertEquals("Object[h] & Object[null] & Entity[Entity{id=en}]",
+                base.stringify(stringifier, "h", null, e));
+
+        Assertions.assertEquals("Person[Person{name=Mary,age=30}] & Object[null] & Entity[Entity{id=en}]",
+                base.stringify(stringifier, p, null, e));
+        Assertions.assertEquals("Object[Person{name=Mary,age=30}] & Object[null] & Object[null]",
+                base.stringify(stringifier, p, null, null));
+    }
+
+    @Test
+    public void megamorphicTest() {
+        Stringifier base = KoresExperimentsIndyHelper.create(Stringifier.class, MultipleDispatch.EXPERIMENT);
+
+        Person p = new PersonImpl("Mary", 30);
+        MyStringifier[] receivers = {
+                new MyStringifier(),
+                new MyStringifier() {
+                },
+                new MyStringifier() {
+                },
+                new MyStringifier() {
+                },
+                new MyStringifier() {
+                },
+                new MyStringifier() {
+                    @Override
+                    public String stringify(String s) {
+                        return s.toUpperCase();
+                    }
+                }
+        };
+
+        for (int i = 0; i < 3; i++) {
+            for (MyStringifier receiver : receivers) {
+                Assertions.assertEquals("Person{name=Mary,arg=30}", base.stringify(receiver, p));
+            }
+        }
+
+        Assertions.assertEquals("hello", base.stringify(receivers[0], "hello"));
+        Assertions.assertEquals("HELLO", base.stringify(receivers[5], "hello"));
+    }
+
+    @Test
+    public void noMatchTest() {
+        Stringifier base = KoresExperimentsIndyHelper.create(Stringifier.class, MultipleDispatch.EXPERIMENT);
+
+        Assertions.assertThrows(NoSuchMethodException.class, () -> base.stringify(new NumberStringifier(), "h"));
+        Assertions.assertEquals("Number[1]", base.stringify(new NumberStringifier(), 1));
+    }
+
+    @Test
+    public void nonPublicReceiverTest() {
+        Stringifier base = KoresExperimentsIndyHelper.create(Stringifier.class, MultipleDispatch.EXPERIMENT);
+        Object receiver = new HiddenStringifier();
+
+        Assertions.assertEquals("Text[h]", base.stringify(receiver, "h"));
+        Assertions.assertEquals("Number[1]", base.stringify(receiver, 1));
+    }
+
+    public interface Stringifier {
+        String stringify(Object receiver, Object v);
+
+        String stringify(Object receiver, Object v, Object v2, Object v3);
+    }
+
+    public interface TextStringifier {
+        String stringify(String s);
+
+        String stringify(Number n);
+    }
+
+    static class HiddenStringifier implements TextStringifier {
+        @Override
+        public String stringify(String s) {
+            return "Text[" + s + "]";
+        }
+
+        @Override
+        public String stringify(Number n) {
+            return "Number[" + n + "]";
+        }
+    }
+
+    public static class NumberStringifier {
+        public String stringify(Number n) {
+            return "Number[" + n + "]";
+        }
+    }
+}
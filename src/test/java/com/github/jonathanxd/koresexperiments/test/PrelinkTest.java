@@ -0,0 +1,131 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.DynamicDispatch;
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.LateBinding;
+import com.github.jonathanxd.koresexperiments.MultipleDispatch;
+import com.github.jonathanxd.koresexperiments.annotation.Dynamic;
+import com.github.jonathanxd.koresexperiments.annotation.Experiment;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+import com.github.jonathanxd.koresexperiments.metrics.MetricsSnapshot;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+public class PrelinkTest {
+
+    @Test
+    public void prelinkTest() throws Exception {
+        Greeter greeter = KoresExperimentsIndyHelper.createFromInterface(Greeter.class);
+        Map<Method, Long> linkTimes = KoresExperimentsIndyHelper.prelink(greeter, Person.class, Doctor.class, String.class);
+
+        Assertions.assertEquals(4, linkTimes.size());
+        Assertions.assertTrue(linkTimes.containsKey(Greeter.class.getMethod("greet", Object.class, String.class)));
+        Assertions.assertTrue(linkTimes.values().stream().allMatch(nanos -> nanos >= 0));
+
+        MetricsSnapshot before = KoresMetrics.snapshot();
+
+        Assertions.assertEquals("Hello Mary", greeter.greet(new Person("Mary"), "Hello"));
+        Assertions.assertEquals("Hello Dr. John", greeter.greet(new Doctor("John"), "Hello"));
+        Assertions.assertEquals("Hi Mary", greeter.dynGreet(new Person("Mary"), "Hi"));
+        Assertions.assertEquals("Hey Mary", greeter.multiGreet(new Person("Mary"), "Hey"));
+        Assertions.assertEquals("Mary", greeter.lateName(new Person("Mary")));
+
+        MetricsSnapshot after = KoresMetrics.snapshot();
+
+        Assertions.assertEquals(before.getBootstraps(), after.getBootstraps(), "Prelinked sites must not bootstrap again");
+        Assertions.assertEquals(before.getRelinks(), after.getRelinks(), "Prelinked sites must not relink");
+        Assertions.assertEquals(before.getResolutionMisses(), after.getResolutionMisses(),
+                "Prelinked resolutions must be served from cache");
+    }
+
+    @Test
+    public void notGeneratedTest() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> KoresExperimentsIndyHelper.prelink(new Person("Mary"), Person.class));
+    }
+
+    public interface Greeter {
+        @Experiment(DynamicDispatch.class)
+        String greet(Object receiver, String greeting);
+
+        @Dynamic
+        @Experiment(DynamicDispatch.class)
+        String dynGreet(Object receiver, String greeting);
+
+        @Experiment(MultipleDispatch.class)
+        String multiGreet(Object receiver, String greeting);
+
+        @Experiment(LateBinding.class)
+        String lateName(Object receiver);
+    }
+
+    public static class Person {
+        private final String name;
+
+        public Person(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public String lateName() {
+            return this.name;
+        }
+
+        public String greet(String greeting) {
+            return greeting + " " + this.getName();
+        }
+
+        public String dynGreet(String greeting) {
+            return greeting + " " + this.getName();
+        }
+
+        public String multiGreet(Object greeting) {
+            return greeting + " " + this.getName();
+        }
+    }
+
+    public static class Doctor extends Person {
+        public Doctor(String name) {
+            super(name);
+        }
+
+        @Override
+        public String getName() {
+            return "Dr. " + super.getName();
+        }
+    }
+}
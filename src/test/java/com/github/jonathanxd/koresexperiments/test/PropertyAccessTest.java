@@ -0,0 +1,108 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.PropertyAccess;
+import com.github.jonathanxd.koresexperiments.annotation.Experiment;
+import com.github.jonathanxd.koresexperiments.annotation.Property;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PropertyAccessTest {
+
+    @Test
+    public void propertyAccessTest() {
+        Properties properties = KoresExperimentsIndyHelper.createFromInterface(Properties.class);
+
+        Bean bean = new Bean();
+        Point point = new Point();
+
+        properties.set_name(bean, "Mary");
+        Assertions.assertEquals("Mary", properties.get_name(bean));
+        Assertions.assertEquals("Mary", bean.getName());
+
+        properties.set_x(point, 10);
+        Assertions.assertEquals(10, properties.get_x(point));
+        Assertions.assertEquals(10, point.x);
+
+        Assertions.assertEquals(true, properties.enabled(bean));
+        Assertions.assertSame(point, properties.setY(point, 5));
+        Assertions.assertEquals(5, point.y);
+
+        // Same call site, different receiver classes
+        Assertions.assertEquals("Point", properties.get_name(point));
+    }
+
+    @Test
+    public void missingPropertyTest() {
+        Properties properties = KoresExperimentsIndyHelper.createFromInterface(Properties.class);
+
+        Assertions.assertThrows(NoSuchFieldException.class, () -> properties.get_x(new Bean()));
+        Assertions.assertThrows(NoSuchFieldException.class, () -> properties.set_name(new Point(), "p"));
+    }
+
+    @Experiment(PropertyAccess.class)
+    public interface Properties {
+        Object get_name(Object receiver);
+
+        void set_name(Object receiver, Object name);
+
+        int get_x(Object receiver);
+
+        void set_x(Object receiver, int x);
+
+        Object setY(Object receiver, int y);
+
+        @Property("enabled")
+        Object enabled(Object receiver);
+    }
+
+    public static class Bean {
+        private String name;
+
+        public String getName() {
+            return this.name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public boolean isEnabled() {
+            return true;
+        }
+    }
+
+    public static class Point {
+        public final String name = "Point";
+        public int x;
+        public int y;
+    }
+}
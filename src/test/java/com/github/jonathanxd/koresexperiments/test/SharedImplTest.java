@@ -0,0 +1,95 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.DynamicDispatch;
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.LateBinding;
+import com.github.jonathanxd.koresexperiments.annotation.Experiment;
+import com.github.jonathanxd.koresexperiments.metrics.KoresMetrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SharedImplTest {
+
+    @Test
+    public void sharedImplTest() {
+        Greeter first = KoresExperimentsIndyHelper.createShared(Greeter.class, DynamicDispatch.EXPERIMENT);
+        Greeter second = KoresExperimentsIndyHelper.createShared(Greeter.class, DynamicDispatch.EXPERIMENT);
+        Greeter late = KoresExperimentsIndyHelper.createShared(Greeter.class, LateBinding.EXPERIMENT);
+
+        Assertions.assertNotSame(first, second);
+        Assertions.assertSame(first.getClass(), second.getClass());
+        Assertions.assertNotSame(first.getClass(), late.getClass());
+        Assertions.assertNotSame(first.getClass(),
+                KoresExperimentsIndyHelper.create(Greeter.class, DynamicDispatch.EXPERIMENT).getClass());
+
+        Assertions.assertEquals("Hello Mary", first.greet(new Person("Mary"), "Hello"));
+
+        long bootstraps = SharedImplTest.bootstraps();
+
+        Assertions.assertEquals("Hi John", second.greet(new Person("John"), "Hi"));
+        Assertions.assertEquals(bootstraps, SharedImplTest.bootstraps(), "Shared call sites must not bootstrap again");
+    }
+
+    @Test
+    public void sharedFromInterfaceTest() {
+        AnnotatedGreeter first = KoresExperimentsIndyHelper.createSharedFromInterface(AnnotatedGreeter.class);
+        AnnotatedGreeter second = KoresExperimentsIndyHelper.createSharedFromInterface(AnnotatedGreeter.class);
+
+        Assertions.assertSame(first.getClass(), second.getClass());
+        Assertions.assertEquals("Hello Mary", first.greet(new Person("Mary"), "Hello"));
+        Assertions.assertEquals("Hi John", second.greet(new Person("John"), "Hi"));
+    }
+
+    private static long bootstraps() {
+        return KoresMetrics.snapshot().getBootstraps().getOrDefault(DynamicDispatch.EXPERIMENT.getName(), 0L);
+    }
+
+    public interface Greeter {
+        String greet(Object receiver, String greeting);
+    }
+
+    @Experiment(DynamicDispatch.class)
+    public interface AnnotatedGreeter {
+        String greet(Object receiver, String greeting);
+    }
+
+    public static class Person {
+        private final String name;
+
+        public Person(String name) {
+            this.name = name;
+        }
+
+        public String greet(String greeting) {
+            return greeting + " " + this.name;
+        }
+    }
+}
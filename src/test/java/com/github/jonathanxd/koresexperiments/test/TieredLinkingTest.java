@@ -0,0 +1,132 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.DynamicDispatch;
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.annotation.Dynamic;
+import com.github.jonathanxd.koresexperiments.annotation.Experiment;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteEntry;
+import com.github.jonathanxd.koresexperiments.metrics.CallSiteRegistry;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TieredLinkingTest {
+
+    private static final long TIMEOUT_NANOS = 30_000_000_000L;
+
+    @Test
+    public void tieredTest() throws InterruptedException {
+        Tiered tiered;
+
+        CallSiteRegistry.setEnabled(true);
+        DynamicDispatch.setTiered(true);
+
+        try {
+            tiered = KoresExperimentsIndyHelper.createFromInterface(Tiered.class);
+
+            this.invoke(tiered);
+        } finally {
+            DynamicDispatch.setTiered(false);
+        }
+
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+
+        while (!TieredLinkingTest.isLinked("tieredHello")) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "Invoker was not generated in background.");
+            Thread.sleep(10);
+        }
+
+        this.invoke(tiered);
+    }
+
+    private void invoke(Tiered tiered) {
+        Object[] receivers = {new A(), new B(), new C(), new D(), new E(), new F()};
+
+        for (Object receiver : receivers) {
+            Assertions.assertEquals(receiver.getClass().getSimpleName() + " 1",
+                    tiered.tieredHello(receiver, 1));
+        }
+
+        Assertions.assertEquals("A man", tiered.tieredHello(new A(), "man"));
+        Assertions.assertEquals("A 2", tiered.tieredHello(new A(), (Object) 2));
+    }
+
+    private static boolean isLinked(String name) {
+        boolean found = false;
+
+        for (CallSiteEntry entry : CallSiteRegistry.entries()) {
+            if (entry.getName().equals(name) && entry.getExperiment().equals(DynamicDispatch.EXPERIMENT.getName())) {
+                if (entry.getState().startsWith("interim"))
+                    return false;
+
+                found = true;
+            }
+        }
+
+        return found;
+    }
+
+    @Experiment(DynamicDispatch.class)
+    public interface Tiered {
+        String tieredHello(Object receiver, int n);
+
+        @Dynamic
+        String tieredHello(Object receiver, Object o);
+    }
+
+    public static class A {
+        public String tieredHello(int n) {
+            return this.getClass().getSimpleName() + " " + n;
+        }
+
+        public String tieredHello(String s) {
+            return "A " + s;
+        }
+
+        public String tieredHello(Object o) {
+            return "A " + o;
+        }
+    }
+
+    public static class B extends A {
+    }
+
+    public static class C extends A {
+    }
+
+    public static class D extends A {
+    }
+
+    public static class E extends A {
+    }
+
+    public static class F extends A {
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *      KoresExperiments - CodeAPI Bytecode Experiments! <https://github.com/JonathanxD/CodeProxy>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/ & https://github.com/TheRealBuggy/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.koresexperiments.test;
+
+import com.github.jonathanxd.koresexperiments.DynamicDispatch;
+import com.github.jonathanxd.koresexperiments.KoresExperimentsIndyHelper;
+import com.github.jonathanxd.koresexperiments.LateBinding;
+import com.github.jonathanxd.koresexperiments.annotation.Experiment;
+import com.github.jonathanxd.koresexperiments.annotation.Static;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+public class VarargsTest {
+
+    @Test
+    public void varargsTest() {
+        Logger dispatch = KoresExperimentsIndyHelper.create(Logger.class, DynamicDispatch.EXPERIMENT);
+        Logger late = KoresExperimentsIndyHelper.create(Logger.class, LateBinding.EXPERIMENT);
+        StaticLogger staticLogger = KoresExperimentsIndyHelper.createFromInterface(StaticLogger.class);
+        MyLogger logger = new MyLogger();
+
+        for (Logger l : new Logger[]{dispatch, late}) {
+            Assertions.assertEquals("info: 0", l.log(logger, "info"));
+            Assertions.assertEquals("info: 1 [a]", l.log(logger, "info", "a"));
+            Assertions.assertEquals("info: 3 [a, 1, b]", l.log(logger, "info", "a", 1, "b"));
+            Assertions.assertEquals("sum: 6", l.sum(logger, 1, 2, 3));
+        }
+
+        Assertions.assertEquals("static: 2 [a, b]", staticLogger.log(logger, "static", "a", "b"));
+    }
+
+    @Test
+    public void wideSignatureTest() {
+        WideLogger dispatch = KoresExperimentsIndyHelper.create(WideLogger.class, DynamicDispatch.EXPERIMENT);
+        WideLogger late = KoresExperimentsIndyHelper.create(WideLogger.class, LateBinding.EXPERIMENT);
+        MyLogger logger = new MyLogger();
+
+        for (WideLogger l : new WideLogger[]{dispatch, late}) {
+            Assertions.assertEquals("abcdefghijkl",
+                    l.log(logger, "a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "l"));
+            Assertions.assertEquals("12: 66",
+                    l.log(logger, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11L));
+        }
+    }
+
+    public interface Logger {
+        String log(Object receiver, String level);
+
+        String log(Object receiver, String level, Object a);
+
+        String log(Object receiver, String level, Object a, Object b, Object c);
+
+        String sum(Object receiver, int a, int b, int c);
+    }
+
+    @Experiment(DynamicDispatch.class)
+    public interface StaticLogger {
+        @Static
+        String log(Object receiver, String level, String a, String b);
+    }
+
+    public interface WideLogger {
+        String log(Object receiver, String a, String b, String c, String d, String e, String f,
+                   String g, String h, String i, String j, String k, String l);
+
+        String log(Object receiver, int a, int b, int c, int d, int e, int f,
+                   int g, int h, int i, int j, int k, long l);
+    }
+
+    public static class MyLogger {
+        public static String log(String level, String... args) {
+            return level + ": " + args.length + " " + Arrays.toString(args);
+        }
+
+        public String log(String level, Object... args) {
+            return level + ": " + args.length + (args.length == 0 ? "" : " " + Arrays.toString(args));
+        }
+
+        public String sum(int... values) {
+            int sum = 0;
+
+            for (int value : values) {
+                sum += value;
+            }
+
+            return "sum: " + sum;
+        }
+
+        public String log(String a, String b, String c, String d, String e, String f,
+                          String g, String h, String i, String j, String k, String l) {
+            return a + b + c + d + e + f + g + h + i + j + k + l;
+        }
+
+        public String log(int a, int b, int c, int d, int e, int f,
+                          int g, int h, int i, int j, int k, long l) {
+            return "12: " + (a + b + c + d + e + f + g + h + i + j + k + l);
+        }
+    }
+}